@@ -0,0 +1,128 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link SharedURLLookUpTier} kept in the heap of the node, standing in for a distributed one in tests, where several
+ * {@link TwoLevelURLLookUpCache}s sharing an instance play the nodes of a cluster. Invalidations are delivered
+ * synchronously, on the thread publishing them.
+ */
+public class InProcessSharedURLLookUpTier implements SharedURLLookUpTier {
+
+    private final Cache<String, URLRedirect> redirects;
+
+    private final ConcurrentMap<String, CompletableFuture<URLRedirect>> loads = new ConcurrentHashMap<>();
+
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public InProcessSharedURLLookUpTier(Duration ttl) {
+        this.redirects = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URLRedirect get(String urlAlias) {
+        return this.redirects.getIfPresent(urlAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(String urlAlias, URLRedirect redirect) {
+        this.redirects.put(urlAlias, redirect);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The first caller loads the alias, while the others wait for its result, or its exception.
+     */
+    @Override
+    public URLRedirect load(String urlAlias, Function<String, URLRedirect> loader) {
+        URLRedirect redirect = this.redirects.getIfPresent(urlAlias);
+        if (redirect != null) {
+            return redirect;
+        }
+
+        CompletableFuture<URLRedirect> load = new CompletableFuture<>();
+        CompletableFuture<URLRedirect> inFlightLoad = this.loads.putIfAbsent(urlAlias, load);
+        if (inFlightLoad != null) {
+            return join(inFlightLoad);
+        }
+
+        try {
+            // Another load may have completed since the first look up.
+            redirect = this.redirects.getIfPresent(urlAlias);
+            if (redirect == null) {
+                redirect = loader.apply(urlAlias);
+                this.redirects.put(urlAlias, redirect);
+            }
+            load.complete(redirect);
+            return redirect;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loads.remove(urlAlias, load);
+        }
+    }
+
+    private static URLRedirect join(CompletableFuture<URLRedirect> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delete(String urlAlias) {
+        this.redirects.invalidate(urlAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deleteAll() {
+        this.redirects.invalidateAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishInvalidation(String urlAlias) {
+        this.listeners.forEach(listener -> listener.accept(urlAlias));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        this.listeners.add(listener);
+    }
+
+}
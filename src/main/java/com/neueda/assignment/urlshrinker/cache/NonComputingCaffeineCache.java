@@ -0,0 +1,41 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * {@link CaffeineCache} loading missing entries on the calling thread, outside of Caffeine's computing methods. Those
+ * coalesce concurrent loads of a key, but hold a lock of the hash table bin of the key for the whole load, also
+ * blocking loads of unrelated keys, with no timeout and no visibility on the callers waiting. Coalescing is left to
+ * the loader instead, e.g. through a {@link SingleFlight}.
+ */
+public class NonComputingCaffeineCache extends CaffeineCache {
+
+    public NonComputingCaffeineCache(String name, Cache<Object, Object> cache) {
+        super(name, cache, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cachedValue = get(key);
+        if (cachedValue != null) {
+            return (T) cachedValue.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+}
@@ -0,0 +1,199 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link SharedURLLookUpTier} kept in Redis. Redirects are stored as strings holding the name of their policy, empty
+ * when they follow the default one, and their URL address separated by a colon, expiring after the configured TTL.
+ * Invalidations are published on a channel every node subscribes to.
+ * <p>
+ * Loads are coalesced with a lock key set with {@code SET NX PX}: the node holding it loads the alias, while the others
+ * poll for the redirect until the lock is released or times out, and then load the alias themselves. Redis failures
+ * are logged and handled as misses, so the nodes keep serving from their near caches and the database meanwhile.
+ */
+public class RedisSharedURLLookUpTier implements SharedURLLookUpTier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RedisSharedURLLookUpTier.class);
+
+    private static final String ALL_ALIASES = "*";
+
+    private static final String POLICY_SEPARATOR = ":";
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+        Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final SharedURLLookUpTierProperties properties;
+
+    public RedisSharedURLLookUpTier(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                    SharedURLLookUpTierProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.properties = properties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URLRedirect get(String urlAlias) {
+        try {
+            return decode(this.redisTemplate.opsForValue().get(redirectKey(urlAlias)));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to look up alias '{}' in Redis.", urlAlias, e);
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(String urlAlias, URLRedirect redirect) {
+        try {
+            this.redisTemplate.opsForValue().set(redirectKey(urlAlias), encode(redirect), this.properties.getTtl());
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to cache alias '{}' in Redis.", urlAlias, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URLRedirect load(String urlAlias, Function<String, URLRedirect> loader) {
+        String lockKey = lockKey(urlAlias);
+        String lockToken = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + this.properties.getLoadLockTimeout().toNanos();
+        try {
+            do {
+                URLRedirect redirect = decode(this.redisTemplate.opsForValue().get(redirectKey(urlAlias)));
+                if (redirect != null) {
+                    return redirect;
+                }
+
+                if (Boolean.TRUE.equals(this.redisTemplate.opsForValue()
+                        .setIfAbsent(lockKey, lockToken, this.properties.getLoadLockTimeout()))) {
+                    try {
+                        redirect = loader.apply(urlAlias);
+                        put(urlAlias, redirect);
+                        return redirect;
+                    } finally {
+                        this.redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), lockToken);
+                    }
+                }
+                LockSupport.parkNanos(this.properties.getLoadPollInterval().toNanos());
+            } while (System.nanoTime() < deadline);
+            LOGGER.debug("Timed out waiting for alias '{}' to be loaded by another node.", urlAlias);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to coalesce the load of alias '{}' through Redis.", urlAlias, e);
+        }
+        return loader.apply(urlAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void delete(String urlAlias) {
+        try {
+            this.redisTemplate.delete(redirectKey(urlAlias));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to delete alias '{}' from Redis.", urlAlias, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Keys are found with {@code SCAN}, so Redis is not blocked while they are collected.
+     */
+    @Override
+    public void deleteAll() {
+        ScanOptions scanOptions = ScanOptions.scanOptions().match(this.properties.getKeyPrefix() + "*").count(1000).build();
+        try (Cursor<String> keys = this.redisTemplate.scan(scanOptions)) {
+            List<String> batch = new ArrayList<>(1000);
+            while (keys.hasNext()) {
+                batch.add(keys.next());
+                if (batch.size() == 1000 || !keys.hasNext()) {
+                    this.redisTemplate.delete(batch);
+                    batch.clear();
+                }
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to delete the aliases cached in Redis.", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishInvalidation(String urlAlias) {
+        try {
+            this.redisTemplate.convertAndSend(this.properties.getInvalidationChannel(),
+                urlAlias == null ? ALL_ALIASES : urlAlias);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Unable to publish the invalidation of alias '{}' to Redis.", urlAlias, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        this.listenerContainer.addMessageListener((message, pattern) -> {
+            String urlAlias = new String(message.getBody(), StandardCharsets.UTF_8);
+            listener.accept(ALL_ALIASES.equals(urlAlias) ? null : urlAlias);
+        }, new ChannelTopic(this.properties.getInvalidationChannel()));
+    }
+
+    private String redirectKey(String urlAlias) {
+        return this.properties.getKeyPrefix() + urlAlias;
+    }
+
+    private String lockKey(String urlAlias) {
+        return this.properties.getKeyPrefix() + "lock:" + urlAlias;
+    }
+
+    static String encode(URLRedirect redirect) {
+        String policy = redirect.getRedirectPolicy() == null ? "" : redirect.getRedirectPolicy().name();
+        return policy + POLICY_SEPARATOR + redirect.getUrlAddress();
+    }
+
+    static URLRedirect decode(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        int separator = value.indexOf(POLICY_SEPARATOR);
+        RedirectPolicy redirectPolicy = separator == 0 ? null : RedirectPolicy.valueOf(value.substring(0, separator));
+        return new URLRedirect(value.substring(separator + 1), redirectPolicy);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Look up cache shared by every node of a deployment, sitting behind the in-process cache of each node within a
+ * {@link TwoLevelURLLookUpCache}. Besides holding the redirects, it carries the invalidation messages which keep the
+ * in-process caches of the nodes consistent, and coalesces loads, so a cold alias is loaded once across the cluster.
+ */
+public interface SharedURLLookUpTier {
+
+    /**
+     * Looks up for the redirect of an alias.
+     *
+     * @param urlAlias  Alias to look up.
+     *
+     * @return The redirect of the alias, or {@code null} when it is not cached.
+     */
+    URLRedirect get(String urlAlias);
+
+    /**
+     * Caches the redirect of an alias.
+     *
+     * @param urlAlias  Alias to cache.
+     * @param redirect  Redirect of the alias.
+     */
+    void put(String urlAlias, URLRedirect redirect);
+
+    /**
+     * Looks up for the redirect of an alias, loading and caching it when missing. Concurrent loads of the same alias,
+     * from this node or any other, wait for the first one instead of loading the alias again.
+     *
+     * @param urlAlias  Alias to look up.
+     * @param loader    Loads the redirect of the alias. Its exceptions are propagated to the caller.
+     *
+     * @return The redirect of the alias.
+     */
+    URLRedirect load(String urlAlias, Function<String, URLRedirect> loader);
+
+    /**
+     * Removes the redirect of an alias.
+     *
+     * @param urlAlias  Alias to remove.
+     */
+    void delete(String urlAlias);
+
+    /**
+     * Removes every cached redirect.
+     */
+    void deleteAll();
+
+    /**
+     * Tells every node, this one included, that the redirect of an alias changed.
+     *
+     * @param urlAlias  Alias whose redirect changed, or {@code null} when every alias may have changed.
+     */
+    void publishInvalidation(String urlAlias);
+
+    /**
+     * Registers a listener of the invalidations published by any node.
+     *
+     * @param listener  Receives the alias whose redirect changed, or {@code null} when every alias may have changed.
+     */
+    void subscribe(Consumer<String> listener);
+
+}
@@ -0,0 +1,48 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link SharedURLLookUpTier}, bound from the {@code application.cache.url-look-up.shared-tier}
+ * properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.url-look-up.shared-tier")
+public class SharedURLLookUpTierProperties {
+
+    /**
+     * Implementation of the shared tier: {@code none}, so each node only has its in-process cache, {@code in-process},
+     * a stand-in kept in the heap of the node meant for tests, or {@code redis}.
+     */
+    private String type = "none";
+
+    /**
+     * How long a redirect is kept in the shared tier after being cached.
+     */
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * Prefix of the keys holding the redirects in Redis.
+     */
+    private String keyPrefix = "urlshrinker:url-look-up:";
+
+    /**
+     * Redis channel carrying the invalidation messages.
+     */
+    private String invalidationChannel = "urlshrinker:url-look-up:invalidations";
+
+    /**
+     * How long a node may hold the lock loading an alias, and how long the other nodes wait for it before loading the
+     * alias themselves.
+     */
+    private Duration loadLockTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Interval between two checks of whether the node holding the lock finished loading an alias.
+     */
+    private Duration loadPollInterval = Duration.ofMillis(5);
+
+}
@@ -0,0 +1,109 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller loads the key on its own thread, while callers arriving
+ * before it finishes wait for its result, or its exception, instead of loading the key again. Nothing is kept once a
+ * load finishes, so later callers load the key anew; caching the results is left to the caller.
+ * <p>
+ * Waiters give up after the configured timeout, with the exception built by the {@code timeoutException} function, so
+ * a stuck load does not hold every request for the key. Waiters are published as meters named after the flight:
+ * {@code <name>.coalesced}, timing how long each waiter waited, {@code <name>.coalesced.waiting}, the waiters currently
+ * waiting, and {@code <name>.coalesced.timeouts}, the waiters which gave up.
+ *
+ * @param <K>   Type of the keys.
+ * @param <V>   Type of the loaded values.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    private final Duration timeout;
+
+    private final Function<K, ? extends RuntimeException> timeoutException;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Timer coalescedTimer;
+
+    private final Counter timeoutCounter;
+
+    public SingleFlight(String name, Duration timeout, Function<K, ? extends RuntimeException> timeoutException,
+                        MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.timeoutException = timeoutException;
+        this.coalescedTimer = Timer.builder(name + ".coalesced")
+            .description("Time spent by callers waiting for a load of the same key already in progress.")
+            .register(meterRegistry);
+        this.timeoutCounter = Counter.builder(name + ".coalesced.timeouts")
+            .description("Callers which gave up waiting for a load of the same key already in progress.")
+            .register(meterRegistry);
+        Gauge.builder(name + ".coalesced.waiting", this.waiting, AtomicInteger::get)
+            .description("Callers currently waiting for a load of the same key already in progress.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Loads a key, or waits for the load of the key already in progress.
+     *
+     * @param key       Key to load.
+     * @param loader    Loads the key, on the calling thread when no load of the key is in progress.
+     *
+     * @return The loaded value.
+     */
+    public V execute(K key, Function<K, V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlightLoad = this.loads.putIfAbsent(key, load);
+        if (inFlightLoad != null) {
+            return await(key, inFlightLoad);
+        }
+
+        try {
+            V value = loader.apply(key);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.loads.remove(key, load);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> load) {
+        long startedAt = System.nanoTime();
+        this.waiting.incrementAndGet();
+        try {
+            return load.get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException e) {
+            this.timeoutCounter.increment();
+            throw this.timeoutException.apply(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw this.timeoutException.apply(key);
+        } finally {
+            this.waiting.decrementAndGet();
+            this.coalescedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
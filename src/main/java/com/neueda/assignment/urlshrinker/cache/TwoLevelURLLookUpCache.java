@@ -0,0 +1,136 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Look up cache made of an in-process near cache, backed by Caffeine, in front of a {@link SharedURLLookUpTier}.
+ * Reads go through both levels: near cache misses are answered by the shared tier, and aliases missing in both are
+ * loaded once across the cluster, through {@link SharedURLLookUpTier#load(String, java.util.function.Function)}.
+ * <p>
+ * Puts, evictions and clears are applied to the shared tier and published as invalidations, which every node applies to
+ * its near cache and republishes as {@link URLLookUpInvalidatedEvent}s, so no node keeps serving a stale redirect.
+ */
+public class TwoLevelURLLookUpCache extends AbstractValueAdaptingCache {
+
+    private final CaffeineCache nearCache;
+
+    private final SharedURLLookUpTier sharedTier;
+
+    public TwoLevelURLLookUpCache(CaffeineCache nearCache, SharedURLLookUpTier sharedTier,
+                                  ApplicationEventPublisher eventPublisher) {
+        super(false);
+        this.nearCache = nearCache;
+        this.sharedTier = sharedTier;
+        this.sharedTier.subscribe(urlAlias -> {
+            if (urlAlias == null) {
+                this.nearCache.clear();
+            } else {
+                this.nearCache.evict(urlAlias);
+            }
+            eventPublisher.publishEvent(new URLLookUpInvalidatedEvent(urlAlias));
+        });
+    }
+
+    /**
+     * Resolves the in-process part of a look up cache, i.e. the near cache of a {@link TwoLevelURLLookUpCache} or the
+     * cache itself otherwise, for callers which must not wait for the shared tier or need the Caffeine cache.
+     *
+     * @param cache Look up cache.
+     *
+     * @return The in-process part of the cache.
+     */
+    public static Cache nearCacheOf(Cache cache) {
+        return cache instanceof TwoLevelURLLookUpCache ? ((TwoLevelURLLookUpCache) cache).nearCache : cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return this.nearCache.getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getNativeCache() {
+        return this.nearCache.getNativeCache();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object lookup(Object key) {
+        Object redirect = this.nearCache.getNativeCache().getIfPresent(key);
+        if (redirect == null) {
+            redirect = this.sharedTier.get((String) key);
+            if (redirect != null) {
+                this.nearCache.put(key, redirect);
+            }
+        }
+        return redirect;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Near cache misses wait for loads of the alias in progress on other nodes, while concurrent misses on this node
+     * are left to be coalesced by the loader, as in {@link NonComputingCaffeineCache}.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object redirect = this.nearCache.getNativeCache().getIfPresent(key);
+        if (redirect == null) {
+            redirect = this.sharedTier.load((String) key, urlAlias -> {
+                try {
+                    return (URLRedirect) valueLoader.call();
+                } catch (Exception e) {
+                    throw new ValueRetrievalException(urlAlias, valueLoader, e);
+                }
+            });
+            this.nearCache.put(key, redirect);
+        }
+        return (T) redirect;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(Object key, Object value) {
+        this.sharedTier.put((String) key, (URLRedirect) value);
+        this.sharedTier.publishInvalidation((String) key);
+        this.nearCache.put(key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(Object key) {
+        this.sharedTier.delete((String) key);
+        this.sharedTier.publishInvalidation((String) key);
+        this.nearCache.evict(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        this.sharedTier.deleteAll();
+        this.sharedTier.publishInvalidation(null);
+        this.nearCache.clear();
+    }
+
+}
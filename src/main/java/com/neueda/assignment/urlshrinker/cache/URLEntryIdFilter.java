@@ -0,0 +1,186 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.math.BloomFilter;
+import com.neueda.assignment.urlshrinker.repository.URLEntryIdAllocator;
+import com.neueda.assignment.urlshrinker.repository.URLEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps track of the ids issued to {@link com.neueda.assignment.urlshrinker.model.entity.URLEntry} entities, allowing
+ * lookups of unknown aliases to be answered without querying the database. It combines:
+ * <ul>
+ *     <li>A {@link BloomFilter} with every id present in the database when the application starts, plus the ids
+ *     created or found afterwards. It is authoritative for ids up to the highest one loaded at startup, or up to the
+ *     first id of the blocks other nodes may still be issuing ids from, when lower.</li>
+ *     <li>A bound above the highest id leased by the {@link URLEntryIdAllocator}, refreshed periodically, beyond which
+ *     no id could have been issued yet.</li>
+ *     <li>A short-lived negative cache holding the ids recently looked up without success.</li>
+ * </ul>
+ */
+@Component
+@EnableConfigurationProperties(URLEntryIdFilterProperties.class)
+public class URLEntryIdFilter implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLEntryIdFilter.class);
+
+    private final URLEntryRepository urlEntryRepository;
+
+    private final URLEntryIdAllocator urlEntryIdAllocator;
+
+    private final URLEntryIdFilterProperties properties;
+
+    private final Cache<Long, Boolean> negativeCache;
+
+    private final AtomicLong highestKnownId = new AtomicLong();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile long loadedUpToId;
+
+    public URLEntryIdFilter(URLEntryRepository urlEntryRepository, URLEntryIdAllocator urlEntryIdAllocator,
+                            URLEntryIdFilterProperties properties, MeterRegistry meterRegistry) {
+        this.urlEntryRepository = urlEntryRepository;
+        this.urlEntryIdAllocator = urlEntryIdAllocator;
+        this.properties = properties;
+        this.negativeCache = Caffeine.newBuilder()
+            .maximumSize(properties.getNegativeCacheMaximumSize())
+            .expireAfterWrite(properties.getNegativeCacheTtl())
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.negativeCache, "urlNotFound");
+        Gauge.builder("url.id.filter.memory", this, URLEntryIdFilter::byteSize)
+            .description("Bytes used by the Bloom filter of issued URL entry ids.")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Loads the ids present in the database once all beans are created, before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (this.properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the Bloom filter by a new one, loaded with all ids present in the database. The ids are read page after
+     * page, in ascending order, so the database never holds all of them in a single result.
+     */
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Optional<Long> lowestOpenLeasedId = this.urlEntryIdAllocator.findLowestOpenLeasedId();
+        long totalIds = this.urlEntryRepository.count();
+        BloomFilter newBloomFilter = new BloomFilter(
+            Math.max(this.properties.getExpectedInsertions(), totalIds * 2),
+            this.properties.getFalsePositiveProbability()
+        );
+
+        long lastId = 0L;
+        List<Long> ids;
+        do {
+            ids = this.urlEntryRepository.findIdsAfter(lastId, PageRequest.of(0, this.properties.getLoadPageSize()));
+            for (Long id : ids) {
+                newBloomFilter.put(id);
+            }
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == this.properties.getLoadPageSize());
+
+        long highestLoadedId = lastId;
+
+        this.bloomFilter = newBloomFilter;
+        this.loadedUpToId = lowestOpenLeasedId.map(id -> Math.min(id - 1, highestLoadedId)).orElse(highestLoadedId);
+        this.highestKnownId.accumulateAndGet(highestLoadedId, Math::max);
+        refreshHighestKnownId();
+        LOGGER.info("Loaded {} URL entry ids in a filter of {} bytes in {} ms.", totalIds, newBloomFilter.byteSize(),
+            (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Raises the highest known id to the highest one leased so far, so ids recently issued by other nodes are still
+     * looked up in the database.
+     */
+    @Scheduled(fixedDelayString = "${application.cache.id-filter.refresh-interval:PT30S}")
+    public void refreshHighestKnownId() {
+        if (this.bloomFilter != null) {
+            this.urlEntryIdAllocator.findHighestLeasedId()
+                .ifPresent(highestId -> this.highestKnownId.accumulateAndGet(highestId, Math::max));
+        }
+    }
+
+    /**
+     * Checks whether an id is certainly not assigned to any entry.
+     *
+     * @param id    Id to check.
+     *
+     * @return {@code true} when the id is certainly not assigned, or {@code false} when it might be and the database
+     *         must be queried.
+     */
+    public boolean isKnownMissing(long id) {
+        BloomFilter currentBloomFilter = this.bloomFilter;
+        if (currentBloomFilter == null) {
+            return false;
+        }
+
+        if (id <= this.loadedUpToId) {
+            return !currentBloomFilter.mightContain(id);
+        }
+
+        return id > this.highestKnownId.get() + this.properties.getLookAhead()
+            || this.negativeCache.getIfPresent(id) != null;
+    }
+
+    /**
+     * Registers an id which has just been assigned to an entry or found in the database.
+     *
+     * @param id    Existing id.
+     */
+    public void registerExisting(long id) {
+        BloomFilter currentBloomFilter = this.bloomFilter;
+        if (currentBloomFilter != null) {
+            currentBloomFilter.put(id);
+            this.highestKnownId.accumulateAndGet(id, Math::max);
+            this.negativeCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Registers an id which was looked up without success, avoiding new database queries for it during the
+     * configured negative cache TTL.
+     *
+     * @param id    Missing id.
+     */
+    public void registerMissing(long id) {
+        if (this.bloomFilter != null) {
+            this.negativeCache.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return Number of bytes used by the Bloom filter, or 0 when the filter is disabled.
+     */
+    public long byteSize() {
+        BloomFilter currentBloomFilter = this.bloomFilter;
+        return currentBloomFilter == null ? 0L : currentBloomFilter.byteSize();
+    }
+
+}
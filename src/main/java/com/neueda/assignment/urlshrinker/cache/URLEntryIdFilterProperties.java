@@ -0,0 +1,57 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link URLEntryIdFilter}, bound from the {@code application.cache.id-filter} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.id-filter")
+public class URLEntryIdFilterProperties {
+
+    /**
+     * Whether unknown aliases are answered without querying the database.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum number of ids the Bloom filter is sized for. The filter is sized for twice the number of ids found in
+     * the database when it is greater.
+     */
+    private long expectedInsertions = 1_000_000L;
+
+    /**
+     * Probability of the Bloom filter reporting an unknown id as possibly existing.
+     */
+    private double falsePositiveProbability = 0.01D;
+
+    /**
+     * How many ids above the highest known id are still looked up in the database, covering ids issued by other
+     * nodes between two refreshes of the highest known id.
+     */
+    private long lookAhead = 1_000_000L;
+
+    /**
+     * Interval between two refreshes of the highest id present in the database.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long an id not found in the database is answered as missing without querying the database again.
+     */
+    private Duration negativeCacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of ids held by the negative cache.
+     */
+    private long negativeCacheMaximumSize = 100_000L;
+
+    /**
+     * Number of ids read per query when loading the filter.
+     */
+    private int loadPageSize = 100_000;
+
+}
@@ -0,0 +1,38 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the cache holding the URL address assigned to each URL alias, bound from the
+ * {@code application.cache.url-look-up} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.url-look-up")
+public class URLLookUpCacheProperties {
+
+    /**
+     * Upper bound of the heap used by the cached aliases and URL addresses, as estimated by
+     * {@link URLLookUpWeigher}.
+     */
+    private DataSize maximumWeight = DataSize.ofMegabytes(64);
+
+    /**
+     * Number of entries the cache is sized for when created.
+     */
+    private int initialCapacity = 1024;
+
+    /**
+     * How long an entry is kept after being cached. Entries never expire when not set.
+     */
+    private Duration expireAfterWrite;
+
+    /**
+     * How long a look up waits for the load of the same alias already in progress on behalf of another request.
+     */
+    private Duration loadTimeout = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,17 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import lombok.Value;
+
+/**
+ * Published by the {@link TwoLevelURLLookUpCache} when the redirect of an alias is invalidated by any node, so caches
+ * built on top of the look up cache drop what they derived from it.
+ */
+@Value
+public class URLLookUpInvalidatedEvent {
+
+    /**
+     * Alias whose redirect changed, or {@code null} when every alias may have changed.
+     */
+    String urlAlias;
+
+}
@@ -0,0 +1,159 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryRepository;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@code urlLookUp} cache warm across restarts. The hottest aliases, as ranked by the eviction policy of the
+ * cache, are written to a {@link URLLookUpSnapshotFile} periodically and on shutdown, and loaded back once all beans
+ * are created, before the application accepts requests. When there is no snapshot, or it cannot be read, the cache is
+ * warmed up with the most viewed entries of the database, the most recently created first among equally viewed ones.
+ * <p>
+ * How long the warm up took is logged and recorded as the {@code url.lookup.warm.up} timer, tagged with its source.
+ * Only the near cache of a {@link TwoLevelURLLookUpCache} is snapshotted, as the shared tier outlives the nodes. Not
+ * used by the {@code mapped} store, whose look ups never reach a database.
+ */
+@Component
+@Profile("!mapped")
+@EnableConfigurationProperties(URLLookUpSnapshotProperties.class)
+public class URLLookUpSnapshot implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLLookUpSnapshot.class);
+
+    private final Cache<Object, Object> urlLookUpCache;
+
+    private final URLEntryRepository urlEntryRepository;
+
+    private final URLLookUpSnapshotProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    public URLLookUpSnapshot(CacheManager cacheManager, URLEntryRepository urlEntryRepository,
+                             URLLookUpSnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.urlLookUpCache = ((CaffeineCache) TwoLevelURLLookUpCache.nearCacheOf(
+            cacheManager.getCache(CacheConfiguration.URL_LOOK_UP))).getNativeCache();
+        this.urlEntryRepository = urlEntryRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Warms up the cache once all beans are created, before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (this.properties.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Loads the snapshot into the cache, or the most viewed entries when there is no readable snapshot.
+     */
+    void warmUp() {
+        long startedAt = System.nanoTime();
+        if (Files.isRegularFile(this.properties.getPath())) {
+            try {
+                int entries = URLLookUpSnapshotFile.read(this.properties.getPath(), this.properties.getLoadThreads(),
+                    this.urlLookUpCache::put);
+                recordWarmUp("snapshot", entries, startedAt);
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Unable to load the look up cache snapshot, warming up from the database instead.", e);
+            }
+        }
+
+        List<URLEntry> urlEntries = this.urlEntryRepository.findMostViewed(
+            PageRequest.of(0, this.properties.getMaximumEntries()));
+        for (URLEntry urlEntry : urlEntries) {
+            this.urlLookUpCache.put(Base62.encode(urlEntry.getId()),
+                new URLRedirect(urlEntry.getUrlAddress(), urlEntry.getRedirectPolicy()));
+        }
+        recordWarmUp("database", urlEntries.size(), startedAt);
+    }
+
+    private void recordWarmUp(String source, int entries, long startedAt) {
+        long elapsed = System.nanoTime() - startedAt;
+        Timer.builder("url.lookup.warm.up")
+            .description("Time spent warming up the look up cache on startup.")
+            .tag("source", source)
+            .register(this.meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        LOGGER.info("Warmed up the look up cache with {} aliases from the {} in {} ms.", entries, source,
+            TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Writes the hottest entries of the cache to the snapshot file. Failures are logged, so the previous snapshot is
+     * kept and the next attempt happens on schedule.
+     */
+    @Scheduled(
+        initialDelayString = "${application.cache.url-look-up.snapshot.interval:PT5M}",
+        fixedDelayString = "${application.cache.url-look-up.snapshot.interval:PT5M}"
+    )
+    public void snapshot() {
+        if (!this.properties.isEnabled()) {
+            return;
+        }
+
+        this.snapshotLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            Map<Object, Object> hottest = this.urlLookUpCache.policy().eviction()
+                .map(eviction -> eviction.hottest(this.properties.getMaximumEntries()))
+                .orElseGet(() -> this.urlLookUpCache.asMap());
+
+            List<Map.Entry<String, URLRedirect>> entries = new ArrayList<>(hottest.size());
+            hottest.forEach((alias, redirect) -> {
+                if (entries.size() < this.properties.getMaximumEntries() && redirect instanceof URLRedirect) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>((String) alias, (URLRedirect) redirect));
+                }
+            });
+
+            URLLookUpSnapshotFile.write(this.properties.getPath(), entries);
+            LOGGER.debug("Snapshotted {} aliases of the look up cache in {} ms.", entries.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException e) {
+            LOGGER.error("Unable to snapshot the look up cache to '{}'.", this.properties.getPath(), e);
+        } finally {
+            this.snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Takes a last snapshot on shutdown.
+     */
+    @Override
+    public void destroy() {
+        snapshot();
+    }
+
+}
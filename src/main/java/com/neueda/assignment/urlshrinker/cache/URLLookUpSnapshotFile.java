@@ -0,0 +1,174 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Binary file holding aliases and their {@link URLRedirect}s. The entries are split in segments of up to
+ * {@link #SEGMENT_ENTRIES} entries, whose sizes are listed in the header, so the segments can be decoded in parallel:
+ * <pre>
+ * magic (int) | version (int) | segment count (int) | size of each segment in bytes (int) ... | segments ...
+ * segment: entry count (int) | entries ...
+ * entry:   alias length (short) | alias (ISO-8859-1) | URL length (int) | URL (UTF-8) | policy (byte)
+ * </pre>
+ * The policy is written as {@code 0} when the entry follows the default one, or as its ordinal plus one, so
+ * {@link #VERSION} must be raised whenever {@link RedirectPolicy} constants are reordered.
+ */
+public final class URLLookUpSnapshotFile {
+
+    static final int MAGIC = 0x55524C53;
+
+    static final int VERSION = 1;
+
+    static final int SEGMENT_ENTRIES = 10_000;
+
+    private static final RedirectPolicy[] POLICIES = RedirectPolicy.values();
+
+    private URLLookUpSnapshotFile() { }
+
+    /**
+     * Writes the received entries to a temporary file, which then atomically replaces the snapshot, so a snapshot
+     * interrupted half way never replaces the previous one.
+     *
+     * @param path      File receiving the snapshot.
+     * @param entries   Aliases and their redirects, in the order they are to be loaded.
+     *
+     * @throws IOException When the file cannot be written.
+     */
+    public static void write(Path path, List<Map.Entry<String, URLRedirect>> entries) throws IOException {
+        List<byte[]> segments = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += SEGMENT_ENTRIES) {
+            segments.add(encodeSegment(entries.subList(start, Math.min(start + SEGMENT_ENTRIES, entries.size()))));
+        }
+
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temporary);
+             DataOutputStream output = new DataOutputStream(file)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(segments.size());
+            for (byte[] segment : segments) {
+                output.writeInt(segment.length);
+            }
+            for (byte[] segment : segments) {
+                output.write(segment);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encodeSegment(List<Map.Entry<String, URLRedirect>> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entries.size() * 96);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(entries.size());
+        for (Map.Entry<String, URLRedirect> entry : entries) {
+            byte[] alias = entry.getKey().getBytes(StandardCharsets.ISO_8859_1);
+            byte[] urlAddress = entry.getValue().getUrlAddress().getBytes(StandardCharsets.UTF_8);
+            RedirectPolicy redirectPolicy = entry.getValue().getRedirectPolicy();
+            output.writeShort(alias.length);
+            output.write(alias);
+            output.writeInt(urlAddress.length);
+            output.write(urlAddress);
+            output.writeByte(redirectPolicy == null ? 0 : redirectPolicy.ordinal() + 1);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a snapshot, decoding its segments in parallel and handing each entry to the received consumer, which must
+     * therefore be thread safe.
+     *
+     * @param path      File holding the snapshot.
+     * @param threads   Number of threads decoding segments.
+     * @param consumer  Receives each alias and its redirect.
+     *
+     * @return Number of entries read.
+     *
+     * @throws IOException When the file cannot be read, or is not a valid snapshot.
+     */
+    public static int read(Path path, int threads, BiConsumer<String, URLRedirect> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        List<ByteBuffer> segments = new ArrayList<>();
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException(String.format("'%s' is not a snapshot of version %d.", path, VERSION));
+            }
+
+            int segmentCount = buffer.getInt();
+            int offset = buffer.position() + segmentCount * Integer.BYTES;
+            for (int index = 0; index < segmentCount; index++) {
+                int size = buffer.getInt();
+                segments.add(buffer.duplicate().position(offset).limit(offset + size).slice());
+                offset += size;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(String.format("Snapshot '%s' is truncated.", path), e);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, segments.size())));
+        try {
+            List<Future<Integer>> decodedSegments = new ArrayList<>(segments.size());
+            for (ByteBuffer segment : segments) {
+                decodedSegments.add(executor.submit(() -> decodeSegment(segment, consumer)));
+            }
+
+            int entries = 0;
+            for (Future<Integer> decodedSegment : decodedSegments) {
+                entries += decodedSegment.get();
+            }
+            return entries;
+        } catch (ExecutionException e) {
+            throw new IOException(String.format("Snapshot '%s' is corrupted.", path), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.format("Interrupted while reading snapshot '%s'.", path), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int decodeSegment(ByteBuffer segment, BiConsumer<String, URLRedirect> consumer) {
+        int entries = segment.getInt();
+        for (int index = 0; index < entries; index++) {
+            String alias = decodeString(segment, segment.getShort(), StandardCharsets.ISO_8859_1);
+            String urlAddress = decodeString(segment, segment.getInt(), StandardCharsets.UTF_8);
+            int policy = segment.get();
+            if (policy < 0 || policy > POLICIES.length) {
+                throw new UncheckedIOException(new IOException(String.format("Unknown redirect policy %d.", policy)));
+            }
+            consumer.accept(alias, new URLRedirect(urlAddress, policy == 0 ? null : POLICIES[policy - 1]));
+        }
+        return entries;
+    }
+
+    private static String decodeString(ByteBuffer segment, int length, Charset charset) {
+        String value = new String(segment.array(), segment.arrayOffset() + segment.position(), length, charset);
+        segment.position(segment.position() + length);
+        return value;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the {@link URLLookUpSnapshot}, bound from the {@code application.cache.url-look-up.snapshot} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.cache.url-look-up.snapshot")
+public class URLLookUpSnapshotProperties {
+
+    /**
+     * Whether the look up cache is snapshotted and warmed up on startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * File holding the snapshot.
+     */
+    private Path path = Path.of(System.getProperty("java.io.tmpdir"), "url_shrinker", "url-look-up.snapshot");
+
+    /**
+     * Maximum number of entries snapshotted, the hottest ones first, and loaded from the database when there is no
+     * snapshot.
+     */
+    private int maximumEntries = 100_000;
+
+    /**
+     * Interval between two snapshots, besides the one taken on shutdown.
+     */
+    private Duration interval = Duration.ofMinutes(5);
+
+    /**
+     * Number of threads decoding the snapshot on startup.
+     */
+    private int loadThreads = Runtime.getRuntime().availableProcessors();
+
+}
@@ -0,0 +1,48 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+
+/**
+ * Estimates how many bytes of heap an URL alias and its {@link URLRedirect} retain while cached. The alias and the URL
+ * address are expected to be {@link String} instances holding only ISO-8859-1 characters, which the JVM stores using
+ * one byte per character, plus the headers of the {@link String} and of its backing array. Any other key or value
+ * type is weighted by its {@link Object#toString()} representation.
+ */
+public class URLLookUpWeigher implements Weigher<Object, Object> {
+
+    /**
+     * Bytes retained by an empty {@link String}: 24 bytes of object header and fields plus 16 bytes of array header.
+     */
+    static final int STRING_OVERHEAD = 40;
+
+    /**
+     * Bytes retained by the cache node referencing each entry.
+     */
+    static final int ENTRY_OVERHEAD = 64;
+
+    /**
+     * Bytes retained by a {@link URLRedirect}, besides its URL address. Its redirect policy is a shared enum constant.
+     */
+    static final int REDIRECT_OVERHEAD = 24;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD + weighString(key.toString()) + weighValue(value);
+    }
+
+    private static int weighValue(Object value) {
+        if (value instanceof URLRedirect) {
+            return REDIRECT_OVERHEAD + weighString(((URLRedirect) value).getUrlAddress());
+        }
+        return weighString(value.toString());
+    }
+
+    private static int weighString(String value) {
+        return STRING_OVERHEAD + value.length();
+    }
+
+}
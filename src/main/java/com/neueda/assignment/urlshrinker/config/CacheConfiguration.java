@@ -0,0 +1,107 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.cache.InProcessSharedURLLookUpTier;
+import com.neueda.assignment.urlshrinker.cache.NonComputingCaffeineCache;
+import com.neueda.assignment.urlshrinker.cache.RedisSharedURLLookUpTier;
+import com.neueda.assignment.urlshrinker.cache.SharedURLLookUpTier;
+import com.neueda.assignment.urlshrinker.cache.SharedURLLookUpTierProperties;
+import com.neueda.assignment.urlshrinker.cache.TwoLevelURLLookUpCache;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpCacheProperties;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpWeigher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+/**
+ * Declares the caches used by the application. Every cache is backed by Caffeine, which evicts entries using the
+ * W-TinyLFU policy, and records hit, miss and eviction statistics that are published through the actuator metrics
+ * ({@code cache.gets}, {@code cache.evictions}, tagged with the cache name).
+ * <p>
+ * When a {@link SharedURLLookUpTier} is configured, through {@code application.cache.url-look-up.shared-tier.type},
+ * the look up cache becomes a {@link TwoLevelURLLookUpCache}, the Caffeine cache acting as the near cache of each node.
+ */
+@Configuration
+@EnableConfigurationProperties({URLLookUpCacheProperties.class, SharedURLLookUpTierProperties.class})
+public class CacheConfiguration {
+
+    public static final String URL_LOOK_UP = "urlLookUp";
+
+    private static final String SHARED_TIER_TYPE = "application.cache.url-look-up.shared-tier.type";
+
+    @Bean
+    public CacheManager cacheManager(URLLookUpCacheProperties urlLookUpCacheProperties,
+                                     ObjectProvider<SharedURLLookUpTier> sharedURLLookUpTier,
+                                     ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        Cache<Object, Object> urlLookUpCache = buildURLLookUpCache(urlLookUpCacheProperties).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, urlLookUpCache, URL_LOOK_UP);
+
+        CaffeineCache nearCache = new NonComputingCaffeineCache(URL_LOOK_UP, urlLookUpCache);
+        SharedURLLookUpTier sharedTier = sharedURLLookUpTier.getIfAvailable();
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+            sharedTier == null ? nearCache : new TwoLevelURLLookUpCache(nearCache, sharedTier, eventPublisher)
+        ));
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SHARED_TIER_TYPE, havingValue = "in-process")
+    public SharedURLLookUpTier inProcessSharedURLLookUpTier(SharedURLLookUpTierProperties properties) {
+        return new InProcessSharedURLLookUpTier(properties.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SHARED_TIER_TYPE, havingValue = "redis")
+    public RedisMessageListenerContainer urlLookUpInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redisConnectionFactory);
+        return listenerContainer;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = SHARED_TIER_TYPE, havingValue = "redis")
+    public SharedURLLookUpTier redisSharedURLLookUpTier(StringRedisTemplate redisTemplate,
+                                                        RedisMessageListenerContainer listenerContainer,
+                                                        SharedURLLookUpTierProperties properties) {
+        return new RedisSharedURLLookUpTier(redisTemplate, listenerContainer, properties);
+    }
+
+    /**
+     * Prepares the builder of the cache mapping URL aliases to URL addresses. The cache is bounded by the estimated
+     * heap retained by its entries, so its footprint does not depend on the length of the cached URLs.
+     *
+     * @param properties Settings of the cache.
+     *
+     * @return Caffeine builder ready to build the cache.
+     */
+    static Caffeine<Object, Object> buildURLLookUpCache(URLLookUpCacheProperties properties) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .initialCapacity(properties.getInitialCapacity())
+            .maximumWeight(properties.getMaximumWeight().toBytes())
+            .weigher(new URLLookUpWeigher())
+            .recordStats();
+
+        if (properties.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(properties.getExpireAfterWrite());
+        }
+        return builder;
+    }
+
+}
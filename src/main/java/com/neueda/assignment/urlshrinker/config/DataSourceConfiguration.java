@@ -0,0 +1,77 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits the connections to the database between three Hikari pools, so a burst of shortens can never take the
+ * connections needed by redirects, nor the ones needed to hand out ids to the shortens themselves:
+ * <ul>
+ *     <li>the write pool, configured by {@code spring.datasource} and {@code spring.datasource.hikari}, serving
+ *     shortens and every other read-write transaction;</li>
+ *     <li>the read pool, configured by {@code application.datasource.read} and
+ *     {@code application.datasource.read.hikari}, serving read-only transactions such as the look ups of aliases
+ *     missing in the cache. It connects to a replica when one is set, or to the primary database otherwise;</li>
+ *     <li>the id allocation pool, configured by {@code application.datasource.id-allocation.hikari}, on which
+ *     {@link com.neueda.assignment.urlshrinker.repository.URLEntryIdAllocator} leases blocks of ids. Shortens hold a
+ *     write pool connection while waiting for a new block, so leasing it from the write pool could wait forever once
+ *     every write connection is held by a shorten.</li>
+ * </ul>
+ * Every pool is published through the actuator metrics ({@code hikaricp.connections.*}, tagged with the pool name).
+ * The primary {@link DataSource}, used by JPA, Flyway and the {@link org.springframework.jdbc.core.JdbcTemplate},
+ * routes each connection to one of them through a {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadDataSourceProperties.class)
+public class DataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "application.datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties dataSourceProperties,
+                                           ReadDataSourceProperties readDataSourceProperties) {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(dataSourceProperties.determineDriverClassName())
+            .url(orDefault(readDataSourceProperties.getUrl(), dataSourceProperties.determineUrl()))
+            .username(orDefault(readDataSourceProperties.getUsername(), dataSourceProperties.determineUsername()))
+            .password(orDefault(readDataSourceProperties.getPassword(), dataSourceProperties.determinePassword()))
+            .build();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "application.datasource.id-allocation.hikari")
+    public HikariDataSource idAllocationDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(writeDataSource, readDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static String orDefault(String value, String defaultValue) {
+        return StringUtils.hasText(value) ? value : defaultValue;
+    }
+
+}
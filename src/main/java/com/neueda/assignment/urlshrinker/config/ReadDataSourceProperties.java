@@ -0,0 +1,41 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+/**
+ * Connection settings of the read pool declared by {@link DataSourceConfiguration}, bound from the
+ * {@code application.datasource.read} properties. Its pool settings are bound from
+ * {@code application.datasource.read.hikari}, as {@code spring.datasource.hikari} does for the write pool.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource.read")
+public class ReadDataSourceProperties {
+
+    /**
+     * JDBC URL of a read replica. The read pool connects to the primary database, {@code spring.datasource.url}, when
+     * not set or empty.
+     */
+    private String url;
+
+    /**
+     * User of the read replica. The one of the primary database is used when not set or empty.
+     */
+    private String username;
+
+    /**
+     * Password of the read replica. The one of the primary database is used when not set or empty.
+     */
+    private String password;
+
+    /**
+     * Tells whether the read pool connects to a replica, which may lag behind the primary database.
+     *
+     * @return {@code true} when a replica URL is set.
+     */
+    public boolean isReplica() {
+        return StringUtils.hasText(this.url);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to the read pool and every other connection, including the ones
+ * requested outside of transactions, to the write pool.
+ * <p>
+ * The transaction managers acquire their connection before the transaction is flagged as read-only, so this data
+ * source must be wrapped by a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which
+ * defers the acquisition to the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { READ, WRITE }
+
+    public ReadWriteRoutingDataSource(DataSource writeDataSource, DataSource readDataSource) {
+        setTargetDataSources(Map.of(Route.WRITE, writeDataSource, Route.READ, readDataSource));
+        setDefaultTargetDataSource(writeDataSource);
+        setLenientFallback(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+
+}
@@ -1,16 +1,23 @@
 package com.neueda.assignment.urlshrinker.config;
 
 import io.swagger.models.Contact;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
+
+import java.lang.reflect.Field;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @EnableSwagger2
@@ -39,5 +46,35 @@ public class SwaggerConfiguration {
             .consumes(SUPPORTED_MIME_TYPES);
     }
 
+    /**
+     * Springfox 3.0.0 predates the path pattern parser that Spring Boot 2.6+ uses for the actuator endpoints, and fails
+     * to start when it finds such handler mappings. This removes them from the springfox request handler provider, so
+     * only the ant path matcher based mappings, i.e. the application ones, get documented.
+     *
+     * @return Post processor that filters the handler mappings known by springfox.
+     */
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+                    ReflectionUtils.makeAccessible(field);
+                    List<RequestMappingInfoHandlerMapping> mappings =
+                        (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+                    List<RequestMappingInfoHandlerMapping> supported = mappings.stream()
+                        .filter(mapping -> mapping.getPatternParser() == null)
+                        .collect(Collectors.toList());
+                    mappings.clear();
+                    mappings.addAll(supported);
+                }
+                return bean;
+            }
+
+        };
+    }
 
 }
@@ -0,0 +1,18 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the {@link WebServerConfiguration}, bound from the {@code application.virtual-threads} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.virtual-threads")
+public class VirtualThreadsProperties {
+
+    /**
+     * Whether Tomcat handles every request on its own virtual thread, instead of on its bounded platform thread pool.
+     */
+    private boolean enabled = false;
+
+}
@@ -0,0 +1,38 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Tunes the embedded Tomcat. When {@code application.virtual-threads.enabled} is set, requests are handled on a
+ * virtual-thread-per-task executor, so a request blocked on the database or on the disk only parks its virtual thread
+ * instead of holding one of the {@code server.tomcat.threads.max} platform threads. The number of requests handled
+ * concurrently is then bounded by {@code server.tomcat.max-connections} and by the connection pool only.
+ */
+@Configuration
+@ConditionalOnClass(ProtocolHandler.class)
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+public class WebServerConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebServerConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+        VirtualThreadsProperties virtualThreadsProperties) {
+        return protocolHandler -> {
+            if (virtualThreadsProperties.isEnabled()) {
+                LOGGER.info("Handling requests on virtual threads.");
+                protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import com.neueda.assignment.urlshrinker.model.response.ShortenURLBatchItemResponse;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Shortens a stream of URLs submitted either as a JSON array or as newline delimited JSON, each element having the
+ * shape of a {@link ShortenURLRequest}, and writes one newline delimited {@link ShortenURLBatchItemResponse} per
+ * element, in the submitted order.
+ * <p>
+ * Elements are read, shortened and written in chunks of {@code application.batch.chunk-size} elements, each chunk
+ * being handed to {@link URLEntryService#shortUrls(Set)} at once, so the memory used does not depend on the size of
+ * the batch. An element failing to validate, or a chunk failing to be shortened, is reported in its responses and
+ * does not interrupt the batch. Only malformed JSON does, as the position of the next element is unknown. Failures to
+ * shorten are reported with fixed messages, as the ones of
+ * {@link com.neueda.assignment.urlshrinker.controller.advice.GeneralControllerAdvice} are, and logged with their cause,
+ * as exception messages may reveal details of the database.
+ */
+@Component
+public class ShortenURLBatchProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortenURLBatchProcessor.class);
+
+    static final Map<String, String> INVALID_ELEMENT = Map.of("message", "Invalid request body.");
+
+    static final Map<String, String> DATABASE_UNAVAILABLE = Map.of("message", "Database unavailable, try again later.");
+
+    static final Map<String, String> SHORTEN_FAILED = Map.of("message", "Unable to shorten the URL, try again later.");
+
+    private final URLEntryService urlEntryService;
+
+    private final Validator validator;
+
+    private final ObjectReader requestReader;
+
+    private final ObjectWriter responseWriter;
+
+    private final int chunkSize;
+
+    public ShortenURLBatchProcessor(URLEntryService urlEntryService, Validator validator, ObjectMapper objectMapper,
+                                    @Value("${application.batch.chunk-size:1000}") int chunkSize) {
+        this.urlEntryService = urlEntryService;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(ShortenURLRequest.class);
+        this.responseWriter = objectMapper.writerFor(ShortenURLBatchItemResponse.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the URLs to shorten from the received input and writes the outcome of each of them to the received output.
+     *
+     * @param input     Stream of the URLs to shorten.
+     * @param output    Stream where the outcomes are written to.
+     * @param baseUrl   Root URL prefixed to the generated aliases.
+     *
+     * @throws IOException When the input cannot be read or the output cannot be written.
+     */
+    public void process(InputStream input, OutputStream output, String baseUrl) throws IOException {
+        try (MappingIterator<ShortenURLRequest> requests = this.requestReader.readValues(input);
+             JsonGenerator generator = this.responseWriter.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            List<ShortenURLBatchItemResponse> chunk = new ArrayList<>(this.chunkSize);
+            long index = 0L;
+            boolean readable = true;
+
+            while (readable && requests.hasNextValue()) {
+                try {
+                    chunk.add(validate(index, requests.nextValue()));
+                } catch (JsonMappingException exception) {
+                    chunk.add(ShortenURLBatchItemResponse.failed(index, null, INVALID_ELEMENT));
+                } catch (JsonProcessingException exception) {
+                    chunk.add(ShortenURLBatchItemResponse.failed(index, null, INVALID_ELEMENT));
+                    readable = false;
+                }
+                index++;
+
+                if (chunk.size() == this.chunkSize) {
+                    writeChunk(shorten(chunk, baseUrl), generator);
+                    chunk.clear();
+                }
+            }
+            writeChunk(shorten(chunk, baseUrl), generator);
+        }
+    }
+
+    private ShortenURLBatchItemResponse validate(long index, ShortenURLRequest request) {
+        if (request == null) {
+            return ShortenURLBatchItemResponse.failed(index, null, INVALID_ELEMENT);
+        }
+
+        Set<ConstraintViolation<ShortenURLRequest>> violations = this.validator.validate(request);
+        if (violations.isEmpty()) {
+            return ShortenURLBatchItemResponse.shortened(index, request.getUrlAddress(), null);
+        }
+
+        Map<String, String> errors = violations.stream()
+            .collect(Collectors.toMap(violation -> violation.getPropertyPath().toString(),
+                ConstraintViolation::getMessage, (first, second) -> first));
+        return ShortenURLBatchItemResponse.failed(index, request.getUrlAddress(), errors);
+    }
+
+    private List<ShortenURLBatchItemResponse> shorten(List<ShortenURLBatchItemResponse> chunk, String baseUrl) {
+        Set<String> urlAddresses = chunk.stream()
+            .filter(item -> item.getErrors() == null)
+            .map(ShortenURLBatchItemResponse::getUrlAddress)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (urlAddresses.isEmpty()) {
+            return chunk;
+        }
+
+        try {
+            Map<String, String> urlAliases = this.urlEntryService.shortUrls(urlAddresses);
+            chunk.stream()
+                .filter(item -> item.getErrors() == null)
+                .forEach(item -> item.setUrlAlias(String.format("%s/%s", baseUrl,
+                    urlAliases.get(item.getUrlAddress()))));
+        } catch (RuntimeException exception) {
+            LOGGER.error("Unable to shorten {} URLs of a batch.", urlAddresses.size(), exception);
+            Map<String, String> errors = errorsOf(exception);
+            chunk.stream()
+                .filter(item -> item.getErrors() == null)
+                .forEach(item -> item.setErrors(errors));
+        }
+        return chunk;
+    }
+
+    private static Map<String, String> errorsOf(RuntimeException exception) {
+        if (exception instanceof WriteBehindQueueFullException) {
+            return Map.of("message", exception.getMessage());
+        }
+        if (exception instanceof DataAccessResourceFailureException
+                || exception instanceof CannotCreateTransactionException) {
+            return DATABASE_UNAVAILABLE;
+        }
+        return SHORTEN_FAILED;
+    }
+
+    private void writeChunk(List<ShortenURLBatchItemResponse> chunk, JsonGenerator generator) throws IOException {
+        for (ShortenURLBatchItemResponse item : chunk) {
+            this.responseWriter.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+}
@@ -1,12 +1,27 @@
 package com.neueda.assignment.urlshrinker.controller;
 
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLog;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLogEndpoint;
+import com.neueda.assignment.urlshrinker.controller.redirect.RedirectResponses;
+import com.neueda.assignment.urlshrinker.math.Base62;
 import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import com.neueda.assignment.urlshrinker.model.response.URLViewStatisticsResponse;
 import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewCounter;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewStatistics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,33 +29,67 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
-import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Handles requests to shorten and retrieve URLs.
+ * Handles requests to shorten and retrieve URLs. Replaced by
+ * {@link com.neueda.assignment.urlshrinker.controller.reactive.ReactiveURLEntryController} under the {@code reactive}
+ * profile.
  */
 @RestController
+@Profile("!reactive")
 public class URLEntryController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(URLEntryController.class);
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String REDIRECT_PATH = "/{urlAlias}";
     private final URLEntryService urlEntryService;
+    private final ShortenURLBatchProcessor shortenURLBatchProcessor;
+    private final URLViewCounter urlViewCounter;
+    private final URLViewStatistics urlViewStatistics;
+    private final AccessLog accessLog;
+    private final RedirectResponses redirectResponses;
     private final String baseUrl;
+    private final Timer shortenTimer;
+    private final Timer redirectTimer;
+    private final Counter notFoundCounter;
 
 
-    public URLEntryController(URLEntryService urlEntryService,
-                              @Value("${application.baseUrl:http://localhost:8080}") String baseUrl) {
+    public URLEntryController(URLEntryService urlEntryService, ShortenURLBatchProcessor shortenURLBatchProcessor,
+                              URLViewCounter urlViewCounter, URLViewStatistics urlViewStatistics,
+                              AccessLog accessLog, RedirectResponses redirectResponses,
+                              @Value("${application.baseUrl:http://localhost:8080}") String baseUrl,
+                              MeterRegistry meterRegistry) {
         this.urlEntryService = urlEntryService;
+        this.shortenURLBatchProcessor = shortenURLBatchProcessor;
+        this.urlViewCounter = urlViewCounter;
+        this.urlViewStatistics = urlViewStatistics;
+        this.accessLog = accessLog;
+        this.redirectResponses = redirectResponses;
         this.baseUrl = baseUrl;
+        this.shortenTimer = Timer.builder("url.shorten")
+            .description("Time spent shortening single URLs, from the controller down.")
+            .register(meterRegistry);
+        this.redirectTimer = Timer.builder("url.redirect")
+            .description("Time spent resolving aliases to redirect to, from the controller down, cache included.")
+            .register(meterRegistry);
+        this.notFoundCounter = Counter.builder("url.redirect.not.found")
+            .description("Redirections requested to aliases with no URL.")
+            .register(meterRegistry);
     }
 
     /**
      * Handles requests to shorten URLs. The received URL is delegated to {@link URLEntryService#shortUrl(String)} which
      * will return the generated alias. A response is regenerated with status {@link HttpStatus#CREATED} and a map
-     * in its body containing the generated alias as value of the "urlAlias" element.
+     * in its body containing the generated alias as value of the "urlAlias" element. Its duration is recorded as the
+     * {@code url.shorten} timer, and the request is recorded in the {@link AccessLog}.
      *
      * @param shortenURLRequest Request containing the URL to be shorten.
      *
@@ -56,41 +105,123 @@ public class URLEntryController {
         notes = "Submitted URLs will be stored in our database and have an unique shorter representation. Duplicated URLs wont result in any error."
     )
     public ResponseEntity<Map<String, Object>> shortenURL(@RequestBody @Valid ShortenURLRequest shortenURLRequest) {
-        LOGGER.info("Received request to shorten URL: {}", shortenURLRequest);
+        long startedAt = System.nanoTime();
+        long urlEntryId = Base62.INVALID;
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        try {
+            LOGGER.debug("Received request to shorten URL: {}", shortenURLRequest);
 
-        String shortenedURL = String.format("%s/%s", baseUrl,
-            this.urlEntryService.shortUrl(shortenURLRequest.getUrlAddress()));
-        LOGGER.debug("Responding with URL '{}'.", shortenedURL);
+            String urlAlias = this.urlEntryService.shortUrl(shortenURLRequest.getUrlAddress());
+            urlEntryId = Base62.decode(urlAlias);
+            Map<String, Object> response = Map.of("urlAlias", this.baseUrl + "/" + urlAlias);
+            LOGGER.debug("Short version '{}' generated for URL '{}'.", response.get("urlAlias"),
+                shortenURLRequest.getUrlAddress());
 
-        Map<String, Object> response = Map.of("urlAlias", shortenedURL);
-        LOGGER.info("Short version '{}' generated for URL '{}'.", response.get("urlAlias"),
-            shortenURLRequest.getUrlAddress());
+            status = HttpStatus.CREATED.value();
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (WriteBehindQueueFullException e) {
+            status = HttpStatus.SERVICE_UNAVAILABLE.value();
+            throw e;
+        } finally {
+            this.shortenTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            this.accessLog.record(AccessLogEndpoint.SHORTEN, status, urlEntryId, startedAt);
+        }
+    }
 
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    /**
+     * Handles requests to shorten several URLs at once. The request body is either a JSON array or newline delimited
+     * JSON, each element having the shape of a {@link ShortenURLRequest}. It is read and answered as a stream by the
+     * {@link ShortenURLBatchProcessor}, one newline delimited JSON object per element, in the submitted order, so
+     * aliases are sent back while the rest of the batch is still being read.
+     *
+     * @param request   Request whose body contains the URLs to be shorten.
+     *
+     * @return {@link ResponseEntity} streaming the outcome of each URL and {@link HttpStatus#OK} as status code.
+     */
+    @PostMapping(
+        path = "/api/v1/url_entry/batch",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE },
+        produces = { APPLICATION_NDJSON_VALUE }
+    )
+    @ApiOperation(
+        value = "Shorten several URLs at once.",
+        notes = "Accepts a JSON array or newline delimited JSON of URLs and streams back one result per URL, in the same order. Invalid URLs are reported in their results and do not fail the batch."
+    )
+    public ResponseEntity<StreamingResponseBody> shortenURLBatch(HttpServletRequest request) {
+        LOGGER.debug("Received request to shorten a batch of URLs.");
+        StreamingResponseBody responseBody = output ->
+            this.shortenURLBatchProcessor.process(request.getInputStream(), output, this.baseUrl);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+            .body(responseBody);
     }
 
     /**
-     * Looks up for the original URL address based on the received alias and, when found, responds with
-     * {@link HttpStatus#FOUND} status and the original URL address set in the "Location" response header.
+     * Responds with the recent redirections to the URL address assigned to the received alias, per minute over the last
+     * hour, per hour over the last day and per day over the last 30 days, as aggregated by {@link URLViewStatistics}.
+     * Redirections are aggregated once flushed by the {@link URLViewCounter}, so the last second may be missing.
      *
      * @param urlAlias  URL alias to look up.
      *
+     * @return {@link ResponseEntity} containing the statistics and {@link HttpStatus#OK} as status code.
+     */
+    @GetMapping(path = "/api/v1/url_entry/{urlAlias}/stats", produces = { MediaType.APPLICATION_JSON_VALUE })
+    @ApiOperation(
+        value = "Retrieves the recent redirections to an URL based on its shorter version (alias).",
+        notes = "Non-existing alias will result in a 404 response."
+    )
+    public ResponseEntity<URLViewStatisticsResponse> findStatistics(
+            @ApiParam(value = "URL shorter version (a.k.a alias)") @PathVariable String urlAlias) {
+        this.urlEntryService.findRedirectByUrlAlias(urlAlias);
+        return ResponseEntity.ok(
+            this.urlViewStatistics.findByUrlEntryId(Base62.decode(urlAlias), System.currentTimeMillis())
+        );
+    }
+
+    /**
+     * Looks up for the original URL address based on the received alias and, when found, responds with the status of
+     * its redirect policy and the original URL address set in the "Location" response header, along with the
+     * "Cache-Control" and "ETag" headers built by {@link RedirectResponses}. Requests whose "If-None-Match" header
+     * matches are answered with {@link HttpStatus#NOT_MODIFIED}. The view is counted by the {@link URLViewCounter},
+     * whether the URL address came from the cache or not. The duration is recorded as the {@code url.redirect} timer,
+     * aliases with no URL are counted as {@code url.redirect.not.found} and the request is recorded in the
+     * {@link AccessLog}. Once served, later redirections of the same alias are answered by the
+     * {@link com.neueda.assignment.urlshrinker.controller.fastpath.RedirectFastPathFilter}.
+     *
+     * @param urlAlias      URL alias to look up.
+     * @param ifNoneMatch   ETags of the redirections held by the client, if any.
+     *
      * @return {@link ResponseEntity} redirecting the user to the original URL address.
      */
-    @GetMapping(path="/{urlAlias}")
+    @GetMapping(path = REDIRECT_PATH)
     @ApiOperation(
         value = "Redirects to the original URL based on its shorter version (alias).",
         notes = "Non-existing alias will result in a 404 response."
     )
     public ResponseEntity<Void> redirectTo(
-            @ApiParam(value = "URL shorter version (a.k.a alias)") @PathVariable String urlAlias) {
-        LOGGER.info("Request to redirect to URL received for alias '{}'.", urlAlias);
-        String urlAddress = this.urlEntryService.findUrlAddressByUrlAlias(urlAlias);
+            @ApiParam(value = "URL shorter version (a.k.a alias)") @PathVariable String urlAlias,
+            @ApiParam(value = "ETags of the redirections already held.")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long startedAt = System.nanoTime();
+        long urlEntryId = Base62.decode(urlAlias);
+        int status = HttpStatus.INTERNAL_SERVER_ERROR.value();
+        try {
+            LOGGER.debug("Request to redirect to URL received for alias '{}'.", urlAlias);
+            URLRedirect urlRedirect = this.urlEntryService.findRedirectByUrlAlias(urlAlias);
+            this.urlViewCounter.increment(urlEntryId);
 
-        LOGGER.info("Redirecting to URL '{}'.", urlAddress);
-        return ResponseEntity.status(HttpStatus.FOUND)
-            .location(URI.create(urlAddress))
-            .build();
+            LOGGER.debug("Redirecting to URL '{}'.", urlRedirect.getUrlAddress());
+            ResponseEntity<Void> response = this.redirectResponses.redirect(urlEntryId, urlRedirect, ifNoneMatch);
+            status = response.getStatusCodeValue();
+            return response;
+        } catch (URLNotFoundException e) {
+            status = HttpStatus.NOT_FOUND.value();
+            this.notFoundCounter.increment();
+            throw e;
+        } finally {
+            this.redirectTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            this.accessLog.record(AccessLogEndpoint.REDIRECT, status, urlEntryId, startedAt);
+        }
     }
 
 }
@@ -0,0 +1,201 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Access log of the shorten and redirect endpoints, kept apart from the application log so recording a request costs
+ * neither string formatting nor I/O on the request thread. Requests are recorded as a few primitive fields in an
+ * {@link AccessLogBuffer}, and a dedicated thread writes them to the configured file, one JSON object per line:
+ * <pre>
+ * {"timestamp":"2021-08-01T10:15:30.123Z","endpoint":"REDIRECT","status":302,"durationMicros":85,"urlAlias":"fkAlias"}
+ * </pre>
+ * The file is flushed once per batch of records, or as soon as no record is waiting. Each endpoint has its own
+ * {@link AccessLogLevel} and sample rate, and records arriving when the buffer is full are dropped and counted as
+ * {@code access.log.dropped}, as well as records which could not be written, so a slow disk never holds requests
+ * back.
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLog implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+
+    private static final AccessLogEndpoint[] ENDPOINTS = AccessLogEndpoint.values();
+
+    private final boolean enabled;
+
+    private final AccessLogLevel[] levels = new AccessLogLevel[ENDPOINTS.length];
+
+    private final double[] sampleRates = new double[ENDPOINTS.length];
+
+    private final AccessLogBuffer buffer;
+
+    private final int batchSize;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final StringBuilder line = new StringBuilder(160);
+
+    private final Writer writer;
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    public AccessLog(AccessLogProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.enabled = properties.isEnabled();
+        for (AccessLogEndpoint endpoint : ENDPOINTS) {
+            AccessLogProperties.Endpoint settings =
+                properties.getEndpoints().getOrDefault(endpoint, new AccessLogProperties.Endpoint());
+            this.levels[endpoint.ordinal()] = settings.getLevel();
+            this.sampleRates[endpoint.ordinal()] = settings.getSampleRate();
+        }
+        this.batchSize = properties.getBatchSize();
+
+        if (this.enabled) {
+            this.buffer = new AccessLogBuffer(properties.getBufferCapacity());
+            if (properties.getPath().getParent() != null) {
+                Files.createDirectories(properties.getPath().getParent());
+            }
+            this.writer = Files.newBufferedWriter(properties.getPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            this.writerThread = new Thread(this::write, "access-log-writer");
+            this.writerThread.setDaemon(true);
+            this.writerThread.start();
+        } else {
+            this.buffer = null;
+            this.writer = null;
+            this.writerThread = null;
+        }
+
+        FunctionCounter.builder("access.log.dropped", this.dropped, LongAdder::sum)
+            .description("Requests not recorded in the access log as its buffer was full.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Records a request, if its endpoint level and sample rate allow it. Allocation and I/O free.
+     *
+     * @param endpoint      Endpoint which handled the request.
+     * @param status        HTTP status of the response.
+     * @param urlEntryId    Id of the URL entry shortened or redirected to, or {@link Base62#INVALID} when unknown.
+     * @param startedAt     {@link System#nanoTime()} when the request started to be handled.
+     */
+    public void record(AccessLogEndpoint endpoint, int status, long urlEntryId, long startedAt) {
+        if (!this.enabled || !isRecorded(endpoint, status)) {
+            return;
+        }
+
+        long durationNanos = System.nanoTime() - startedAt;
+        if (!this.buffer.offer(System.currentTimeMillis(), urlEntryId, durationNanos,
+                ((long) endpoint.ordinal() << 32) | status)) {
+            this.dropped.increment();
+        }
+    }
+
+    private boolean isRecorded(AccessLogEndpoint endpoint, int status) {
+        AccessLogLevel level = this.levels[endpoint.ordinal()];
+        if (level == AccessLogLevel.OFF) {
+            return false;
+        }
+        if (status >= 400) {
+            return true;
+        }
+        if (level == AccessLogLevel.ERRORS) {
+            return false;
+        }
+
+        double sampleRate = this.sampleRates[endpoint.ordinal()];
+        return sampleRate >= 1D || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void write() {
+        while (this.running) {
+            if (!writeBatch()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        while (writeBatch()) {
+            // Writes whatever was recorded until the application stopped.
+        }
+    }
+
+    /**
+     * Writes up to a batch of records and flushes them.
+     *
+     * @return {@code true} when at least a record was written.
+     */
+    private boolean writeBatch() {
+        int written = 0;
+        while (written < this.batchSize && this.buffer.poll(this::writeRecord)) {
+            written++;
+        }
+
+        if (written > 0) {
+            try {
+                this.writer.flush();
+            } catch (IOException e) {
+                LOGGER.error("Unable to flush the access log.", e);
+            }
+        }
+        return written > 0;
+    }
+
+    private void writeRecord(long timestamp, long urlEntryId, long durationNanos, long endpointAndStatus) {
+        StringBuilder line = this.line;
+        line.setLength(0);
+        line.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(timestamp))
+            .append("\",\"endpoint\":\"").append(ENDPOINTS[(int) (endpointAndStatus >>> 32)].name())
+            .append("\",\"status\":").append((int) endpointAndStatus)
+            .append(",\"durationMicros\":").append(durationNanos / 1_000L);
+        if (urlEntryId >= 0L) {
+            line.append(",\"urlAlias\":\"").append(Base62.encode(urlEntryId)).append('"');
+        }
+        line.append("}\n");
+
+        try {
+            this.writer.append(line);
+        } catch (IOException e) {
+            this.dropped.increment();
+            LOGGER.error("Unable to write the access log.", e);
+        }
+    }
+
+    /**
+     * Writes the records still buffered and closes the file.
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.running = false;
+        LockSupport.unpark(this.writerThread);
+        this.writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        this.writer.close();
+    }
+
+}
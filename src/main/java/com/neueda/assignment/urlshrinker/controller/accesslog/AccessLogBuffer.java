@@ -0,0 +1,105 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded buffer of access log records, written by many threads and read by a single one. Records are kept as
+ * primitive fields in a preallocated {@code long[]}, so adding one allocates nothing.
+ * <p>
+ * Each slot has a sequence number telling whether it is free for the writer claiming position {@code p}
+ * ({@code sequence == p}) or holds the record written at {@code p} ({@code sequence == p + 1}). Writers claim
+ * positions with a CAS on the tail and publish their record with an ordered write of the sequence, which the reader
+ * checks before reading the fields, as in a bounded MPSC array queue.
+ */
+class AccessLogBuffer {
+
+    private static final int FIELDS = 4;
+
+    private final int capacity;
+
+    private final long[] records;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private long head;
+
+    /**
+     * @param capacity  Maximum number of records waiting to be read. Must be positive.
+     */
+    AccessLogBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Cannot buffer %d records.", capacity));
+        }
+
+        this.capacity = capacity;
+        this.records = new long[capacity * FIELDS];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            this.sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Adds a record, unless the buffer is full.
+     *
+     * @return {@code false} when the record was not added as the buffer is full.
+     */
+    boolean offer(long timestamp, long urlEntryId, long durationNanos, long endpointAndStatus) {
+        long position;
+        int slot;
+        while (true) {
+            position = this.tail.get();
+            slot = (int) (position % this.capacity);
+            long sequence = this.sequences.get(slot);
+            if (sequence < position) {
+                return false;
+            }
+            if (sequence == position && this.tail.compareAndSet(position, position + 1L)) {
+                break;
+            }
+        }
+
+        int offset = slot * FIELDS;
+        this.records[offset] = timestamp;
+        this.records[offset + 1] = urlEntryId;
+        this.records[offset + 2] = durationNanos;
+        this.records[offset + 3] = endpointAndStatus;
+        this.sequences.lazySet(slot, position + 1L);
+        return true;
+    }
+
+    /**
+     * Reads the oldest record and frees its slot. Must only be called by the reading thread.
+     *
+     * @param consumer  Receives the fields of the record.
+     *
+     * @return {@code false} when no record was available.
+     */
+    boolean poll(RecordConsumer consumer) {
+        int slot = (int) (this.head % this.capacity);
+        if (this.sequences.get(slot) != this.head + 1L) {
+            return false;
+        }
+
+        int offset = slot * FIELDS;
+        consumer.accept(this.records[offset], this.records[offset + 1], this.records[offset + 2],
+            this.records[offset + 3]);
+        this.sequences.lazySet(slot, this.head + this.capacity);
+        this.head++;
+        return true;
+    }
+
+    /**
+     * Receives the fields of the records read from an {@link AccessLogBuffer}.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(long timestamp, long urlEntryId, long durationNanos, long endpointAndStatus);
+
+    }
+
+}
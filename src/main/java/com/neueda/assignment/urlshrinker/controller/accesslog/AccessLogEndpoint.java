@@ -0,0 +1,18 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+/**
+ * Endpoints recorded by the {@link AccessLog}, each with its own level and sample rate.
+ */
+public enum AccessLogEndpoint {
+
+    /**
+     * {@code POST /api/v1/url_entry}.
+     */
+    SHORTEN,
+
+    /**
+     * {@code GET /{urlAlias}}.
+     */
+    REDIRECT
+
+}
@@ -0,0 +1,23 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+/**
+ * Which requests of an endpoint are recorded by the {@link AccessLog}.
+ */
+public enum AccessLogLevel {
+
+    /**
+     * No request is recorded.
+     */
+    OFF,
+
+    /**
+     * Only requests answered with a client or server error status are recorded.
+     */
+    ERRORS,
+
+    /**
+     * Every request answered with an error status is recorded, and the sampled share of the others.
+     */
+    ALL
+
+}
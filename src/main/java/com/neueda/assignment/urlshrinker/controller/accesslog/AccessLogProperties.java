@@ -0,0 +1,60 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of the {@link AccessLog}, bound from the {@code application.access-log} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.access-log")
+public class AccessLogProperties {
+
+    /**
+     * Whether requests are recorded at all.
+     */
+    private boolean enabled = false;
+
+    /**
+     * File the requests are appended to, one JSON object per line.
+     */
+    private Path path = Path.of("logs", "access.log");
+
+    /**
+     * Maximum number of requests waiting to be written. Requests recorded while it is full are dropped.
+     */
+    private int bufferCapacity = 65_536;
+
+    /**
+     * Maximum number of requests written before the file is flushed.
+     */
+    private int batchSize = 1_024;
+
+    /**
+     * Level and sample rate of each endpoint. Endpoints not listed record every request.
+     */
+    private Map<AccessLogEndpoint, Endpoint> endpoints = new EnumMap<>(AccessLogEndpoint.class);
+
+    /**
+     * Settings of a single endpoint.
+     */
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Which requests are recorded.
+         */
+        private AccessLogLevel level = AccessLogLevel.ALL;
+
+        /**
+         * Share, from 0 to 1, of the requests answered without error recorded when the level is {@code ALL}.
+         */
+        private double sampleRate = 1D;
+
+    }
+
+}
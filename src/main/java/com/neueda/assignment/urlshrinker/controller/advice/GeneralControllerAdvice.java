@@ -1,13 +1,21 @@
 package com.neueda.assignment.urlshrinker.controller.advice;
 
+import com.neueda.assignment.urlshrinker.repository.exception.URLLookUpTimeoutException;
 import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.repository.exception.URLShortenTimeoutException;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -34,6 +42,36 @@ public class GeneralControllerAdvice {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(validationMessages);
     }
 
+    /**
+     * Handles occurrences of {@link WebExchangeBindException}, the reactive stack counterpart of
+     * {@link MethodArgumentNotValidException}.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#BAD_REQUEST} response containing a map with field name as key and message as value.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleWebExchangeBindException(WebExchangeBindException exception) {
+        Map<String, String> validationMessages = exception.getFieldErrors().stream()
+            .collect(Collectors.toMap(FieldError::getField, FieldError::getDefaultMessage));
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(validationMessages);
+    }
+
+    /**
+     * Handles occurrences of {@link ServerWebInputException}, the reactive stack counterpart of
+     * {@link HttpMessageNotReadableException}.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#BAD_REQUEST} response containing the message "Invalid request body.".
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Map<String, String>> handleServerWebInputException(ServerWebInputException exception) {
+        Map<String, String> validationMessage = Map.of("message", "Invalid request body.");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(validationMessage);
+    }
+
     /**
      * Handles occurrences of {@link HttpMessageNotReadableException}, usually thrown when a request body is invalid.
      *
@@ -61,4 +99,61 @@ public class GeneralControllerAdvice {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(validationMessage);
     }
 
+    /**
+     * Handles occurrences of {@link WriteBehindQueueFullException}, thrown when too many new URL entries are waiting to
+     * be persisted.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#SERVICE_UNAVAILABLE} response containing the exception message.
+     */
+    @ExceptionHandler(WriteBehindQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleWriteBehindQueueFullException(WriteBehindQueueFullException exception) {
+        Map<String, String> validationMessage = Map.of("message", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(validationMessage);
+    }
+
+    /**
+     * Handles occurrences of {@link URLLookUpTimeoutException}, thrown when the load of an alias requested by several
+     * requests at once takes longer than the configured timeout.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#SERVICE_UNAVAILABLE} response containing the exception message.
+     */
+    @ExceptionHandler(URLLookUpTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleURLLookUpTimeoutException(URLLookUpTimeoutException exception) {
+        Map<String, String> validationMessage = Map.of("message", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(validationMessage);
+    }
+
+    /**
+     * Handles occurrences of {@link URLShortenTimeoutException}, thrown when the shorten of an URL requested by several
+     * requests at once takes longer than the configured timeout.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#SERVICE_UNAVAILABLE} response containing the exception message.
+     */
+    @ExceptionHandler(URLShortenTimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleURLShortenTimeoutException(URLShortenTimeoutException exception) {
+        Map<String, String> validationMessage = Map.of("message", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(validationMessage);
+    }
+
+    /**
+     * Handles occurrences of {@link DataAccessResourceFailureException} and {@link CannotCreateTransactionException},
+     * usually thrown when no pooled database connection is handed out within the pool connection timeout.
+     *
+     * @param exception Exception thrown when the application was trying to handle a request.
+     *
+     * @return A {@link HttpStatus#SERVICE_UNAVAILABLE} response containing the message "Database unavailable, try again
+     *         later.", as the exception message may reveal details of the database.
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseUnavailableException(NestedRuntimeException exception) {
+        Map<String, String> validationMessage = Map.of("message", "Database unavailable, try again later.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(validationMessage);
+    }
+
 }
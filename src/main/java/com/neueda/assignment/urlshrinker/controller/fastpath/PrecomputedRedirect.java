@@ -0,0 +1,54 @@
+package com.neueda.assignment.urlshrinker.controller.fastpath;
+
+/**
+ * Redirection response served by the {@link RedirectFastPathFilter}, captured from the response the
+ * {@link com.neueda.assignment.urlshrinker.controller.URLEntryController} gave to the same alias, so its header values
+ * are already validated and encoded. The caching headers are kept as well, so requests whose {@code If-None-Match}
+ * header matches the ETag are answered with 304 Not Modified.
+ */
+public final class PrecomputedRedirect {
+
+    /**
+     * Bytes retained by an instance, its {@code Long} key and the headers of its three {@link String}s.
+     */
+    static final int OVERHEAD = 200;
+
+    private final int status;
+
+    private final String location;
+
+    private final String cacheControl;
+
+    private final String eTag;
+
+    public PrecomputedRedirect(int status, String location, String cacheControl, String eTag) {
+        this.status = status;
+        this.location = location;
+        this.cacheControl = cacheControl;
+        this.eTag = eTag;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return Estimated bytes of heap retained by this redirection while cached.
+     */
+    int weigh() {
+        return OVERHEAD + location.length() + cacheControl.length() + eTag.length();
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.neueda.assignment.urlshrinker.controller.fastpath;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpInvalidatedEvent;
+import com.neueda.assignment.urlshrinker.controller.URLEntryController;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLog;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLogEndpoint;
+import com.neueda.assignment.urlshrinker.controller.redirect.RedirectResponses;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves redirections to hot aliases ahead of Spring MVC. The first redirection of an alias goes through
+ * {@link URLEntryController#redirectTo(String, String)} as usual, and its status and {@code Location},
+ * {@code Cache-Control} and {@code ETag} headers, already validated and encoded, are kept in a cache keyed by the URL
+ * entry id. Later redirections of the same alias are
+ * written straight to the response, with no handler look up, argument resolution, {@link java.net.URI} parsing nor
+ * {@link org.springframework.http.ResponseEntity}, which is safe since the URL assigned to an alias never changes.
+ * Requests whose {@code If-None-Match} header matches the ETag are answered with 304 Not Modified, as the controller
+ * does. A redirect policy changed in the database reaches the fast path once its entry is evicted, or once the alias
+ * is invalidated in the look up cache ({@link URLLookUpInvalidatedEvent}).
+ * <p>
+ * Served redirections are counted and recorded like the ones served by the controller ({@code url.redirect} timer,
+ * {@link URLViewCounter}, {@link AccessLog}), and additionally counted as {@code url.redirect.fast.path}. Being served
+ * before the actuator metrics filter, they are not part of {@code http.server.requests}. Anything else, including
+ * unknown aliases, goes through the filter chain untouched.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(RedirectFastPathProperties.class)
+public class RedirectFastPathFilter implements Filter {
+
+    public static final String REDIRECT_FAST_PATH = "redirectFastPath";
+
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 307, 308);
+
+    private final boolean enabled;
+
+    private final Cache<Long, PrecomputedRedirect> redirects;
+
+    private final URLViewCounter urlViewCounter;
+
+    private final AccessLog accessLog;
+
+    private final Timer redirectTimer;
+
+    private final Counter fastPathCounter;
+
+    public RedirectFastPathFilter(RedirectFastPathProperties properties, URLViewCounter urlViewCounter,
+                                  AccessLog accessLog, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.redirects = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaximumWeight().toBytes())
+            .<Long, PrecomputedRedirect>weigher((urlEntryId, redirect) -> redirect.weigh())
+            .recordStats()
+            .build();
+        this.urlViewCounter = urlViewCounter;
+        this.accessLog = accessLog;
+        this.redirectTimer = Timer.builder("url.redirect")
+            .description("Time spent resolving aliases to redirect to, from the controller down, cache included.")
+            .register(meterRegistry);
+        this.fastPathCounter = Counter.builder("url.redirect.fast.path")
+            .description("Redirections served from precomputed responses, without going through Spring MVC.")
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, this.redirects, REDIRECT_FAST_PATH);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long startedAt = System.nanoTime();
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        long urlEntryId = this.enabled ? findUrlEntryId(httpRequest) : Base62.INVALID;
+        if (urlEntryId == Base62.INVALID) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        PrecomputedRedirect redirect = this.redirects.getIfPresent(urlEntryId);
+        if (redirect != null) {
+            serve(redirect, urlEntryId, httpRequest, httpResponse, startedAt);
+            return;
+        }
+
+        chain.doFilter(request, response);
+        precompute(urlEntryId, httpRequest, httpResponse);
+    }
+
+    /**
+     * Drops the precomputed redirection of an alias invalidated in the look up cache, on this node or any other.
+     *
+     * @param event Invalidation of the alias, or of every alias.
+     */
+    @EventListener
+    public void onURLLookUpInvalidated(URLLookUpInvalidatedEvent event) {
+        if (event.getUrlAlias() == null) {
+            this.redirects.invalidateAll();
+            return;
+        }
+
+        long urlEntryId = Base62.decode(event.getUrlAlias());
+        if (urlEntryId != Base62.INVALID) {
+            this.redirects.invalidate(urlEntryId);
+        }
+    }
+
+    private void serve(PrecomputedRedirect redirect, long urlEntryId, HttpServletRequest request,
+                       HttpServletResponse response, long startedAt) {
+        int status;
+        if (RedirectResponses.isNotModified(request.getHeader(HttpHeaders.IF_NONE_MATCH), redirect.getETag())) {
+            status = HttpServletResponse.SC_NOT_MODIFIED;
+        } else {
+            status = redirect.getStatus();
+            response.setHeader(HttpHeaders.LOCATION, redirect.getLocation());
+        }
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.ETAG, redirect.getETag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, redirect.getCacheControl());
+
+        this.urlViewCounter.increment(urlEntryId);
+        this.fastPathCounter.increment();
+        this.redirectTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        this.accessLog.record(AccessLogEndpoint.REDIRECT, status, urlEntryId, startedAt);
+    }
+
+    /**
+     * Keeps the redirection just served by the controller, identified by the pattern of the handler which served it,
+     * so responses of any other handler are never replayed.
+     */
+    private void precompute(long urlEntryId, HttpServletRequest request, HttpServletResponse response) {
+        if (!REDIRECT_STATUSES.contains(response.getStatus())
+                || !URLEntryController.REDIRECT_PATH.equals(
+                    request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+            return;
+        }
+
+        String location = response.getHeader(HttpHeaders.LOCATION);
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        if (location != null && cacheControl != null && eTag != null) {
+            this.redirects.put(urlEntryId, new PrecomputedRedirect(response.getStatus(), location, cacheControl, eTag));
+        }
+    }
+
+    /**
+     * Decodes the alias of {@code GET /{urlAlias}} requests straight from the request URI, with no intermediate string.
+     *
+     * @return Id of the URL entry the alias stands for, or {@link Base62#INVALID} for any other request.
+     */
+    private static long findUrlEntryId(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return Base62.INVALID;
+        }
+
+        String requestURI = request.getRequestURI();
+        int aliasStart = request.getContextPath().length() + 1;
+        if (requestURI.length() <= aliasStart || requestURI.charAt(aliasStart - 1) != '/') {
+            return Base62.INVALID;
+        }
+        return Base62.decode(requestURI, aliasStart, requestURI.length());
+    }
+
+}
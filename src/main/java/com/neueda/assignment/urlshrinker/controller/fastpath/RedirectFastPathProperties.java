@@ -0,0 +1,24 @@
+package com.neueda.assignment.urlshrinker.controller.fastpath;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the {@link RedirectFastPathFilter}, bound from the {@code application.redirect-fast-path} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.redirect-fast-path")
+public class RedirectFastPathProperties {
+
+    /**
+     * Whether redirections already served once are answered again without going through Spring MVC.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Estimated heap the precomputed redirections may use before the least valuable ones are evicted.
+     */
+    private DataSize maximumWeight = DataSize.ofMegabytes(16);
+
+}
@@ -0,0 +1,163 @@
+package com.neueda.assignment.urlshrinker.controller.reactive;
+
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLog;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLogEndpoint;
+import com.neueda.assignment.urlshrinker.controller.redirect.RedirectResponses;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import com.neueda.assignment.urlshrinker.repository.ReactiveURLEntryService;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles requests to shorten and retrieve URLs on the reactive stack, under the {@code reactive} profile. Requests
+ * are handled on the event loop, and everything which may block is left to the {@link ReactiveURLEntryService}, so
+ * redirects to cached aliases never leave the event loop. Records the same metrics, views and access log as the
+ * servlet stack {@link com.neueda.assignment.urlshrinker.controller.URLEntryController}; the batch and statistics
+ * endpoints are only served by the latter.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveURLEntryController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveURLEntryController.class);
+    private final ReactiveURLEntryService reactiveURLEntryService;
+    private final URLViewCounter urlViewCounter;
+    private final AccessLog accessLog;
+    private final RedirectResponses redirectResponses;
+    private final String baseUrl;
+    private final Timer shortenTimer;
+    private final Timer redirectTimer;
+    private final Counter notFoundCounter;
+
+    public ReactiveURLEntryController(ReactiveURLEntryService reactiveURLEntryService, URLViewCounter urlViewCounter,
+                                      AccessLog accessLog, RedirectResponses redirectResponses,
+                                      @Value("${application.baseUrl:http://localhost:8080}") String baseUrl,
+                                      MeterRegistry meterRegistry) {
+        this.reactiveURLEntryService = reactiveURLEntryService;
+        this.urlViewCounter = urlViewCounter;
+        this.accessLog = accessLog;
+        this.redirectResponses = redirectResponses;
+        this.baseUrl = baseUrl;
+        this.shortenTimer = Timer.builder("url.shorten")
+            .description("Time spent shortening single URLs, from the controller down.")
+            .register(meterRegistry);
+        this.redirectTimer = Timer.builder("url.redirect")
+            .description("Time spent resolving aliases to redirect to, from the controller down, cache included.")
+            .register(meterRegistry);
+        this.notFoundCounter = Counter.builder("url.redirect.not.found")
+            .description("Redirections requested to aliases with no URL.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Handles requests to shorten URLs. The received URL is delegated to
+     * {@link ReactiveURLEntryService#shortUrl(String)} and the response is generated with status
+     * {@link HttpStatus#CREATED} and a map in its body containing the generated alias as value of the "urlAlias"
+     * element.
+     *
+     * @param shortenURLRequest Request containing the URL to be shorten.
+     *
+     * @return {@link ResponseEntity} containing the urlAlias attribute and {@link HttpStatus#CREATED} as status code.
+     */
+    @PostMapping(
+        path = "/api/v1/url_entry",
+        consumes = { MediaType.APPLICATION_JSON_VALUE },
+        produces = { MediaType.APPLICATION_JSON_VALUE }
+    )
+    @ApiOperation(
+        value = "Shorten an URL for a smaller and convenient form.",
+        notes = "Submitted URLs will be stored in our database and have an unique shorter representation. Duplicated URLs wont result in any error."
+    )
+    public Mono<ResponseEntity<Map<String, Object>>> shortenURL(
+            @RequestBody @Valid Mono<ShortenURLRequest> shortenURLRequest) {
+        long startedAt = System.nanoTime();
+        return shortenURLRequest
+            .flatMap(request -> {
+                LOGGER.debug("Received request to shorten URL: {}", request);
+                return this.reactiveURLEntryService.shortUrl(request.getUrlAddress());
+            })
+            .map(urlAlias -> {
+                recordShorten(HttpStatus.CREATED, Base62.decode(urlAlias), startedAt);
+                Map<String, Object> response = Map.of("urlAlias", this.baseUrl + "/" + urlAlias);
+                return new ResponseEntity<>(response, HttpStatus.CREATED);
+            })
+            .doOnError(WriteBehindQueueFullException.class,
+                e -> recordShorten(HttpStatus.SERVICE_UNAVAILABLE, Base62.INVALID, startedAt));
+    }
+
+    /**
+     * Handles requests to be redirected to an URL based on its alias, responding with the status of its redirect policy
+     * and the original URL address in the "Location" response header, along with the caching headers built by
+     * {@link RedirectResponses}.
+     *
+     * @param urlAlias      URL alias to look up.
+     * @param ifNoneMatch   ETags of the redirections held by the client, if any.
+     *
+     * @return {@link ResponseEntity} redirecting the user to the original URL address.
+     */
+    @GetMapping(path="/{urlAlias}")
+    @ApiOperation(
+        value = "Redirects to the original URL based on its shorter version (alias).",
+        notes = "Non-existing alias will result in a 404 response."
+    )
+    public Mono<ResponseEntity<Void>> redirectTo(
+            @ApiParam(value = "URL shorter version (a.k.a alias)") @PathVariable String urlAlias,
+            @ApiParam(value = "ETags of the redirections already held.")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long startedAt = System.nanoTime();
+        long urlEntryId = Base62.decode(urlAlias);
+        LOGGER.debug("Request to redirect to URL received for alias '{}'.", urlAlias);
+        return this.reactiveURLEntryService.findRedirectByUrlAlias(urlAlias)
+            .map(urlRedirect -> {
+                this.urlViewCounter.increment(urlEntryId);
+                ResponseEntity<Void> response = this.redirectResponses.redirect(urlEntryId, urlRedirect, ifNoneMatch);
+                recordRedirect(response.getStatusCode(), urlEntryId, startedAt);
+                return response;
+            })
+            .doOnError(e -> {
+                if (e instanceof URLNotFoundException) {
+                    this.notFoundCounter.increment();
+                    recordRedirect(HttpStatus.NOT_FOUND, urlEntryId, startedAt);
+                } else {
+                    recordRedirect(HttpStatus.INTERNAL_SERVER_ERROR, urlEntryId, startedAt);
+                }
+            });
+    }
+
+    private void recordShorten(HttpStatus status, long urlEntryId, long startedAt) {
+        this.shortenTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        this.accessLog.record(AccessLogEndpoint.SHORTEN, status.value(), urlEntryId, startedAt);
+    }
+
+    private void recordRedirect(HttpStatus status, long urlEntryId, long startedAt) {
+        this.redirectTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        this.accessLog.record(AccessLogEndpoint.REDIRECT, status.value(), urlEntryId, startedAt);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.neueda.assignment.urlshrinker.controller.redirect;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link RedirectResponses}, bound from the {@code application.redirect} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.redirect")
+public class RedirectProperties {
+
+    /**
+     * Policy of the entries with no policy of their own.
+     */
+    private RedirectPolicy defaultPolicy = RedirectPolicy.TEMPORARY;
+
+    /**
+     * Redirections of the entries following the {@link RedirectPolicy#PERMANENT} policy.
+     */
+    private Policy permanent = new Policy(301, Duration.ofDays(365));
+
+    /**
+     * Redirections of the entries following the {@link RedirectPolicy#TEMPORARY} policy.
+     */
+    private Policy temporary = new Policy(302, null);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+
+        /**
+         * Status of the redirections: 301 or 308 for permanent ones, 302 or 307 for temporary ones. 307 and 308 keep
+         * the method and body of the request when followed.
+         */
+        private int status;
+
+        /**
+         * How long browsers and shared caches may reuse redirections without asking again. When empty, they must ask
+         * again on every request, which is answered with 304 Not Modified when the ETag they hold still matches.
+         */
+        private Duration maxAge;
+
+    }
+
+}
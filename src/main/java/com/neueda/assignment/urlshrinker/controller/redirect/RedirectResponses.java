@@ -0,0 +1,108 @@
+package com.neueda.assignment.urlshrinker.controller.redirect;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the responses redirecting to URL addresses, according to the {@link RedirectPolicy} of each entry, or to the
+ * default one. Every redirection carries a {@code Cache-Control} header and an {@code ETag} standing for its alias and
+ * status, so caches holding a redirection can revalidate it with {@code If-None-Match}, answered with
+ * {@link HttpStatus#NOT_MODIFIED} and no {@code Location}. The URL address of an alias never changes, so the ETag only
+ * changes when the status of its policy does.
+ */
+@Component
+@EnableConfigurationProperties(RedirectProperties.class)
+public class RedirectResponses {
+
+    private static final Set<Integer> PERMANENT_STATUSES = Set.of(301, 308);
+
+    private static final Set<Integer> TEMPORARY_STATUSES = Set.of(302, 307);
+
+    private final RedirectPolicy defaultPolicy;
+
+    private final Map<RedirectPolicy, HttpStatus> statuses = new EnumMap<>(RedirectPolicy.class);
+
+    private final Map<RedirectPolicy, String> cacheControls = new EnumMap<>(RedirectPolicy.class);
+
+    public RedirectResponses(RedirectProperties properties) {
+        this.defaultPolicy = properties.getDefaultPolicy();
+        register(RedirectPolicy.PERMANENT, properties.getPermanent(), PERMANENT_STATUSES);
+        register(RedirectPolicy.TEMPORARY, properties.getTemporary(), TEMPORARY_STATUSES);
+    }
+
+    private void register(RedirectPolicy policy, RedirectProperties.Policy properties, Set<Integer> statuses) {
+        if (!statuses.contains(properties.getStatus())) {
+            throw new IllegalArgumentException(String.format("Status of %s redirections must be one of %s, not %d.",
+                policy, statuses, properties.getStatus()));
+        }
+
+        this.statuses.put(policy, HttpStatus.valueOf(properties.getStatus()));
+        this.cacheControls.put(policy, properties.getMaxAge() == null
+            ? "no-cache"
+            : "public, max-age=" + properties.getMaxAge().toSeconds());
+    }
+
+    /**
+     * Builds the response redirecting to the URL address of an entry, or telling the client the redirection it holds
+     * is still valid.
+     *
+     * @param urlEntryId    Id of the entry redirected to.
+     * @param urlRedirect   URL address and policy of the entry.
+     * @param ifNoneMatch   {@code If-None-Match} header of the request, if any.
+     *
+     * @return Redirection, or {@link HttpStatus#NOT_MODIFIED} response when the received header matches its ETag.
+     */
+    public ResponseEntity<Void> redirect(long urlEntryId, URLRedirect urlRedirect, String ifNoneMatch) {
+        RedirectPolicy policy = urlRedirect.getRedirectPolicy() == null
+            ? this.defaultPolicy
+            : urlRedirect.getRedirectPolicy();
+        HttpStatus status = this.statuses.get(policy);
+        String eTag = "\"" + Base62.encode(urlEntryId) + "-" + status.value() + "\"";
+
+        ResponseEntity.BodyBuilder response = isNotModified(ifNoneMatch, eTag)
+            ? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            : ResponseEntity.status(status).location(URI.create(urlRedirect.getUrlAddress()));
+        return response
+            .eTag(eTag)
+            .header(HttpHeaders.CACHE_CONTROL, this.cacheControls.get(policy))
+            .build();
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header matches an ETag, using the weak comparison required for the
+     * header.
+     *
+     * @param ifNoneMatch   {@code If-None-Match} header of the request, if any.
+     * @param eTag          Quoted ETag of the response.
+     *
+     * @return Whether the client already holds the response.
+     */
+    public static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
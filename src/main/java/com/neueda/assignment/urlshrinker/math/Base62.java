@@ -1,13 +1,18 @@
 package com.neueda.assignment.urlshrinker.math;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Offers the capability to encode from decimal numbers into a representation of base 62 name, using the set of
  * available characters. This approach bring the simplicity of the numerical base conversion algorithm, while ensures
  * encoded values that are URL safe, hard to infer sequence and are impossible to clash.
+ * <p>
+ * Both directions run on primitive lookup tables: {@link #encode(long)} fills a fixed size {@code char[]} from right
+ * to left and {@link #decode(CharSequence)} resolves each character through a 128 entries reverse table, so no boxing,
+ * no floating point arithmetic and no intermediate strings are involved.
  */
-public class Base62 {
+public final class Base62 {
 
     public static final List<String> CHARACTERS = List.of(
         "D", "W", "f", "c", "8", "U", "M", "O", "K", "0", "a", "s", "T", "1", "Z", "v", "E", "F", "C", "w", "R", "m",
@@ -15,37 +20,67 @@ public class Base62 {
         "4", "k", "Y", "9", "p", "g", "r", "5", "t", "d", "6", "I", "u", "G", "h", "x", "S", "i"
     );
 
+    /**
+     * Returned by {@link #decode(CharSequence)} when the received value is empty, contains characters outside of
+     * {@link #CHARACTERS} or represents a number greater than {@link Long#MAX_VALUE}.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Length of the longest possible encoded value, i.e. the encoded form of {@link Long#MAX_VALUE}.
+     */
+    public static final int MAX_ENCODED_LENGTH = 11;
+
+    private static final int BASE = 62;
+
+    private static final char[] DIGITS = new char[BASE];
+
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int index = 0; index < BASE; index++) {
+            char character = CHARACTERS.get(index).charAt(0);
+            DIGITS[index] = character;
+            VALUES[character] = (byte) index;
+        }
+    }
+
     private Base62() { }
 
     /**
      * Encodes a decimal number into a base 62 representation, using the set of available characters. It employs the
-     * traditional algorithm to convert numeric bases: The received value is divided by 62 and the remainder is
-     * truncated to an integer that is used as offset to obtain the correspondent character from
-     * {@link Base62#CHARACTERS} list. The process is repeated, now using the integer part of the aforementioned
-     * division numerator, until the the obtained integer part of the division becomes equals to 0. This algorithm,
-     * despite simple, results in a sequence that is unique, URL safe, impossible to clash, hard to infer its sequence
-     * and fast enough to generate.
+     * traditional algorithm to convert numeric bases: The remainder of the division of the received value by 62 is
+     * used as offset to obtain the correspondent character from {@link Base62#CHARACTERS} list, which is written on the
+     * right most free position of the result. The process is repeated with the quotient of the division, until it
+     * becomes equals to 0. This algorithm, despite simple, results in a sequence that is unique, URL safe, impossible
+     * to clash, hard to infer its sequence and fast enough to generate.
      *
      * @param value Value to be encoded. Must be a positive number.
      *
      * @return Received value encoded.
+     *
+     * @throws IllegalArgumentException When the received value is negative.
      */
-    public static String encode(Long value) {
-        if (value < CHARACTERS.size()) {
-            return CHARACTERS.get(value.intValue());
+    public static String encode(long value) {
+        if (value < 0L) {
+            throw new IllegalArgumentException(String.format("Cannot encode negative value %d.", value));
+        }
+
+        if (value < BASE) {
+            return CHARACTERS.get((int) value);
         }
 
-        double lastRemainder;
-        long lastResult = value;
-        StringBuilder result = new StringBuilder();
+        char[] result = new char[MAX_ENCODED_LENGTH];
+        int position = MAX_ENCODED_LENGTH;
+        long remaining = value;
 
         do {
-            lastRemainder = ((double)lastResult % 62.0D);
-            lastResult = lastResult / 62;
-            result.insert(0, CHARACTERS.get((int)lastRemainder));
-        } while (lastResult > 0L);
+            result[--position] = DIGITS[(int) (remaining % BASE)];
+            remaining = remaining / BASE;
+        } while (remaining > 0L);
 
-        return result.toString();
+        return new String(result, position, MAX_ENCODED_LENGTH - position);
     }
 
     /**
@@ -53,18 +88,48 @@ public class Base62 {
      *
      * @param value Value to be decoded.
      *
-     * @return Received value decoded to its decimal form.
+     * @return Received value decoded to its decimal form, or {@link #INVALID} when the received value is empty,
+     *         contains characters not present in {@link #CHARACTERS} or overflows a {@code long}.
+     */
+    public static long decode(CharSequence value) {
+        return decode(value, 0, value.length());
+    }
+
+    /**
+     * Decodes a prior encoded decimal number, held by a region of the received characters, back to its decimal form.
+     * Allows decoding values embedded in larger sequences, e.g. request paths, without extracting them first.
+     *
+     * @param value Characters holding the value to be decoded.
+     * @param start Index of the first character of the value, inclusive.
+     * @param end   Index of the last character of the value, exclusive.
+     *
+     * @return Decoded value, or {@link #INVALID} when the region is empty, contains characters not present in
+     *         {@link #CHARACTERS} or overflows a {@code long}.
      */
-    public static Long decode(String value) {
-        if (value.length() == 1) {
-            return (long)CHARACTERS.indexOf(value);
+    public static long decode(CharSequence value, int start, int end) {
+        int length = end - start;
+        if (length <= 0 || length > MAX_ENCODED_LENGTH) {
+            return INVALID;
         }
 
         long result = 0L;
-        for (int index = 0; index < value.length(); index++) {
-            double power = (double)value.length() - (index + 1);
-            int baseNumber = CHARACTERS.indexOf(value.substring(index, index+1));
-            result += baseNumber * (long)(Math.pow(62D, power));
+        for (int index = start; index < end; index++) {
+            char character = value.charAt(index);
+            if (character >= VALUES.length) {
+                return INVALID;
+            }
+
+            int digit = VALUES[character];
+            if (digit < 0) {
+                return INVALID;
+            }
+
+            // Only the last digit of a value with the maximum length can overflow a long.
+            if (index - start == MAX_ENCODED_LENGTH - 1 && result > (Long.MAX_VALUE - digit) / BASE) {
+                return INVALID;
+            }
+
+            result = result * BASE + digit;
         }
         return result;
     }
@@ -0,0 +1,112 @@
+package com.neueda.assignment.urlshrinker.math;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Space efficient, probabilistic set of {@code long} values. A negative answer from {@link #mightContain(long)} is
+ * always correct, while a positive one is wrong with a probability close to the false positive probability the filter
+ * was sized for, as long as no more values than the expected insertions are added.
+ * <p>
+ * Values are added and tested concurrently without locks, each bit being set through a compare-and-set on the
+ * {@code long} word holding it.
+ */
+public class BloomFilter {
+
+    private static final double LN_2 = Math.log(2);
+
+    private final AtomicLongArray words;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    /**
+     * Sizes a new filter able to hold the expected number of values with the requested false positive probability.
+     *
+     * @param expectedInsertions        Number of values expected to be added to the filter. Must be positive.
+     * @param falsePositiveProbability  Desired false positive probability, between 0 and 1 (both exclusive).
+     *
+     * @throws IllegalArgumentException When any of the received parameters is out of its valid range.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0L) {
+            throw new IllegalArgumentException("The expected insertions must be positive.");
+        }
+        if (falsePositiveProbability <= 0D || falsePositiveProbability >= 1D) {
+            throw new IllegalArgumentException("The false positive probability must be between 0 and 1.");
+        }
+
+        long requiredBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1L, (requiredBits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = wordCount * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) this.bitSize / expectedInsertions * LN_2));
+    }
+
+    /**
+     * Adds a value to the filter.
+     *
+     * @param value Value to be added.
+     */
+    public void put(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1L;
+        for (int index = 0; index < this.hashFunctions; index++) {
+            long bit = ((hash1 + index * hash2) & Long.MAX_VALUE) % this.bitSize;
+            int wordIndex = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long word = this.words.get(wordIndex);
+            while ((word & mask) == 0L && !this.words.compareAndSet(wordIndex, word, word | mask)) {
+                word = this.words.get(wordIndex);
+            }
+        }
+    }
+
+    /**
+     * Tests whether a value might have been added to the filter.
+     *
+     * @param value Value to be tested.
+     *
+     * @return {@code false} when the value was certainly never added, {@code true} when it probably was.
+     */
+    public boolean mightContain(long value) {
+        long hash1 = mix(value);
+        long hash2 = mix(hash1) | 1L;
+        for (int index = 0; index < this.hashFunctions; index++) {
+            long bit = ((hash1 + index * hash2) & Long.MAX_VALUE) % this.bitSize;
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Number of bytes used by the bits of the filter.
+     */
+    public long byteSize() {
+        return this.bitSize / 8;
+    }
+
+    /**
+     * @return Number of hash functions applied to each value.
+     */
+    public int hashFunctions() {
+        return this.hashFunctions;
+    }
+
+    /**
+     * Finalization step of the 64 bits MurmurHash3, spreading every bit of the input over the whole output.
+     */
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.neueda.assignment.urlshrinker.math;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Computes the fixed width digest used to index URL addresses. The digest is made by the first 128 bits of the SHA-256
+ * hash of the UTF-8 encoded URL address, which keeps the index compact while making accidental collisions extremely
+ * unlikely. Collisions are still possible, so a match by digest must always be confirmed comparing the URL addresses.
+ */
+public final class URLDigest {
+
+    /**
+     * Number of bytes of a digest.
+     */
+    public static final int LENGTH = 16;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not supported by the running JVM.", exception);
+        }
+    });
+
+    private URLDigest() { }
+
+    /**
+     * Computes the digest of an URL address.
+     *
+     * @param urlAddress URL address to digest.
+     *
+     * @return The {@link #LENGTH} bytes digest of the received URL address.
+     */
+    public static byte[] of(String urlAddress) {
+        return of(urlAddress.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Computes the digest of an already UTF-8 encoded URL address.
+     *
+     * @param encodedURLAddress UTF-8 encoded URL address to digest.
+     *
+     * @return The {@link #LENGTH} bytes digest of the received URL address.
+     */
+    public static byte[] of(byte[] encodedURLAddress) {
+        byte[] hash = SHA_256.get().digest(encodedURLAddress);
+        return Arrays.copyOf(hash, LENGTH);
+    }
+
+}
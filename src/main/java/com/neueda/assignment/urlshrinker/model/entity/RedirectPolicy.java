@@ -0,0 +1,21 @@
+package com.neueda.assignment.urlshrinker.model.entity;
+
+/**
+ * How redirections to the URL address of an entry may be cached by browsers and shared caches. The status and the
+ * {@code Cache-Control} header of each policy are set through the {@code application.redirect} properties.
+ */
+public enum RedirectPolicy {
+
+    /**
+     * The URL address never changes and every click does not need to be counted, so redirections are permanent and
+     * may be reused by caches for a long time, without reaching the application.
+     */
+    PERMANENT,
+
+    /**
+     * Every click is meant to reach the application, e.g. to be counted, so redirections are temporary and caches
+     * must ask again on every request.
+     */
+    TEMPORARY
+
+}
@@ -1,16 +1,26 @@
 package com.neueda.assignment.urlshrinker.model.entity;
 
 
+import com.neueda.assignment.urlshrinker.math.URLDigest;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.validator.constraints.URL;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
@@ -19,19 +29,25 @@ import java.util.Date;
 import java.util.UUID;
 
 /**
- * Holds the relation between the short version of an URL and the original URL.
+ * Holds the relation between the short version of an URL and the original URL. The id of new entries is assigned by
+ * {@link com.neueda.assignment.urlshrinker.repository.URLEntryIdAllocator} before they are persisted.
  */
 @Entity
-@Table(name = "URL_ENTRY")
+@Table(name = "URL_ENTRY",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "UNQ_URL_ENTRY_URL_DIGEST", columnNames = {"urlDigest", "urlAddress"})
+    },
+    indexes = {
+        @Index(name = "IDX_URL_ENTRY_TOTAL_VIEWS", columnList = "totalViews DESC, id DESC")
+    })
 @Data
 @NoArgsConstructor
-public class URLEntry {
+public class URLEntry implements Persistable<Long> {
 
     public static final int INITIAL_URL_ALIAS_LENGTH = 6;
     public static final int MAX_URL_ALIAS_LENGTH = 10;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
@@ -39,15 +55,75 @@ public class URLEntry {
     @URL
     private String urlAddress;
 
+    /**
+     * {@link URLDigest} of the URL address, kept in sync by {@link #setUrlAddress(String)}. Leads the unique constraint
+     * over the URL addresses, so its index is compact to search while distinct URLs sharing a digest are still allowed.
+     */
+    @Column(length = URLDigest.LENGTH)
+    private byte[] urlDigest;
+
+    /**
+     * Number of redirections to the URL address, incremented in batches by
+     * {@link com.neueda.assignment.urlshrinker.repository.views.URLViewCounter}. Never written by the entity, so it
+     * cannot overwrite increments flushed after the entry was loaded.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
     private Long totalViews = 0L;
 
     @NotNull
     @Column(updatable = false)
     private Date createdAt;
 
+    /**
+     * How redirections to the URL address may be cached, or {@code null} when they follow the default
+     * {@link RedirectPolicy}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RedirectPolicy redirectPolicy;
+
+    /**
+     * Whether the entry was loaded from or already saved to the database. As ids are assigned before persisting, the
+     * id alone cannot tell new entries apart.
+     */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
     public URLEntry(String urlAddress, Date createdAt) {
-        this.urlAddress = urlAddress;
+        this.setUrlAddress(urlAddress);
         this.createdAt = createdAt;
     }
 
+    public URLEntry(Long id, String urlAddress, Date createdAt) {
+        this(urlAddress, createdAt);
+        this.id = id;
+    }
+
+    /**
+     * Sets the URL address of the entry, updating its digest accordingly.
+     *
+     * @param urlAddress URL address of the entry.
+     */
+    public void setUrlAddress(String urlAddress) {
+        this.urlAddress = urlAddress;
+        this.urlDigest = urlAddress == null ? null : URLDigest.of(urlAddress);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isNew() {
+        return !this.persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
 }
@@ -0,0 +1,43 @@
+package com.neueda.assignment.urlshrinker.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Value object holding the outcome of one of the URLs submitted to be shortened in a batch. Either the alias or the
+ * errors are present.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@ApiModel(description = "Outcome of one of the URLs submitted to be shortened in a batch.")
+public class ShortenURLBatchItemResponse {
+
+    @ApiModelProperty(notes = "Zero based position of the URL in the submitted batch.")
+    private long index;
+
+    @ApiModelProperty(notes = "URL address submitted.")
+    private String urlAddress;
+
+    @ApiModelProperty(notes = "Shorter version of the URL address, when it was shortened.")
+    private String urlAlias;
+
+    @ApiModelProperty(notes = "Validation messages by field name, when the URL address could not be shortened.")
+    private Map<String, String> errors;
+
+    public static ShortenURLBatchItemResponse shortened(long index, String urlAddress, String urlAlias) {
+        return new ShortenURLBatchItemResponse(index, urlAddress, urlAlias, null);
+    }
+
+    public static ShortenURLBatchItemResponse failed(long index, String urlAddress, Map<String, String> errors) {
+        return new ShortenURLBatchItemResponse(index, urlAddress, null, errors);
+    }
+
+}
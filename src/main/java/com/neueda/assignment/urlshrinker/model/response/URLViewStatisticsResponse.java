@@ -0,0 +1,29 @@
+package com.neueda.assignment.urlshrinker.model.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Value object holding the recent redirections to an URL address, per minute, hour and day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ApiModel(description = "Recent redirections to an URL address, per minute, hour and day.")
+public class URLViewStatisticsResponse {
+
+    @ApiModelProperty(notes = "Redirections per minute over the last hour, oldest first.")
+    private List<ViewsBucket> minutes;
+
+    @ApiModelProperty(notes = "Redirections per hour over the last day, oldest first.")
+    private List<ViewsBucket> hours;
+
+    @ApiModelProperty(notes = "Redirections per day over the last 30 days, oldest first.")
+    private List<ViewsBucket> days;
+
+}
@@ -0,0 +1,22 @@
+package com.neueda.assignment.urlshrinker.model.response;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Number of views of an entry within a minute, an hour or a day.
+ */
+@Value
+@ApiModel(description = "Number of redirections within a minute, an hour or a day.")
+public class ViewsBucket {
+
+    @ApiModelProperty(notes = "Start of the minute, hour or day, UTC.")
+    Instant start;
+
+    @ApiModelProperty(notes = "Number of redirections.")
+    long views;
+
+}
@@ -0,0 +1,61 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default {@link URLEntryWriter}, inserting each entry through the {@link URLEntryQueries} in the current transaction.
+ * No entry is ever pending.
+ */
+@Component
+@ConditionalOnProperty(name = "application.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+public class DirectURLEntryWriter implements URLEntryWriter {
+
+    private final URLEntryRepository urlEntryRepository;
+
+    private final URLEntryQueries urlEntryQueries;
+
+    public DirectURLEntryWriter(URLEntryRepository urlEntryRepository, URLEntryQueries urlEntryQueries) {
+        this.urlEntryRepository = urlEntryRepository;
+        this.urlEntryQueries = urlEntryQueries;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URLEntry write(URLEntry urlEntry) {
+        return this.urlEntryQueries.insert(urlEntry);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entries are inserted in JDBC batches when the current transaction is flushed.
+     */
+    @Override
+    public List<URLEntry> writeAll(List<URLEntry> urlEntries) {
+        return this.urlEntryRepository.saveAll(urlEntries);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLEntry> findPendingById(long id) {
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLEntry> findPendingByUrlAddress(String urlAddress) {
+        return Optional.empty();
+    }
+
+}
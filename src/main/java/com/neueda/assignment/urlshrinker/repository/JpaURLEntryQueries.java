@@ -0,0 +1,52 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Default {@link URLEntryQueries}, loading and saving {@link URLEntry} entities through the {@link URLEntryRepository}.
+ */
+@Component
+@ConditionalOnProperty(name = "application.jdbc-queries.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaURLEntryQueries implements URLEntryQueries {
+
+    private final URLEntryRepository urlEntryRepository;
+
+    public JpaURLEntryQueries(URLEntryRepository urlEntryRepository) {
+        this.urlEntryRepository = urlEntryRepository;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLRedirect> findRedirectById(long id) {
+        return this.urlEntryRepository.findById(id)
+            .map(urlEntry -> new URLRedirect(urlEntry.getUrlAddress(), urlEntry.getRedirectPolicy()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OptionalLong findIdByUrlAddress(String urlAddress) {
+        return this.urlEntryRepository.findByUrlAddress(urlAddress)
+            .map(urlEntry -> OptionalLong.of(urlEntry.getId()))
+            .orElseGet(OptionalLong::empty);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The entry is inserted when the current transaction is flushed.
+     */
+    @Override
+    public URLEntry insert(URLEntry urlEntry) {
+        return this.urlEntryRepository.save(urlEntry);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link URLEntryService}, serving the reactive stack. The returned {@link Mono}s never
+ * block the thread subscribing to them.
+ */
+public interface ReactiveURLEntryService {
+    /**
+     * Generates a short version for the received URL.
+     *
+     * @param urlAddress URL to be shortened.
+     * @return Shorter URL alias for the received URL address.
+     */
+    Mono<String> shortUrl(String urlAddress);
+
+    /**
+     * Looks up for an existing URL entry with the received URL alias. If no entry is found, the returned {@link Mono}
+     * fails with a {@link URLNotFoundException}.
+     *
+     * @param urlAlias URL alias to look up.
+     * @return URL address assigned to the received URL alias, along with its redirect policy.
+     */
+    Mono<URLRedirect> findRedirectByUrlAlias(String urlAlias);
+}
@@ -0,0 +1,21 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the shorten path of {@link StandardURLEntryService}, bound from the {@code application.shorten}
+ * properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.shorten")
+public class ShortenProperties {
+
+    /**
+     * How long a shorten waits for the shorten of the same URL already in progress on behalf of another request.
+     */
+    private Duration coalescingTimeout = Duration.ofSeconds(5);
+
+}
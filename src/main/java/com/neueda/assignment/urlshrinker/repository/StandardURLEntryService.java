@@ -1,89 +1,307 @@
 package com.neueda.assignment.urlshrinker.repository;
 
+import com.neueda.assignment.urlshrinker.cache.SingleFlight;
+import com.neueda.assignment.urlshrinker.cache.URLEntryIdFilter;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpCacheProperties;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.config.ReadDataSourceProperties;
 import com.neueda.assignment.urlshrinker.math.Base62;
 import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.exception.URLLookUpTimeoutException;
 import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.repository.exception.URLShortenTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Standard implementation of {@link URLEntry}. This implementation creates the URL alias (shorter version of the URL)
  * encoding the sequential primary key assigned when a new URLEntry is created. The encoding/decoding tasks is delegated
- * to {@link Base62} and its methods.
+ * to {@link Base62} and its methods. Replaced by
+ * {@link com.neueda.assignment.urlshrinker.repository.mapped.MappedURLEntryService} under the {@code mapped} profile.
  */
 @Service
-@CacheConfig(cacheNames = {"urlLookUp"})
+@Profile("!mapped")
+@EnableConfigurationProperties(ShortenProperties.class)
+@CacheConfig(cacheNames = {CacheConfiguration.URL_LOOK_UP})
 public class StandardURLEntryService<ConmpletableFuture> implements URLEntryService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StandardURLEntryService.class);
 
     private final URLEntryRepository urlEntryRepository;
 
-    public StandardURLEntryService(URLEntryRepository urlEntryRepository) {
+    private final URLEntryQueries urlEntryQueries;
+
+    private final URLEntryIdAllocator urlEntryIdAllocator;
+
+    private final URLEntryIdFilter urlEntryIdFilter;
+
+    private final URLEntryWriter urlEntryWriter;
+
+    private final Timer deduplicationTimer;
+
+    private final Timer insertionTimer;
+
+    private final Timer loadTimer;
+
+    private final Counter conflictCounter;
+
+    private final SingleFlight<String, URLRedirect> loadFlight;
+
+    private final SingleFlight<String, Long> shortenFlight;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ReadDataSourceProperties readDataSourceProperties;
+
+    public StandardURLEntryService(URLEntryRepository urlEntryRepository, URLEntryQueries urlEntryQueries,
+                                   URLEntryIdAllocator urlEntryIdAllocator,
+                                   URLEntryIdFilter urlEntryIdFilter, URLEntryWriter urlEntryWriter,
+                                   TransactionTemplate transactionTemplate, ShortenProperties shortenProperties,
+                                   URLLookUpCacheProperties urlLookUpCacheProperties,
+                                   ReadDataSourceProperties readDataSourceProperties, MeterRegistry meterRegistry) {
         this.urlEntryRepository = urlEntryRepository;
+        this.urlEntryQueries = urlEntryQueries;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.readDataSourceProperties = readDataSourceProperties;
+        this.urlEntryIdAllocator = urlEntryIdAllocator;
+        this.urlEntryIdFilter = urlEntryIdFilter;
+        this.urlEntryWriter = urlEntryWriter;
+        this.deduplicationTimer = registerShortenPhaseTimer("deduplication", meterRegistry);
+        this.insertionTimer = registerShortenPhaseTimer("insertion", meterRegistry);
+        this.loadTimer = Timer.builder("url.lookup.load")
+            .description("Time spent resolving aliases missing in the look up cache.")
+            .register(meterRegistry);
+        this.conflictCounter = Counter.builder("url.shorten.conflicts")
+            .description("Shortens retried because another node inserted the same new URL meanwhile.")
+            .register(meterRegistry);
+        this.loadFlight = new SingleFlight<>("url.lookup", urlLookUpCacheProperties.getLoadTimeout(),
+            urlAlias -> new URLLookUpTimeoutException(
+                String.format("Timed out waiting for the URL of the short version '%s'.", urlAlias)),
+            meterRegistry);
+        this.shortenFlight = new SingleFlight<>("url.shorten", shortenProperties.getCoalescingTimeout(),
+            urlAddress -> new URLShortenTimeoutException(
+                String.format("Timed out waiting for the URL '%s' to be shortened.", urlAddress)),
+            meterRegistry);
     }
 
     /**
-     * Looks up for an {@link URLEntry} with the received address. When no entry is found, the
-     * {@link #create(String)} method is invoked to persist a new entry and its result is returned. If an entry
-     * is found, it is returned immediately.
+     * Looks up for an {@link URLEntry} with the received address, among the entries still waiting to be persisted by
+     * the {@link URLEntryWriter} and then in the database. When no entry is found, the
+     * {@link #create(String)} method is invoked to persist a new entry and its id is returned. If an entry
+     * is found, its id is returned immediately. The look up and the creation are timed apart, as the
+     * {@code url.shorten.phase} timer tagged {@code deduplication} and {@code insertion} respectively.
      *
      * @param urlAddress    URL to look up or create if not existing yet.
      *
-     * @return An {@link URLEntry} containing the associating between the alias and the received URL.
+     * @return Id of the entry associating the alias and the received URL.
      */
-    protected URLEntry findOrCreate(String urlAddress) {
+    protected long findOrCreate(String urlAddress) {
         LOGGER.debug("Looking up for entries with URL address '{}'.", urlAddress);
-        Optional<URLEntry> urlEntry = this.urlEntryRepository.findByUrlAddress(urlAddress);
-        return urlEntry.orElseGet(() -> this.create(urlAddress));
+        long startedAt = System.nanoTime();
+        OptionalLong urlEntryId = this.urlEntryWriter.findPendingByUrlAddress(urlAddress)
+            .map(urlEntry -> OptionalLong.of(urlEntry.getId()))
+            .orElseGet(() -> this.urlEntryQueries.findIdByUrlAddress(urlAddress));
+        long lookedUpAt = System.nanoTime();
+        this.deduplicationTimer.record(lookedUpAt - startedAt, TimeUnit.NANOSECONDS);
+        if (urlEntryId.isPresent()) {
+            return urlEntryId.getAsLong();
+        }
+
+        URLEntry newURLEntry = this.create(urlAddress);
+        this.insertionTimer.record(System.nanoTime() - lookedUpAt, TimeUnit.NANOSECONDS);
+        return newURLEntry.getId();
     }
 
     /**
-     * Creates and persists a new {@link URLEntry} entity.
+     * Creates a new {@link URLEntry} entity, with an id handed out by the {@link URLEntryIdAllocator}, hands it to the
+     * {@link URLEntryWriter} to be persisted and registers its id in the {@link URLEntryIdFilter}.
      *
      * @param urlAddress    URL address of the entry.
      *
-     * @return Newly created and persisted {@link URLEntry}.
+     * @return Newly created {@link URLEntry}.
      */
     protected URLEntry create(String urlAddress) {
-        LOGGER.info("No shorten version found for URL '{}'. Creating a new one.", urlAddress);
-        URLEntry newURLEntry = new URLEntry(urlAddress, new Date());
-        return this.urlEntryRepository.save(newURLEntry);
+        LOGGER.debug("No shorten version found for URL '{}'. Creating a new one.", urlAddress);
+        URLEntry newURLEntry = this.urlEntryWriter.write(
+            new URLEntry(this.urlEntryIdAllocator.next(), urlAddress, new Date())
+        );
+        this.urlEntryIdFilter.registerExisting(newURLEntry.getId());
+        return newURLEntry;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Concurrent shortens of the same URL share a single {@link #findOrCreate(String)} through a {@link SingleFlight},
+     * so they collapse into one insert instead of racing between the look up and the insert. The shared call commits
+     * its own transaction before the waiting ones are answered, so their alias is resolvable as soon as they receive
+     * it. Waiters are published as the {@code url.shorten.coalesced} meters and give up with an
+     * {@link URLShortenTimeoutException} after the configured coalescing timeout. Shortens of the same new URL on other
+     * nodes are settled by the unique constraint over the URL addresses, see {@link #executeRetryingOnConflict}.
      */
     @Override
-    @Transactional
     public String shortUrl(String urlAddress) {
-        LOGGER.info("Shortening URL '{}'.", urlAddress);
-        return Base62.encode(
-            this.findOrCreate(urlAddress).getId()
-        );
+        LOGGER.debug("Shortening URL '{}'.", urlAddress);
+        long urlEntryId = this.shortenFlight.execute(urlAddress,
+            address -> this.executeRetryingOnConflict(status -> this.findOrCreate(address)));
+        return Base62.encode(urlEntryId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * URL addresses are looked up among the entries still waiting to be persisted by the {@link URLEntryWriter}, then
+     * in the database with a single query. Entries for the remaining ones are created with ids handed out by the
+     * {@link URLEntryIdAllocator} and written together, retrying as {@link #shortUrl(String)} does when another node
+     * inserted one of them meanwhile.
+     */
+    @Override
+    public Map<String, String> shortUrls(Set<String> urlAddresses) {
+        LOGGER.debug("Shortening {} URLs.", urlAddresses.size());
+        return this.executeRetryingOnConflict(status -> this.findOrCreateAll(urlAddresses));
+    }
+
+    private Map<String, String> findOrCreateAll(Set<String> urlAddresses) {
+        Map<String, String> urlAliases = new HashMap<>(urlAddresses.size() * 2);
+        for (String urlAddress : urlAddresses) {
+            this.urlEntryWriter.findPendingByUrlAddress(urlAddress)
+                .ifPresent(urlEntry -> urlAliases.put(urlAddress, Base62.encode(urlEntry.getId())));
+        }
+
+        if (urlAliases.size() < urlAddresses.size()) {
+            this.urlEntryRepository.findAllByUrlAddressIn(urlAddresses).forEach(urlEntry ->
+                urlAliases.putIfAbsent(urlEntry.getUrlAddress(), Base62.encode(urlEntry.getId())));
+        }
+
+        List<URLEntry> newURLEntries = new ArrayList<>(urlAddresses.size() - urlAliases.size());
+        Date createdAt = new Date();
+        for (String urlAddress : urlAddresses) {
+            if (!urlAliases.containsKey(urlAddress)) {
+                newURLEntries.add(new URLEntry(this.urlEntryIdAllocator.next(), urlAddress, createdAt));
+            }
+        }
+
+        if (!newURLEntries.isEmpty()) {
+            for (URLEntry newURLEntry : this.urlEntryWriter.writeAll(newURLEntries)) {
+                this.urlEntryIdFilter.registerExisting(newURLEntry.getId());
+                urlAliases.put(newURLEntry.getUrlAddress(), Base62.encode(newURLEntry.getId()));
+            }
+        }
+        return urlAliases;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Entries still waiting to be persisted by the {@link URLEntryWriter} are answered from memory. Aliases which
+     * cannot be decoded, or whose id is known to be missing by the {@link URLEntryIdFilter}, are answered without
+     * querying the database. The database is queried in a read-only transaction, so from the read pool; when it is a
+     * replica, ids not found there are looked up again on the primary database. Ids not found in the database are
+     * registered as missing. Only reached on cache misses, so its duration is recorded as the {@code url.lookup.load}
+     * timer.
+     * <p>
+     * Concurrent misses of an alias share a single load through a {@link SingleFlight}, and all receive its redirect
+     * or its {@link URLNotFoundException}; they are published as the {@code url.lookup.coalesced} meters and give up
+     * with an {@link URLLookUpTimeoutException} after the configured load timeout. The cache is read synchronously, so
+     * misses are also coalesced across the cluster when the cache has a shared tier.
      */
     @Override
-    @Cacheable(cacheNames = {"urlLookUp"})
-    public String findUrlAddressByUrlAlias(String urlAlias) {
-        LOGGER.info("Looking up for URL assigned to alias '{}'.", urlAlias);
-        Long urlEntryId = Base62.decode(urlAlias);
-        return this.urlEntryRepository.findById(urlEntryId)
-            .map(URLEntry::getUrlAddress)
-            .orElseThrow(() -> new URLNotFoundException(
-                String.format("No URL found for the short version '%s'.", urlAlias)
-            ));
+    @Cacheable(cacheNames = {CacheConfiguration.URL_LOOK_UP}, sync = true)
+    public URLRedirect findRedirectByUrlAlias(String urlAlias) {
+        return this.loadFlight.execute(urlAlias, this::timeLoadRedirect);
+    }
+
+    /**
+     * Runs the received action in a new transaction, and once more in another one when it violates an integrity
+     * constraint. The unique constraint over the URL addresses rejects the entry of a URL another node inserted since
+     * it was looked up; that entry is committed by then, so the second look up finds it instead of inserting it again.
+     * Retries are counted by the {@code url.shorten.conflicts} counter.
+     */
+    private <T> T executeRetryingOnConflict(TransactionCallback<T> action) {
+        try {
+            return this.transactionTemplate.execute(action);
+        } catch (DataIntegrityViolationException exception) {
+            LOGGER.debug("URL inserted by another node meanwhile. Looking it up again.", exception);
+            this.conflictCounter.increment();
+            return this.transactionTemplate.execute(action);
+        }
+    }
+
+    private URLRedirect timeLoadRedirect(String urlAlias) {
+        long startedAt = System.nanoTime();
+        try {
+            return loadRedirect(urlAlias);
+        } finally {
+            this.loadTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private URLRedirect loadRedirect(String urlAlias) {
+        LOGGER.debug("Looking up for URL assigned to alias '{}'.", urlAlias);
+        long urlEntryId = Base62.decode(urlAlias);
+        if (urlEntryId == Base62.INVALID || this.urlEntryIdFilter.isKnownMissing(urlEntryId)) {
+            throw newURLNotFoundException(urlAlias);
+        }
+
+        Optional<URLEntry> pendingURLEntry = this.urlEntryWriter.findPendingById(urlEntryId);
+        if (pendingURLEntry.isPresent()) {
+            return toRedirect(pendingURLEntry.get());
+        }
+
+        Optional<URLRedirect> redirect = this.readOnlyTransactionTemplate.execute(
+            status -> this.urlEntryQueries.findRedirectById(urlEntryId));
+        if (redirect.isEmpty() && this.readDataSourceProperties.isReplica()) {
+            // The replica may not have caught up with an entry just created, so the primary database decides.
+            redirect = this.urlEntryQueries.findRedirectById(urlEntryId);
+        }
+        if (redirect.isEmpty()) {
+            this.urlEntryIdFilter.registerMissing(urlEntryId);
+            throw newURLNotFoundException(urlAlias);
+        }
+
+        this.urlEntryIdFilter.registerExisting(urlEntryId);
+        return redirect.get();
+    }
+
+    private static URLRedirect toRedirect(URLEntry urlEntry) {
+        return new URLRedirect(urlEntry.getUrlAddress(), urlEntry.getRedirectPolicy());
+    }
+
+    private static Timer registerShortenPhaseTimer(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("url.shorten.phase")
+            .description("Time spent looking up whether a URL was already shortened, and creating a new entry.")
+            .tag("phase", phase)
+            .register(meterRegistry);
+    }
+
+    private static URLNotFoundException newURLNotFoundException(String urlAlias) {
+        return new URLNotFoundException(String.format("No URL found for the short version '%s'.", urlAlias));
     }
 
 }
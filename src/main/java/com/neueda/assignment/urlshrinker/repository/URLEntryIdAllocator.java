@@ -0,0 +1,152 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the ids of new {@link com.neueda.assignment.urlshrinker.model.entity.URLEntry} entities, so their alias is
+ * known before they are persisted and their inserts can be batched.
+ * <p>
+ * Ids are leased from the database in blocks: a lease atomically advances the single row of URL_ENTRY_ID_ALLOCATION
+ * by the block size and records the leased range in URL_ENTRY_ID_LEASE. Ids inside the current block are then handed
+ * out by a lock-free counter. Leases survive restarts and are safe with several nodes sharing the database, at the
+ * cost of skipping the ids left in a block when the node stops. A block is also abandoned once its lease duration is
+ * over, which bounds for how long any node may issue ids below the ones recently issued by other nodes.
+ * <p>
+ * Ids are mostly requested by shortens holding a write pool connection, so leases run on the id allocation pool
+ * declared by {@link com.neueda.assignment.urlshrinker.config.DataSourceConfiguration}, in transactions of their own.
+ * Otherwise, once a block runs out while every write connection is held by a shorten waiting for it, the lease would
+ * wait for a connection that is never released.
+ */
+@Component
+public class URLEntryIdAllocator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLEntryIdAllocator.class);
+
+    private static final IdBlock EXHAUSTED_BLOCK = new IdBlock(0L, 0L, 0L);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate leaseTransactionTemplate;
+
+    private final long blockSize;
+
+    private final Duration leaseDuration;
+
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    private volatile IdBlock currentBlock = EXHAUSTED_BLOCK;
+
+    public URLEntryIdAllocator(@Qualifier("idAllocationDataSource") DataSource dataSource,
+                               @Value("${application.id-allocation.block-size:10000}") long blockSize,
+                               @Value("${application.id-allocation.lease-duration:PT10M}") Duration leaseDuration) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.leaseTransactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.blockSize = blockSize;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Hands out a new id, leasing a new block of ids when the current one is exhausted or expired.
+     *
+     * @return An id never handed out before, by this or by any other node.
+     */
+    public long next() {
+        while (true) {
+            IdBlock block = this.currentBlock;
+            if (System.nanoTime() - block.expiresAt < 0L) {
+                long id = block.nextId.getAndIncrement();
+                if (id < block.endId) {
+                    return id;
+                }
+            }
+
+            this.leaseLock.lock();
+            try {
+                if (this.currentBlock == block) {
+                    IdBlock newBlock = lease();
+                    this.currentBlock = newBlock;
+                    // A new block always hands out its first id, even when its lease is already over.
+                    return newBlock.nextId.getAndIncrement();
+                }
+            } finally {
+                this.leaseLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return Highest id leased by any node so far, or empty when no id was ever leased.
+     */
+    public Optional<Long> findHighestLeasedId() {
+        Long nextId = this.jdbcTemplate.queryForObject("SELECT NEXT_ID FROM URL_ENTRY_ID_ALLOCATION", Long.class);
+        return nextId == null || nextId <= 1L ? Optional.empty() : Optional.of(nextId - 1L);
+    }
+
+    /**
+     * @return Lowest id of the blocks whose lease is not over yet, i.e. from which any node may still be issuing ids.
+     */
+    public Optional<Long> findLowestOpenLeasedId() {
+        return Optional.ofNullable(this.jdbcTemplate.queryForObject(
+            "SELECT MIN(START_ID) FROM URL_ENTRY_ID_LEASE WHERE LEASED_AT > TIMESTAMPADD(SQL_TSI_SECOND, ?, LOCALTIMESTAMP)",
+            Long.class, -this.leaseDuration.toSeconds()));
+    }
+
+    /**
+     * Deletes the records of leases which are over for a long time.
+     */
+    @Scheduled(fixedDelayString = "${application.id-allocation.lease-duration:PT10M}")
+    public void purgeExpiredLeases() {
+        int purged = this.jdbcTemplate.update(
+            "DELETE FROM URL_ENTRY_ID_LEASE WHERE LEASED_AT < TIMESTAMPADD(SQL_TSI_SECOND, ?, LOCALTIMESTAMP)",
+            -this.leaseDuration.toSeconds() * 2);
+        LOGGER.debug("Purged {} expired id leases.", purged);
+    }
+
+    private IdBlock lease() {
+        return this.leaseTransactionTemplate.execute(status -> {
+            this.jdbcTemplate.update("UPDATE URL_ENTRY_ID_ALLOCATION SET NEXT_ID = NEXT_ID + ?", this.blockSize);
+            long endId = this.jdbcTemplate.queryForObject("SELECT NEXT_ID FROM URL_ENTRY_ID_ALLOCATION", Long.class);
+            long startId = endId - this.blockSize;
+            this.jdbcTemplate.update(
+                "INSERT INTO URL_ENTRY_ID_LEASE (START_ID, END_ID, LEASED_AT) VALUES (?, ?, LOCALTIMESTAMP)",
+                startId, endId);
+
+            LOGGER.info("Leased ids from {} to {}.", startId, endId - 1);
+            return new IdBlock(startId, endId, System.nanoTime() + this.leaseDuration.toNanos());
+        });
+    }
+
+    /**
+     * Range of ids leased to this node, from {@code nextId} (inclusive) to {@code endId} (exclusive).
+     */
+    private static final class IdBlock {
+
+        private final AtomicLong nextId;
+
+        private final long endId;
+
+        private final long expiresAt;
+
+        private IdBlock(long startId, long endId, long expiresAt) {
+            this.nextId = new AtomicLong(startId);
+            this.endId = endId;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
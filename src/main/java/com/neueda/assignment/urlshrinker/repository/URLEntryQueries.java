@@ -0,0 +1,44 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Queries on the hot paths of {@link StandardURLEntryService}: resolving an alias on cache misses, and looking up and
+ * inserting an URL on shortens. Answered through JPA by default, by {@link JpaURLEntryQueries}, or with plain
+ * prepared statements by {@link com.neueda.assignment.urlshrinker.repository.jdbc.JdbcURLEntryQueries} when
+ * {@code application.jdbc-queries.enabled} is set.
+ */
+public interface URLEntryQueries {
+
+    /**
+     * Looks up for the redirect of an entry.
+     *
+     * @param id    Id of the entry.
+     *
+     * @return The redirect of the entry, or empty when there is no entry with the received id.
+     */
+    Optional<URLRedirect> findRedirectById(long id);
+
+    /**
+     * Looks up for the id of the entry with the received URL address, through the index over the digest of the URL
+     * addresses, as {@link URLEntryRepository#findByUrlAddress(String)} does.
+     *
+     * @param urlAddress    URL address to look up.
+     *
+     * @return The id of the entry, or empty when there is none.
+     */
+    OptionalLong findIdByUrlAddress(String urlAddress);
+
+    /**
+     * Inserts a new entry, whose id is already assigned, in the current transaction.
+     *
+     * @param urlEntry  New entry.
+     *
+     * @return The entry inserted.
+     */
+    URLEntry insert(URLEntry urlEntry);
+
+}
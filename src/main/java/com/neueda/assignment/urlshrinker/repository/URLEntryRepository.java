@@ -1,15 +1,80 @@
 package com.neueda.assignment.urlshrinker.repository;
 
+import com.neueda.assignment.urlshrinker.math.URLDigest;
 import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Specialization of {@link JpaRepository} providing capabilities to persist and retrieve {@link URLEntry} entities.
  */
 public interface URLEntryRepository extends JpaRepository<URLEntry, Long> {
 
-    Optional<URLEntry> findByUrlAddress(String urlAddress);
+    /**
+     * Looks up for the entry with the received URL address. The lookup is done through the compact index over the
+     * {@link URLDigest} of the URL addresses and confirmed comparing the URL addresses, as distinct URLs may share a
+     * digest.
+     *
+     * @param urlAddress URL address to look up.
+     *
+     * @return The entry with the received URL address, or empty when there is none.
+     */
+    default Optional<URLEntry> findByUrlAddress(String urlAddress) {
+        return findByUrlDigest(URLDigest.of(urlAddress)).stream()
+            .filter(urlEntry -> urlEntry.getUrlAddress().equals(urlAddress))
+            .findFirst();
+    }
+
+    List<URLEntry> findByUrlDigest(byte[] urlDigest);
+
+    /**
+     * Looks up for the entries with any of the received URL addresses, with a single query over the index of the
+     * {@link URLDigest} of the URL addresses. As in {@link #findByUrlAddress(String)}, matches are confirmed comparing
+     * the URL addresses.
+     *
+     * @param urlAddresses URL addresses to look up.
+     *
+     * @return The entries found, at most one per URL address.
+     */
+    default Collection<URLEntry> findAllByUrlAddressIn(Set<String> urlAddresses) {
+        List<byte[]> urlDigests = urlAddresses.stream().map(URLDigest::of).collect(Collectors.toList());
+        return findByUrlDigestIn(urlDigests).stream()
+            .filter(urlEntry -> urlAddresses.contains(urlEntry.getUrlAddress()))
+            .collect(Collectors.toMap(URLEntry::getUrlAddress, urlEntry -> urlEntry, (first, second) -> first))
+            .values();
+    }
+
+    List<URLEntry> findByUrlDigestIn(Collection<byte[]> urlDigests);
+
+    /**
+     * Looks up for the ids following the received one, in ascending order, through the primary key index, so every id
+     * can be read one page after another without ever materializing all of them.
+     *
+     * @param afterId   Id the page starts after, exclusive.
+     * @param pageable  Size of the page. Only the first page is expected, as the offset is set by {@code afterId}.
+     *
+     * @return Ids of the page, in ascending order.
+     */
+    @Query("SELECT e.id FROM URLEntry e WHERE e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Looks up for the most viewed entries, the most recently created first among equally viewed ones, so recent
+     * entries are found even before their views are flushed.
+     *
+     * @param pageable Page of entries to look up.
+     *
+     * @return The entries of the page, most viewed first.
+     */
+    @Query("SELECT e FROM URLEntry e ORDER BY e.totalViews DESC, e.id DESC")
+    List<URLEntry> findMostViewed(Pageable pageable);
 
 }
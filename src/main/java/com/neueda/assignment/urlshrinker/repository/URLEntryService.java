@@ -3,6 +3,9 @@ package com.neueda.assignment.urlshrinker.repository;
 import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
 import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Provides a high level access to all features related with shortening and retrieval of URL.
  */
@@ -15,12 +18,21 @@ public interface URLEntryService {
      */
     String shortUrl(String urlAddress);
 
+    /**
+     * Generates a short version for each of the received URLs at once, looking up the existing ones with a single query
+     * and persisting the missing ones together.
+     *
+     * @param urlAddresses URLs to be shortened.
+     * @return Shorter URL alias of each received URL address, by URL address.
+     */
+    Map<String, String> shortUrls(Set<String> urlAddresses);
+
     /**
      * Looks up for an existing {@link URLEntry} with the received URL alias. If no entry is found, a
      * {@link URLNotFoundException} is thrown.
      *
      * @param urlAlias URL alias to look up.
-     * @return URL address assigned to the received URL alias
+     * @return URL address assigned to the received URL alias, along with its redirect policy.
      */
-    String findUrlAddressByUrlAlias(String urlAlias);
+    URLRedirect findRedirectByUrlAlias(String urlAlias);
 }
@@ -0,0 +1,51 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persists new {@link URLEntry} entities on behalf of {@link StandardURLEntryService}. Implementations may persist the
+ * entries asynchronously, in which case entries still waiting to be persisted must be returned by the
+ * {@code findPending...} methods, so they resolve as if they were already in the database.
+ */
+public interface URLEntryWriter {
+
+    /**
+     * Persists a new entry, whose id is already assigned.
+     *
+     * @param urlEntry  New entry.
+     *
+     * @return The entry persisted, or about to be persisted.
+     */
+    URLEntry write(URLEntry urlEntry);
+
+    /**
+     * Persists several new entries, whose ids are already assigned, together.
+     *
+     * @param urlEntries    New entries.
+     *
+     * @return The entries persisted, or about to be persisted.
+     */
+    List<URLEntry> writeAll(List<URLEntry> urlEntries);
+
+    /**
+     * Looks up for an entry written but not persisted yet by its id.
+     *
+     * @param id    Id of the entry.
+     *
+     * @return The pending entry, or empty when there is none.
+     */
+    Optional<URLEntry> findPendingById(long id);
+
+    /**
+     * Looks up for an entry written but not persisted yet by its URL address.
+     *
+     * @param urlAddress    URL address of the entry.
+     *
+     * @return The pending entry, or empty when there is none.
+     */
+    Optional<URLEntry> findPendingByUrlAddress(String urlAddress);
+
+}
@@ -0,0 +1,19 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import lombok.Value;
+
+/**
+ * Everything needed to redirect to the URL address assigned to an alias, as cached by the {@link URLEntryService}.
+ */
+@Value
+public class URLRedirect {
+
+    String urlAddress;
+
+    /**
+     * {@link RedirectPolicy} of the entry, or {@code null} when it follows the default one.
+     */
+    RedirectPolicy redirectPolicy;
+
+}
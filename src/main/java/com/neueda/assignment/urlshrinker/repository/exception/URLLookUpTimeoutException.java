@@ -0,0 +1,16 @@
+package com.neueda.assignment.urlshrinker.repository.exception;
+
+/**
+ * Thrown when an alias cannot be resolved because the load of the same alias in progress on behalf of another request
+ * did not finish within the configured timeout.
+ */
+public class URLLookUpTimeoutException extends RuntimeException {
+
+    /**
+     * {@inheritDoc}
+     */
+    public URLLookUpTimeoutException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.neueda.assignment.urlshrinker.repository.exception;
+
+/**
+ * Thrown when an URL cannot be shortened because the shorten of the same URL in progress on behalf of another request
+ * did not finish within the configured timeout.
+ */
+public class URLShortenTimeoutException extends RuntimeException {
+
+    /**
+     * {@inheritDoc}
+     */
+    public URLShortenTimeoutException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.neueda.assignment.urlshrinker.repository.exception;
+
+/**
+ * Thrown when a new URL entry cannot be accepted because the write-behind queue stayed full for longer than the
+ * configured timeout.
+ */
+public class WriteBehindQueueFullException extends RuntimeException {
+
+    /**
+     * {@inheritDoc}
+     */
+    public WriteBehindQueueFullException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.neueda.assignment.urlshrinker.repository.jdbc;
+
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryQueries;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * {@link URLEntryQueries} issuing hand written prepared statements through a {@link JdbcTemplate}, bypassing the
+ * Hibernate persistence context: look ups select only the columns they need and build no entity, so there is no
+ * entity instantiation, snapshot for dirty checking nor flush, and inserts are executed right away. Look ups run
+ * outside of transactions, so they take no more than a pooled connection for a single statement.
+ * <p>
+ * Enabled by {@code application.jdbc-queries.enabled}. The statements join the current JPA transaction, if any, as
+ * the {@link org.springframework.orm.jpa.JpaTransactionManager} exposes its connection to JDBC code.
+ */
+@Component
+@ConditionalOnProperty(name = "application.jdbc-queries.enabled", havingValue = "true")
+public class JdbcURLEntryQueries implements URLEntryQueries {
+
+    private static final String SELECT_REDIRECT_BY_ID =
+        "SELECT URL_ADDRESS, REDIRECT_POLICY FROM URL_ENTRY WHERE ID = ?";
+
+    private static final String SELECT_ID_BY_URL_DIGEST =
+        "SELECT ID, URL_ADDRESS FROM URL_ENTRY WHERE URL_DIGEST = ?";
+
+    private static final String INSERT =
+        "INSERT INTO URL_ENTRY (ID, URL_ADDRESS, URL_DIGEST, CREATED_AT, TOTAL_VIEWS) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcURLEntryQueries(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLRedirect> findRedirectById(long id) {
+        return this.jdbcTemplate.query(SELECT_REDIRECT_BY_ID, statement -> statement.setLong(1, id),
+            JdbcURLEntryQueries::toRedirect);
+    }
+
+    private static Optional<URLRedirect> toRedirect(ResultSet resultSet) throws SQLException {
+        if (!resultSet.next()) {
+            return Optional.empty();
+        }
+
+        String redirectPolicy = resultSet.getString(2);
+        return Optional.of(new URLRedirect(resultSet.getString(1),
+            redirectPolicy == null ? null : RedirectPolicy.valueOf(redirectPolicy)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OptionalLong findIdByUrlAddress(String urlAddress) {
+        return this.jdbcTemplate.query(SELECT_ID_BY_URL_DIGEST,
+            statement -> statement.setBytes(1, URLDigest.of(urlAddress)),
+            resultSet -> {
+                while (resultSet.next()) {
+                    if (urlAddress.equals(resultSet.getString(2))) {
+                        return OptionalLong.of(resultSet.getLong(1));
+                    }
+                }
+                return OptionalLong.empty();
+            });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URLEntry insert(URLEntry urlEntry) {
+        this.jdbcTemplate.update(INSERT, statement -> {
+            statement.setLong(1, urlEntry.getId());
+            statement.setString(2, urlEntry.getUrlAddress());
+            statement.setBytes(3, urlEntry.getUrlDigest());
+            statement.setTimestamp(4, new Timestamp(urlEntry.getCreatedAt().getTime()));
+        });
+        return urlEntry;
+    }
+
+}
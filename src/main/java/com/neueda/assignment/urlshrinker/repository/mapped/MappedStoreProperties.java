@@ -0,0 +1,38 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the {@link MappedURLEntryService}, bound from the {@code application.mapped-store} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.mapped-store")
+public class MappedStoreProperties {
+
+    /**
+     * Directory holding the log of URL addresses.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "url_shrinker", "mapped");
+
+    /**
+     * Size of each memory-mapped region of the log. A URL address never spans two regions. At most 1GB.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Number of entries the in-memory indexes are sized for when created. They double whenever needed.
+     */
+    private int initialCapacity = 65_536;
+
+    /**
+     * Interval between two writes of the memory-mapped log to the storage device. Entries written in between survive
+     * a crash of the application, but not of the operating system.
+     */
+    private Duration forceInterval = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,165 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of {@link URLEntryService} keeping the URL addresses in a {@link MappedURLLog} instead of the
+ * database, enabled by the {@code mapped} profile. Entry ids are assigned sequentially, in the order entries are
+ * appended to the log, so:
+ * <ul>
+ *     <li>looking up an alias reads the offset of its record from an {@link OffHeapOffsetIndex} and the URL address
+ *     from the mapped log, without querying nor materialising any entity;</li>
+ *     <li>shortening an URL address looks it up in an {@link OffHeapDigestIndex}, and appends it to the log when
+ *     missing;</li>
+ *     <li>both indexes are rebuilt on startup by replaying the log.</li>
+ * </ul>
+ * Lookups never lock. Appends are serialized by a lock, which also confirms misses of the digest index before
+ * appending, so an URL address is never appended twice. The log belongs to a single node.
+ */
+@Service
+@Profile("mapped")
+@EnableConfigurationProperties(MappedStoreProperties.class)
+public class MappedURLEntryService implements URLEntryService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedURLEntryService.class);
+
+    static final String LOG_FILE_NAME = "url-entries.log";
+
+    private final MappedURLLog log;
+
+    private final OffHeapOffsetIndex offsets;
+
+    private final OffHeapDigestIndex digests;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * Highest id appended. Written after the record and the indexes, so reading it first makes them visible.
+     */
+    private volatile long highestId;
+
+    public MappedURLEntryService(MappedStoreProperties properties) {
+        this.log = new MappedURLLog(properties.getDirectory().resolve(LOG_FILE_NAME),
+            Math.toIntExact(properties.getSegmentSize().toBytes()));
+        this.offsets = new OffHeapOffsetIndex(properties.getInitialCapacity());
+        this.digests = new OffHeapDigestIndex(properties.getInitialCapacity());
+
+        long start = System.nanoTime();
+        long recovered = this.log.replay((offset, encodedURLAddress) -> index(offset, key(encodedURLAddress)));
+        LOGGER.info("Recovered {} URL entries from '{}' in {} ms.", recovered, properties.getDirectory(),
+            (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String shortUrl(String urlAddress) {
+        return Base62.encode(findOrAppend(urlAddress));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each URL address costs a lookup in memory, so they are simply shortened one by one.
+     */
+    @Override
+    public Map<String, String> shortUrls(Set<String> urlAddresses) {
+        Map<String, String> urlAliases = new HashMap<>(urlAddresses.size() * 2);
+        urlAddresses.forEach(urlAddress -> urlAliases.put(urlAddress, shortUrl(urlAddress)));
+        return urlAliases;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The log only keeps URL addresses, so every entry follows the default redirect policy.
+     */
+    @Override
+    public URLRedirect findRedirectByUrlAlias(String urlAlias) {
+        long id = Base62.decode(urlAlias);
+        if (id < 1L || id > this.highestId) {
+            throw new URLNotFoundException(String.format("No URL found for the short version '%s'.", urlAlias));
+        }
+        return new URLRedirect(this.log.read(this.offsets.get(id)), null);
+    }
+
+    /**
+     * Writes the entries appended so far to the storage device.
+     */
+    @Scheduled(fixedDelayString = "${application.mapped-store.force-interval:PT1S}")
+    public void force() {
+        this.log.force();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() throws IOException {
+        this.appendLock.lock();
+        try {
+            this.log.close();
+        } finally {
+            this.appendLock.unlock();
+        }
+    }
+
+    private long findOrAppend(String urlAddress) {
+        byte[] encodedURLAddress = urlAddress.getBytes(StandardCharsets.UTF_8);
+        long key = key(encodedURLAddress);
+        long id = find(key, encodedURLAddress);
+        if (id != 0L) {
+            return id;
+        }
+
+        this.appendLock.lock();
+        try {
+            id = find(key, encodedURLAddress);
+            if (id == 0L) {
+                id = index(this.log.append(encodedURLAddress), key);
+            }
+            return id;
+        } finally {
+            this.appendLock.unlock();
+        }
+    }
+
+    private long find(long key, byte[] encodedURLAddress) {
+        long knownHighestId = this.highestId;
+        return this.digests.find(key, id -> id <= knownHighestId
+            && this.log.matches(this.offsets.get(id), encodedURLAddress));
+    }
+
+    private long index(long offset, long key) {
+        long id = this.highestId + 1;
+        this.offsets.set(id, offset);
+        this.digests.put(key, id);
+        this.highestId = id;
+        return id;
+    }
+
+    private static long key(byte[] encodedURLAddress) {
+        return ByteBuffer.wrap(URLDigest.of(encodedURLAddress)).getLong();
+    }
+
+}
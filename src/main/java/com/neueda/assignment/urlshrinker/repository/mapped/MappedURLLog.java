@@ -0,0 +1,248 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of UTF-8 encoded URL addresses, memory-mapped in fixed size segments of a single file. Each record
+ * is made of:
+ * <pre>
+ * int    length of the URL address, written last
+ * int    CRC32 of the URL address
+ * byte[] UTF-8 encoded URL address
+ * </pre>
+ * Records never span two segments: when a record does not fit in the rest of a segment, a length of {@code -1} marks
+ * the rest as skipped and the record goes to the next one. A length of {@code 0} marks the end of the log, and a
+ * record torn by a crash fails its checksum, so {@link #replay(RecordConsumer)} stops at the last complete record.
+ * <p>
+ * Records are identified by their offset in the file. A single thread may append at a time, while any number of
+ * threads read records whose offsets were safely published to them.
+ */
+final class MappedURLLog implements Closeable {
+
+    static final int HEADER_LENGTH = Integer.BYTES * 2;
+
+    private static final int SKIPPED = -1;
+
+    private final FileChannel channel;
+
+    private final int segmentSize;
+
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    private long position;
+
+    /**
+     * Opens, or creates when missing, the log. {@link #replay(RecordConsumer)} must be called before appending.
+     *
+     * @param path          Path of the log file.
+     * @param segmentSize   Size of each memory-mapped segment.
+     *
+     * @throws UncheckedIOException When the file cannot be opened.
+     */
+    MappedURLLog(Path path, int segmentSize) {
+        this.segmentSize = segmentSize;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(String.format("Unable to open the log '%s'.", path), exception);
+        }
+    }
+
+    /**
+     * Hands every complete record of the log to the received consumer, in the order they were appended, and positions
+     * the log after the last of them.
+     *
+     * @param consumer  Receives the offset and the URL address of each record.
+     *
+     * @return Number of records found.
+     */
+    long replay(RecordConsumer consumer) {
+        long existingSegments = (size() + this.segmentSize - 1) / this.segmentSize;
+        long records = 0L;
+        int segment = 0;
+        int position = 0;
+        while (segment < existingSegments) {
+            if (position + HEADER_LENGTH > this.segmentSize) {
+                segment++;
+                position = 0;
+                continue;
+            }
+
+            MappedByteBuffer buffer = segment(segment);
+            int length = buffer.getInt(position);
+            if (length == SKIPPED) {
+                segment++;
+                position = 0;
+                continue;
+            }
+            if (length <= 0 || position + HEADER_LENGTH + length > this.segmentSize) {
+                break;
+            }
+
+            byte[] urlAddress = read(buffer, position, length);
+            if (checksum(urlAddress) != buffer.getInt(position + Integer.BYTES)) {
+                break;
+            }
+            consumer.accept(offset(segment, position), urlAddress);
+            records++;
+            position += HEADER_LENGTH + length;
+        }
+        this.position = offset(segment, position);
+        return records;
+    }
+
+    /**
+     * Appends a record. Must not be called concurrently.
+     *
+     * @param urlAddress    UTF-8 encoded URL address.
+     *
+     * @return Offset of the record.
+     */
+    long append(byte[] urlAddress) {
+        int recordLength = HEADER_LENGTH + urlAddress.length;
+        if (recordLength > this.segmentSize) {
+            throw new IllegalArgumentException("URL address longer than a segment of the log.");
+        }
+
+        int segment = (int) (this.position / this.segmentSize);
+        int position = (int) (this.position % this.segmentSize);
+        if (position + recordLength > this.segmentSize) {
+            if (position + Integer.BYTES <= this.segmentSize) {
+                segment(segment).putInt(position, SKIPPED);
+            }
+            segment++;
+            position = 0;
+        }
+
+        ByteBuffer buffer = segment(segment).duplicate();
+        buffer.putInt(position + Integer.BYTES, checksum(urlAddress));
+        buffer.position(position + HEADER_LENGTH);
+        buffer.put(urlAddress);
+        buffer.putInt(position, urlAddress.length);
+
+        long offset = offset(segment, position);
+        this.position = offset + recordLength;
+        return offset;
+    }
+
+    /**
+     * Reads the URL address of a record.
+     *
+     * @param offset    Offset of the record.
+     *
+     * @return The URL address.
+     */
+    String read(long offset) {
+        MappedByteBuffer buffer = this.segments[(int) (offset / this.segmentSize)];
+        int position = (int) (offset % this.segmentSize);
+        return new String(read(buffer, position, buffer.getInt(position)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the URL address of a record with the received one, without decoding it.
+     *
+     * @param offset        Offset of the record.
+     * @param urlAddress    UTF-8 encoded URL address.
+     *
+     * @return Whether the record holds the received URL address.
+     */
+    boolean matches(long offset, byte[] urlAddress) {
+        MappedByteBuffer buffer = this.segments[(int) (offset / this.segmentSize)];
+        int position = (int) (offset % this.segmentSize);
+        if (buffer.getInt(position) != urlAddress.length) {
+            return false;
+        }
+        for (int index = 0; index < urlAddress.length; index++) {
+            if (buffer.get(position + HEADER_LENGTH + index) != urlAddress[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the records appended so far to the storage device.
+     */
+    void force() {
+        for (MappedByteBuffer segment : this.segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        this.channel.close();
+    }
+
+    private long offset(int segment, int position) {
+        return (long) segment * this.segmentSize + position;
+    }
+
+    private long size() {
+        try {
+            return this.channel.size();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read the size of the log.", exception);
+        }
+    }
+
+    private MappedByteBuffer segment(int segment) {
+        MappedByteBuffer[] currentSegments = this.segments;
+        if (segment < currentSegments.length) {
+            return currentSegments[segment];
+        }
+
+        MappedByteBuffer[] newSegments = Arrays.copyOf(currentSegments, segment + 1);
+        try {
+            for (int index = currentSegments.length; index <= segment; index++) {
+                newSegments[index] = this.channel.map(FileChannel.MapMode.READ_WRITE,
+                    (long) index * this.segmentSize, this.segmentSize);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to map a segment of the log.", exception);
+        }
+        this.segments = newSegments;
+        return newSegments[segment];
+    }
+
+    private static byte[] read(ByteBuffer buffer, int position, int length) {
+        byte[] urlAddress = new byte[length];
+        ByteBuffer record = buffer.duplicate();
+        record.position(position + HEADER_LENGTH);
+        record.get(urlAddress);
+        return urlAddress;
+    }
+
+    private static int checksum(byte[] urlAddress) {
+        CRC32 checksum = new CRC32();
+        checksum.update(urlAddress);
+        return (int) checksum.getValue();
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(long offset, byte[] urlAddress);
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongPredicate;
+
+/**
+ * Open addressing hash table from the first 64 bits of the {@link com.neueda.assignment.urlshrinker.math.URLDigest}
+ * of an URL address to the id of its entry, held off-heap in slots of two longs: the key and the id. The table doubles,
+ * rehashing into a new buffer, once half full.
+ * <p>
+ * A single thread may put entries at a time, while any number of threads look up entries concurrently. A lookup racing
+ * with a put may miss the entry being put, so a miss must be confirmed while holding the lock guarding puts. Distinct
+ * URL addresses may share a key, so matches are confirmed by the predicate received by {@link #find(long,
+ * LongPredicate)}.
+ */
+final class OffHeapDigestIndex {
+
+    private static final int SLOT_LENGTH = Long.BYTES * 2;
+
+    private static final long NONE = 0L;
+
+    private volatile ByteBuffer slots;
+
+    private int size;
+
+    /**
+     * @param capacity  Number of entries the index is sized for when created.
+     */
+    OffHeapDigestIndex(int capacity) {
+        this.slots = allocate(Integer.highestOneBit(Math.max(capacity, 1)) * 4);
+    }
+
+    /**
+     * Looks up for the entry with the received key accepted by the received predicate.
+     *
+     * @param key       First 64 bits of the digest of the URL address.
+     * @param matches   Tells whether the entry with the received id holds the URL address looked up.
+     *
+     * @return Id of the entry, or {@code 0} when none matches.
+     */
+    long find(long key, LongPredicate matches) {
+        ByteBuffer currentSlots = this.slots;
+        int mask = currentSlots.capacity() / SLOT_LENGTH - 1;
+        long storedKey = storedKey(key);
+        for (int slot = hash(storedKey) & mask; ; slot = (slot + 1) & mask) {
+            long slotKey = currentSlots.getLong(slot * SLOT_LENGTH);
+            if (slotKey == NONE) {
+                return NONE;
+            }
+            long id = currentSlots.getLong(slot * SLOT_LENGTH + Long.BYTES);
+            if (slotKey == storedKey && id != NONE && matches.test(id)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Puts an entry. Must not be called concurrently.
+     *
+     * @param key   First 64 bits of the digest of the URL address.
+     * @param id    Id of the entry. Must be a positive number.
+     */
+    void put(long key, long id) {
+        ByteBuffer currentSlots = this.slots;
+        if ((this.size + 1) * 2 > currentSlots.capacity() / SLOT_LENGTH) {
+            currentSlots = rehash(currentSlots);
+            this.slots = currentSlots;
+        }
+        insert(currentSlots, storedKey(key), id);
+        this.size++;
+    }
+
+    private static ByteBuffer rehash(ByteBuffer currentSlots) {
+        long capacity = (long) currentSlots.capacity() * 2;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The digest index cannot hold more entries.");
+        }
+        ByteBuffer newSlots = allocate((int) (capacity / SLOT_LENGTH));
+        for (int position = 0; position < currentSlots.capacity(); position += SLOT_LENGTH) {
+            long key = currentSlots.getLong(position);
+            if (key != NONE) {
+                insert(newSlots, key, currentSlots.getLong(position + Long.BYTES));
+            }
+        }
+        return newSlots;
+    }
+
+    private static void insert(ByteBuffer slots, long storedKey, long id) {
+        int mask = slots.capacity() / SLOT_LENGTH - 1;
+        int slot = hash(storedKey) & mask;
+        while (slots.getLong(slot * SLOT_LENGTH) != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        slots.putLong(slot * SLOT_LENGTH + Long.BYTES, id);
+        slots.putLong(slot * SLOT_LENGTH, storedKey);
+    }
+
+    private static ByteBuffer allocate(int slots) {
+        return ByteBuffer.allocateDirect(Math.max(slots, 2) * SLOT_LENGTH);
+    }
+
+    /**
+     * Keys are already uniformly distributed, but {@link #NONE} is reserved for empty slots.
+     */
+    private static long storedKey(long key) {
+        return key == NONE ? 1L : key;
+    }
+
+    private static int hash(long storedKey) {
+        return (int) (storedKey ^ (storedKey >>> 32));
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Offset of the log record of each entry, by entry id, held off-heap as a flat array of longs indexed by
+ * {@code id - 1}. The array doubles when full, copying the offsets to a new buffer.
+ * <p>
+ * A single thread may set offsets at a time, while any number of threads read offsets of ids safely published to
+ * them.
+ */
+final class OffHeapOffsetIndex {
+
+    private volatile ByteBuffer offsets;
+
+    /**
+     * @param capacity  Number of offsets the index is sized for when created.
+     */
+    OffHeapOffsetIndex(int capacity) {
+        this.offsets = ByteBuffer.allocateDirect(Math.max(capacity, 1) * Long.BYTES);
+    }
+
+    /**
+     * @param id    Id of the entry. Must be a positive number.
+     *
+     * @return Offset of the log record of the entry.
+     */
+    long get(long id) {
+        return this.offsets.getLong(position(id));
+    }
+
+    /**
+     * Sets the offset of the log record of an entry. Must not be called concurrently.
+     *
+     * @param id        Id of the entry. Must be a positive number.
+     * @param offset    Offset of the log record of the entry.
+     */
+    void set(long id, long offset) {
+        int position = position(id);
+        ByteBuffer currentOffsets = this.offsets;
+        if (position + Long.BYTES > currentOffsets.capacity()) {
+            long capacity = Math.max((long) currentOffsets.capacity() * 2, position + Long.BYTES);
+            if (capacity > Integer.MAX_VALUE - Long.BYTES) {
+                throw new IllegalStateException("The offset index cannot hold more entries.");
+            }
+            ByteBuffer newOffsets = ByteBuffer.allocateDirect((int) capacity);
+            newOffsets.put(currentOffsets.duplicate().clear());
+            currentOffsets = newOffsets;
+            this.offsets = newOffsets;
+        }
+        currentOffsets.putLong(position, offset);
+    }
+
+    private static int position(long id) {
+        return Math.toIntExact((id - 1) * Long.BYTES);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.neueda.assignment.urlshrinker.repository.migration;
+
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Fills in the URL_DIGEST column of the rows created before the V2 migration, processing them in batches ordered by
+ * id, and then makes the column mandatory.
+ */
+public class V3__Backfill_URL_DIGEST extends BaseJavaMigration {
+
+    static final int BATCH_SIZE = 1_000;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT ID, URL_ADDRESS FROM URL_ENTRY WHERE URL_DIGEST IS NULL AND ID > ? ORDER BY ID LIMIT "
+                    + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                "UPDATE URL_ENTRY SET URL_DIGEST = ? WHERE ID = ?")) {
+
+            long lastId = Long.MIN_VALUE;
+            int processed;
+            do {
+                processed = 0;
+                select.setLong(1, lastId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        lastId = rows.getLong(1);
+                        update.setBytes(1, URLDigest.of(rows.getString(2)));
+                        update.setLong(2, lastId);
+                        update.addBatch();
+                        processed++;
+                    }
+                }
+                if (processed > 0) {
+                    update.executeBatch();
+                }
+            } while (processed == BATCH_SIZE);
+        }
+
+        try (PreparedStatement alter = connection.prepareStatement(
+                "ALTER TABLE URL_ENTRY ALTER COLUMN URL_DIGEST SET NOT NULL")) {
+            alter.execute();
+        }
+    }
+
+}
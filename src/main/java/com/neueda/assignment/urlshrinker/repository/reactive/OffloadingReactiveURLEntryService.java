@@ -0,0 +1,78 @@
+package com.neueda.assignment.urlshrinker.repository.reactive;
+
+import com.neueda.assignment.urlshrinker.cache.TwoLevelURLLookUpCache;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.repository.ReactiveURLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * {@link ReactiveURLEntryService} answering look ups of cached aliases straight from the {@code urlLookUp} cache, on
+ * the subscribing thread (the event loop, for requests), as reading a Caffeine cache never blocks. Everything else is
+ * delegated to the blocking {@link URLEntryService} on the {@link Schedulers#boundedElastic()} scheduler, which caps
+ * the threads blocked on the database and queues the remaining calls, so the event loop stays free. The blocking
+ * service fills the cache as usual. With a shared tier, only the near cache of the {@link TwoLevelURLLookUpCache} is
+ * read on the subscribing thread, as the shared tier is remote.
+ * <p>
+ * Blocking calls are handed to the scheduler as plain tasks completing a {@link CompletableFuture}, rather than through
+ * {@code subscribeOn}: the response is written on the thread completing the call, and a {@code subscribeOn} worker
+ * disposed from another thread, e.g. once the response is committed, interrupts it halfway through the write.
+ * Cancelling a {@link CompletableFuture} never interrupts the thread running it.
+ * <p>
+ * There is no R2DBC driver for HSQLDB, so a reactive datasource is not an option for the database in use; offloading
+ * the existing JDBC access keeps both stacks on the same store, cache and id allocation.
+ */
+@Service
+@Profile("reactive")
+public class OffloadingReactiveURLEntryService implements ReactiveURLEntryService {
+
+    private final URLEntryService urlEntryService;
+
+    private final Cache urlLookUpCache;
+
+    private final Scheduler blockingScheduler = Schedulers.boundedElastic();
+
+    private final Executor blockingExecutor = this.blockingScheduler::schedule;
+
+    public OffloadingReactiveURLEntryService(URLEntryService urlEntryService, CacheManager cacheManager) {
+        this.urlEntryService = urlEntryService;
+        this.urlLookUpCache = TwoLevelURLLookUpCache.nearCacheOf(cacheManager.getCache(CacheConfiguration.URL_LOOK_UP));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<String> shortUrl(String urlAddress) {
+        return offload(() -> this.urlEntryService.shortUrl(urlAddress));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Mono<URLRedirect> findRedirectByUrlAlias(String urlAlias) {
+        Cache.ValueWrapper cachedRedirect = this.urlLookUpCache.get(urlAlias);
+        if (cachedRedirect != null) {
+            return Mono.just((URLRedirect) cachedRedirect.get());
+        }
+
+        return offload(() -> this.urlEntryService.findRedirectByUrlAlias(urlAlias));
+    }
+
+    private <T> Mono<T> offload(Supplier<T> blockingCall) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(blockingCall, this.blockingExecutor));
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, open addressing table of views pending to be flushed, by entry id. Slots are claimed and incremented with
+ * atomic operations only, so any number of threads may add views concurrently without locking or allocating.
+ * <p>
+ * Threads adding views announce themselves in one of several padded stripes, chosen by thread, so the
+ * {@link URLViewCounter} can wait for the threads still adding views to a table it has just replaced before draining
+ * it.
+ */
+final class PendingViews {
+
+    private static final long EMPTY = 0L;
+
+    private static final int MAX_PROBES = 32;
+
+    /**
+     * Distance between two stripes in the writers array, keeping each stripe in its own cache line.
+     */
+    private static final int STRIPE_PADDING = 16;
+
+    private final AtomicLongArray ids;
+
+    private final AtomicLongArray views;
+
+    private final AtomicLongArray writers;
+
+    private final int mask;
+
+    private final int stripes;
+
+    /**
+     * @param capacity  Number of slots of the table. Rounded up to a power of two.
+     * @param stripes   Number of stripes threads announce themselves in. Rounded up to a power of two.
+     */
+    PendingViews(int capacity, int stripes) {
+        int slots = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.ids = new AtomicLongArray(slots);
+        this.views = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.stripes = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        this.writers = new AtomicLongArray(this.stripes * STRIPE_PADDING);
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Picks the stripe of the current thread by hashing its id. Virtual threads get a new, never reused id each, so ids
+     * grow without bound; the stripe only has to stay the same between {@link #enter(int)} and {@link #exit(int)},
+     * which the caller ensures by passing it along, and the multiplicative hash spreads consecutive ids evenly over
+     * the stripes, so neither breaks striping.
+     *
+     * @return Stripe the current thread announces itself in.
+     */
+    int stripe() {
+        return (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & (this.stripes - 1);
+    }
+
+    void enter(int stripe) {
+        this.writers.incrementAndGet(stripe * STRIPE_PADDING);
+    }
+
+    void exit(int stripe) {
+        this.writers.decrementAndGet(stripe * STRIPE_PADDING);
+    }
+
+    /**
+     * Waits until no thread is adding views, other than threads about to find out the table was replaced.
+     */
+    void awaitWriters() {
+        for (int stripe = 0; stripe < this.stripes; stripe++) {
+            while (this.writers.get(stripe * STRIPE_PADDING) != 0L) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Adds views to an entry.
+     *
+     * @param id    Id of the entry. Must be a positive number.
+     * @param delta Number of views to add.
+     *
+     * @return {@code false} when there is no slot left for the entry.
+     */
+    boolean add(long id, long delta) {
+        int slot = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & this.mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long slotId = this.ids.get(slot);
+            if (slotId == EMPTY) {
+                if (this.ids.compareAndSet(slot, EMPTY, id)) {
+                    this.views.getAndAdd(slot, delta);
+                    return true;
+                }
+                slotId = this.ids.get(slot);
+            }
+            if (slotId == id) {
+                this.views.getAndAdd(slot, delta);
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Hands the views of every entry to the received consumer and empties the table. Must only be called once no thread
+     * is adding views anymore.
+     *
+     * @param consumer  Receives the id and the views of each entry.
+     */
+    void drainTo(ViewsConsumer consumer) {
+        for (int slot = 0; slot <= this.mask; slot++) {
+            long id = this.ids.get(slot);
+            if (id != EMPTY) {
+                long delta = this.views.getAndSet(slot, 0L);
+                this.ids.set(slot, EMPTY);
+                if (delta != 0L) {
+                    consumer.accept(id, delta);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ViewsConsumer {
+
+        void accept(long id, long views);
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import com.neueda.assignment.urlshrinker.repository.URLEntryWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts the views of each URL entry in memory and periodically adds them to the {@code TOTAL_VIEWS} column, with a
+ * single batch of relative updates.
+ * <p>
+ * Views are added to a fixed size {@link PendingViews} table without locking or allocating. Each flush swaps it with
+ * a spare table, waits for the threads still adding views to the replaced table and drains it, so memory stays within
+ * two tables whatever the traffic. Views of entries not fitting in the table are dropped and counted by the
+ * {@code url.views.dropped} metric.
+ * <p>
+ * Updates add to the stored value, so several nodes may flush concurrently without losing views. They are sent sorted
+ * by id, so concurrent flushes lock rows in the same order. Views which cannot be flushed are kept aside, within the
+ * same maximum number of entries, and retried on the next flush.
+ * <p>
+ * The views drained on each flush are also handed to every {@link URLViewListener}, so further aggregations cost
+ * nothing on the redirection path.
+ */
+@Component
+@EnableConfigurationProperties(URLViewCounterProperties.class)
+public class URLViewCounter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLViewCounter.class);
+
+    static final String ADD_TOTAL_VIEWS = "UPDATE URL_ENTRY SET TOTAL_VIEWS = TOTAL_VIEWS + ? WHERE ID = ?";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final URLEntryWriter urlEntryWriter;
+
+    private final List<URLViewListener> urlViewListeners;
+
+    private final boolean enabled;
+
+    private final int maximumPendingEntries;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Views which could not be flushed yet, by entry id. Only accessed while holding the flush lock.
+     */
+    private final Map<Long, Long> retries = new TreeMap<>();
+
+    private volatile PendingViews active;
+
+    private PendingViews spare;
+
+    public URLViewCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          URLEntryWriter urlEntryWriter, List<URLViewListener> urlViewListeners,
+                          URLViewCounterProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.urlEntryWriter = urlEntryWriter;
+        this.urlViewListeners = urlViewListeners;
+        this.enabled = properties.isEnabled();
+        this.maximumPendingEntries = properties.getMaximumPendingEntries();
+        int stripes = Runtime.getRuntime().availableProcessors() * 4;
+        this.active = new PendingViews(properties.getMaximumPendingEntries(), stripes);
+        this.spare = new PendingViews(properties.getMaximumPendingEntries(), stripes);
+
+        FunctionCounter.builder("url.views.dropped", this.dropped, LongAdder::sum)
+            .description("Views not counted as there was no room left for their URL entries until the next flush.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Counts a view of an entry.
+     *
+     * @param id    Id of the entry viewed.
+     */
+    public void increment(long id) {
+        if (this.enabled) {
+            add(id, 1L);
+        }
+    }
+
+    /**
+     * Adds the views counted since the last flush to the database.
+     */
+    @Scheduled(fixedDelayString = "${application.views.flush-interval:PT1S}")
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            PendingViews drained = this.active;
+            this.active = this.spare;
+            drained.awaitWriters();
+
+            Map<Long, Long> views = new TreeMap<>();
+            drained.drainTo(views::put);
+            this.spare = drained;
+
+            if (!views.isEmpty()) {
+                long countedAt = System.currentTimeMillis();
+                Map<Long, Long> countedViews = Collections.unmodifiableMap(views);
+                this.urlViewListeners.forEach(listener -> listener.viewsCounted(countedViews, countedAt));
+            }
+
+            this.retries.forEach((id, delta) -> views.merge(id, delta, Long::sum));
+            this.retries.clear();
+            if (!views.isEmpty()) {
+                persist(new ArrayList<>(views.entrySet()));
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the views counted since the last flush before shutting down.
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private void add(long id, long delta) {
+        PendingViews pendingViews = this.active;
+        int stripe = pendingViews.stripe();
+        while (true) {
+            pendingViews.enter(stripe);
+            try {
+                if (pendingViews == this.active) {
+                    if (!pendingViews.add(id, delta)) {
+                        this.dropped.add(delta);
+                    }
+                    return;
+                }
+            } finally {
+                pendingViews.exit(stripe);
+            }
+            pendingViews = this.active;
+        }
+    }
+
+    private void persist(List<Map.Entry<Long, Long>> views) {
+        try {
+            int[][] updateCounts = this.transactionTemplate.execute(status ->
+                this.jdbcTemplate.batchUpdate(ADD_TOTAL_VIEWS, views, BATCH_SIZE, (statement, entry) -> {
+                    statement.setLong(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                })
+            );
+            retryEntriesNotPersistedYet(views, updateCounts);
+        } catch (RuntimeException exception) {
+            LOGGER.error("Unable to flush the views of {} URL entries. Retrying on the next flush.", views.size(),
+                exception);
+            views.forEach(entry -> retry(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void retry(long id, long delta) {
+        if (this.retries.size() < this.maximumPendingEntries || this.retries.containsKey(id)) {
+            this.retries.merge(id, delta, Long::sum);
+        } else {
+            this.dropped.add(delta);
+        }
+    }
+
+    /**
+     * Keeps aside the views of entries not found in the database while still waiting to be persisted by the
+     * {@link URLEntryWriter}. Views of entries not found anywhere are discarded.
+     */
+    private void retryEntriesNotPersistedYet(List<Map.Entry<Long, Long>> views, int[][] updateCounts) {
+        int index = 0;
+        for (int[] batchUpdateCounts : updateCounts) {
+            for (int updateCount : batchUpdateCounts) {
+                Map.Entry<Long, Long> entry = views.get(index++);
+                if (updateCount == 0 && this.urlEntryWriter.findPendingById(entry.getKey()).isPresent()) {
+                    retry(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link URLViewCounter}, bound from the {@code application.views} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.views")
+public class URLViewCounterProperties {
+
+    /**
+     * Whether redirections are counted.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of distinct entries whose views may be pending between two flushes. Rounded up to a power of two;
+     * each entry takes 16 bytes, twice, as the pending views are double buffered.
+     */
+    private int maximumPendingEntries = 65_536;
+
+    /**
+     * Interval between two flushes of the pending views to the database.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+}
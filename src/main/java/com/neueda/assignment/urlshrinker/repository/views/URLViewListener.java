@@ -0,0 +1,18 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import java.util.Map;
+
+/**
+ * Receives the views counted by the {@link URLViewCounter}, once per flush, from the thread flushing them.
+ */
+public interface URLViewListener {
+
+    /**
+     * Handles the views counted since the previous flush. Views retried after a failed flush are not handed again.
+     *
+     * @param views         Number of views by entry id.
+     * @param countedAt     When the views were drained, in milliseconds since the epoch.
+     */
+    void viewsCounted(Map<Long, Long> views, long countedAt);
+
+}
@@ -0,0 +1,256 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.model.response.URLViewStatisticsResponse;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Aggregates the views handed by the {@link URLViewCounter} per minute, hour and day, into in-memory {@link ViewSeries}
+ * serving the recent statistics of each entry, and into hourly and daily rollups periodically added to the
+ * {@code URL_ENTRY_VIEWS_ROLLUP} table.
+ * <p>
+ * Per minute views exist only in memory, since the series of an entry was created. Hourly and daily views of a
+ * series are loaded from the rollups, plus the rollups not written yet, the first time its statistics are requested;
+ * from then on both are kept in sync, so the series answers without querying the database. Series are bounded in
+ * number and evicted by Caffeine; an evicted series is rebuilt the same way. Rollups are written with relative
+ * updates, so several nodes may write them concurrently.
+ * <p>
+ * The database is never queried nor written while holding the lock taken by {@link #viewsCounted(Map, long)}, so
+ * counting views never waits for it. Loads of the written rollups and writes of the pending ones exclude each other
+ * instead, so a series loaded from the database never misses nor counts twice the rollups being written.
+ */
+@Component
+@EnableConfigurationProperties(URLViewStatisticsProperties.class)
+public class URLViewStatistics implements URLViewListener, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLViewStatistics.class);
+
+    static final String ADD_ROLLUP_VIEWS =
+        "MERGE INTO URL_ENTRY_VIEWS_ROLLUP USING (VALUES (CAST(? AS BIGINT), CAST(? AS CHAR(1)), CAST(? AS BIGINT), "
+            + "CAST(? AS BIGINT))) AS NEW_ROLLUP (URL_ENTRY_ID, GRANULARITY, BUCKET_START, VIEWS) "
+            + "ON URL_ENTRY_VIEWS_ROLLUP.URL_ENTRY_ID = NEW_ROLLUP.URL_ENTRY_ID "
+            + "AND URL_ENTRY_VIEWS_ROLLUP.GRANULARITY = NEW_ROLLUP.GRANULARITY "
+            + "AND URL_ENTRY_VIEWS_ROLLUP.BUCKET_START = NEW_ROLLUP.BUCKET_START "
+            + "WHEN MATCHED THEN UPDATE SET URL_ENTRY_VIEWS_ROLLUP.VIEWS = URL_ENTRY_VIEWS_ROLLUP.VIEWS + NEW_ROLLUP.VIEWS "
+            + "WHEN NOT MATCHED THEN INSERT VALUES (NEW_ROLLUP.URL_ENTRY_ID, NEW_ROLLUP.GRANULARITY, "
+            + "NEW_ROLLUP.BUCKET_START, NEW_ROLLUP.VIEWS)";
+
+    static final String SELECT_RECENT_ROLLUPS =
+        "SELECT GRANULARITY, BUCKET_START, VIEWS FROM URL_ENTRY_VIEWS_ROLLUP WHERE URL_ENTRY_ID = ? "
+            + "AND ((GRANULARITY = ? AND BUCKET_START >= ?) OR (GRANULARITY = ? AND BUCKET_START >= ?))";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Comparator<Rollup> ROLLUP_ORDER = Comparator.comparingLong(Rollup::getUrlEntryId)
+        .thenComparing(Rollup::getGranularity)
+        .thenComparingLong(Rollup::getBucketStart);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<Long, ViewSeries> series;
+
+    /**
+     * Hourly and daily views not written to the database yet.
+     */
+    private final NavigableMap<Rollup, Long> pendingRollups = new TreeMap<>(ROLLUP_ORDER);
+
+    /**
+     * Guards the series and the pending rollups. Never held while querying or writing the database.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Held for reading while loading the written rollups of a series, and for writing while writing the pending ones.
+     * Always taken before {@link #lock}.
+     */
+    private final ReentrantReadWriteLock rollupsLock = new ReentrantReadWriteLock();
+
+    public URLViewStatistics(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             URLViewStatisticsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.series = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumEntries())
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void viewsCounted(Map<Long, Long> views, long countedAt) {
+        long hour = ViewSeries.HOUR.bucketStart(countedAt);
+        long day = ViewSeries.DAY.bucketStart(countedAt);
+        this.lock.lock();
+        try {
+            views.forEach((id, delta) -> {
+                this.series.get(id, key -> new ViewSeries()).add(countedAt, delta);
+                this.pendingRollups.merge(new Rollup(id, ViewSeries.HOUR.code, hour), delta, Long::sum);
+                this.pendingRollups.merge(new Rollup(id, ViewSeries.DAY.code, day), delta, Long::sum);
+            });
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Looks up for the recent views of an entry.
+     *
+     * @param urlEntryId    Id of the entry.
+     * @param epochMillis   End of the windows, in milliseconds since the epoch.
+     *
+     * @return Views per minute over the last hour, per hour over the last day and per day over the last 30 days.
+     */
+    public URLViewStatisticsResponse findByUrlEntryId(long urlEntryId, long epochMillis) {
+        this.lock.lock();
+        try {
+            ViewSeries viewSeries = this.series.get(urlEntryId, key -> new ViewSeries());
+            if (viewSeries.rollupsLoaded) {
+                return snapshot(viewSeries, epochMillis);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        this.rollupsLock.readLock().lock();
+        try {
+            List<Rollup> writtenRollups = new ArrayList<>();
+            List<Long> writtenViews = new ArrayList<>();
+            this.jdbcTemplate.query(SELECT_RECENT_ROLLUPS, resultSet -> {
+                    writtenRollups.add(new Rollup(urlEntryId, resultSet.getString(1).charAt(0), resultSet.getLong(2)));
+                    writtenViews.add(resultSet.getLong(3));
+                },
+                urlEntryId, String.valueOf(ViewSeries.HOUR.code), ViewSeries.HOUR.windowStart(epochMillis),
+                String.valueOf(ViewSeries.DAY.code), ViewSeries.DAY.windowStart(epochMillis));
+
+            this.lock.lock();
+            try {
+                ViewSeries viewSeries = this.series.get(urlEntryId, key -> new ViewSeries());
+                if (!viewSeries.rollupsLoaded) {
+                    loadRollups(urlEntryId, viewSeries, writtenRollups, writtenViews);
+                }
+                return snapshot(viewSeries, epochMillis);
+            } finally {
+                this.lock.unlock();
+            }
+        } finally {
+            this.rollupsLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the pending hourly and daily views to the database. Kept pending when they cannot be written.
+     */
+    @Scheduled(fixedDelayString = "${application.views.statistics.persist-interval:PT1M}")
+    public void persist() {
+        this.rollupsLock.writeLock().lock();
+        try {
+            List<Map.Entry<Rollup, Long>> rollups;
+            this.lock.lock();
+            try {
+                rollups = new ArrayList<>(this.pendingRollups.entrySet());
+            } finally {
+                this.lock.unlock();
+            }
+            if (rollups.isEmpty()) {
+                return;
+            }
+
+            this.transactionTemplate.executeWithoutResult(status ->
+                this.jdbcTemplate.batchUpdate(ADD_ROLLUP_VIEWS, rollups, BATCH_SIZE, (statement, rollup) -> {
+                    statement.setLong(1, rollup.getKey().getUrlEntryId());
+                    statement.setString(2, String.valueOf(rollup.getKey().getGranularity()));
+                    statement.setLong(3, rollup.getKey().getBucketStart());
+                    statement.setLong(4, rollup.getValue());
+                })
+            );
+
+            // Views counted while writing stay pending.
+            this.lock.lock();
+            try {
+                rollups.forEach(rollup -> this.pendingRollups.computeIfPresent(rollup.getKey(),
+                    (key, views) -> views == rollup.getValue().longValue() ? null : views - rollup.getValue()));
+            } finally {
+                this.lock.unlock();
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.error("Unable to write view rollups. Retrying on the next write.", exception);
+        } finally {
+            this.rollupsLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the pending hourly and daily views before shutting down.
+     */
+    @Override
+    public void destroy() {
+        persist();
+    }
+
+    private static URLViewStatisticsResponse snapshot(ViewSeries viewSeries, long epochMillis) {
+        return new URLViewStatisticsResponse(viewSeries.minutes.snapshot(epochMillis),
+            viewSeries.hours.snapshot(epochMillis), viewSeries.days.snapshot(epochMillis));
+    }
+
+    /**
+     * Replaces the hourly and daily views of a series with the ones written to the database plus the pending ones.
+     */
+    private void loadRollups(long urlEntryId, ViewSeries viewSeries, List<Rollup> writtenRollups,
+                             List<Long> writtenViews) {
+        viewSeries.hours = new ViewSeries.Ring(ViewSeries.HOUR);
+        viewSeries.days = new ViewSeries.Ring(ViewSeries.DAY);
+        for (int index = 0; index < writtenRollups.size(); index++) {
+            Rollup rollup = writtenRollups.get(index);
+            addToRing(viewSeries, rollup.getGranularity(), rollup.getBucketStart(), writtenViews.get(index));
+        }
+        this.pendingRollups
+            .subMap(new Rollup(urlEntryId, Character.MIN_VALUE, Long.MIN_VALUE), true,
+                new Rollup(urlEntryId, Character.MAX_VALUE, Long.MAX_VALUE), true)
+            .forEach((rollup, views) ->
+                addToRing(viewSeries, rollup.getGranularity(), rollup.getBucketStart(), views));
+        viewSeries.rollupsLoaded = true;
+    }
+
+    private static void addToRing(ViewSeries viewSeries, char granularity, long bucketStart, long views) {
+        if (granularity == ViewSeries.HOUR.code) {
+            viewSeries.hours.add(bucketStart, views);
+        } else if (granularity == ViewSeries.DAY.code) {
+            viewSeries.days.add(bucketStart, views);
+        }
+    }
+
+    @Value
+    private static class Rollup {
+
+        long urlEntryId;
+
+        char granularity;
+
+        long bucketStart;
+
+    }
+
+}
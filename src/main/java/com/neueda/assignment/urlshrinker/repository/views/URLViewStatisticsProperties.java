@@ -0,0 +1,25 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the {@link URLViewStatistics}, bound from the {@code application.views.statistics} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.views.statistics")
+public class URLViewStatisticsProperties {
+
+    /**
+     * Maximum number of entries whose recent views are kept in memory. Each takes about 2KB.
+     */
+    private long maximumEntries = 10_000L;
+
+    /**
+     * Interval between two writes of the hourly and daily views to the database.
+     */
+    private Duration persistInterval = Duration.ofMinutes(1);
+
+}
@@ -0,0 +1,116 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import com.neueda.assignment.urlshrinker.model.response.ViewsBucket;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Views of a single entry over the last hour per minute, the last day per hour and the last month per day. Each
+ * granularity is a ring of primitive buckets, indexed by bucket number modulo the ring size, so a view is added to all
+ * of them at once and buckets older than the ring are recycled in place. Not thread safe.
+ */
+final class ViewSeries {
+
+    static final Ring.Granularity MINUTE = new Ring.Granularity('M', Duration.ofMinutes(1), 60);
+
+    static final Ring.Granularity HOUR = new Ring.Granularity('H', Duration.ofHours(1), 24);
+
+    static final Ring.Granularity DAY = new Ring.Granularity('D', Duration.ofDays(1), 30);
+
+    final Ring minutes = new Ring(MINUTE);
+
+    Ring hours = new Ring(HOUR);
+
+    Ring days = new Ring(DAY);
+
+    /**
+     * Whether the hours and days rings hold every view of their windows, rather than only the views added since the
+     * series was created.
+     */
+    boolean rollupsLoaded;
+
+    void add(long epochMillis, long views) {
+        this.minutes.add(epochMillis, views);
+        this.hours.add(epochMillis, views);
+        this.days.add(epochMillis, views);
+    }
+
+    static final class Ring {
+
+        final Granularity granularity;
+
+        private final long[] buckets;
+
+        private final long[] views;
+
+        Ring(Granularity granularity) {
+            this.granularity = granularity;
+            this.buckets = new long[granularity.size];
+            this.views = new long[granularity.size];
+        }
+
+        /**
+         * Adds views to the bucket of the received moment. Ignored when the bucket is older than the ring.
+         */
+        void add(long epochMillis, long views) {
+            long bucket = epochMillis / this.granularity.millis;
+            int slot = (int) (bucket % this.granularity.size);
+            if (this.buckets[slot] > bucket) {
+                return;
+            }
+            if (this.buckets[slot] != bucket) {
+                this.buckets[slot] = bucket;
+                this.views[slot] = 0L;
+            }
+            this.views[slot] += views;
+        }
+
+        /**
+         * @param epochMillis   End of the window.
+         *
+         * @return Views of each bucket of the window ending at the received moment, oldest first.
+         */
+        List<ViewsBucket> snapshot(long epochMillis) {
+            long lastBucket = epochMillis / this.granularity.millis;
+            List<ViewsBucket> snapshot = new ArrayList<>(this.granularity.size);
+            for (long bucket = lastBucket - this.granularity.size + 1; bucket <= lastBucket; bucket++) {
+                int slot = (int) (bucket % this.granularity.size);
+                long bucketViews = this.buckets[slot] == bucket ? this.views[slot] : 0L;
+                snapshot.add(new ViewsBucket(Instant.ofEpochMilli(bucket * this.granularity.millis), bucketViews));
+            }
+            return snapshot;
+        }
+
+        static final class Granularity {
+
+            final char code;
+
+            final long millis;
+
+            final int size;
+
+            Granularity(char code, Duration duration, int size) {
+                this.code = code;
+                this.millis = duration.toMillis();
+                this.size = size;
+            }
+
+            /**
+             * @return Start of the oldest bucket of the window ending at the received moment.
+             */
+            long windowStart(long epochMillis) {
+                return (epochMillis / this.millis - this.size + 1) * this.millis;
+            }
+
+            long bucketStart(long epochMillis) {
+                return epochMillis / this.millis * this.millis;
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.neueda.assignment.urlshrinker.repository.writebehind;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file holding the entries accepted by the {@link WriteBehindURLEntryWriter} and not persisted yet. Each
+ * record is forced to the storage device before {@link #append(URLEntry)} returns, and is made of:
+ * <pre>
+ * int  length of the payload
+ * int  CRC32 of the payload
+ * long id
+ * long creation time, in milliseconds since the epoch
+ * byte[] UTF-8 encoded URL address
+ * </pre>
+ * A record torn by a crash fails its checksum, so replay stops at the last complete record.
+ */
+public class URLEntryJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLEntryJournal.class);
+
+    private static final int HEADER_LENGTH = Integer.BYTES * 2;
+
+    private static final int FIXED_PAYLOAD_LENGTH = Long.BYTES * 2;
+
+    private final FileChannel channel;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * Opens, or creates when missing, the journal file.
+     *
+     * @param path  Path of the journal file.
+     *
+     * @throws UncheckedIOException When the file cannot be opened.
+     */
+    public URLEntryJournal(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            this.channel.position(this.channel.size());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(String.format("Unable to open the journal '%s'.", path), exception);
+        }
+    }
+
+    /**
+     * Appends an entry to the journal and forces it to the storage device.
+     *
+     * @param urlEntry  Entry to append.
+     *
+     * @throws UncheckedIOException When the entry cannot be written.
+     */
+    public void append(URLEntry urlEntry) {
+        byte[] urlAddress = urlEntry.getUrlAddress().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_LENGTH + FIXED_PAYLOAD_LENGTH + urlAddress.length);
+        record.position(HEADER_LENGTH);
+        record.putLong(urlEntry.getId());
+        record.putLong(urlEntry.getCreatedAt().getTime());
+        record.put(urlAddress);
+
+        CRC32 checksum = new CRC32();
+        checksum.update(record.array(), HEADER_LENGTH, record.capacity() - HEADER_LENGTH);
+        record.putInt(0, record.capacity() - HEADER_LENGTH);
+        record.putInt(Integer.BYTES, (int) checksum.getValue());
+        record.flip();
+
+        try {
+            this.appendLock.lock();
+            try {
+                while (record.hasRemaining()) {
+                    this.channel.write(record);
+                }
+            } finally {
+                this.appendLock.unlock();
+            }
+            // Forcing outside of the lock lets concurrent appends share a single flush of the device.
+            this.channel.force(false);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to append to the journal.", exception);
+        }
+    }
+
+    /**
+     * Reads all complete records of the journal.
+     *
+     * @return Entries found in the journal, in the order they were appended.
+     *
+     * @throws UncheckedIOException When the file cannot be read.
+     */
+    public List<URLEntry> readAll() {
+        List<URLEntry> urlEntries = new ArrayList<>();
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            long position = 0L;
+            while (this.channel.read(header.clear(), position) == HEADER_LENGTH) {
+                int length = header.getInt(0);
+                if (length < FIXED_PAYLOAD_LENGTH || position + HEADER_LENGTH + length > this.channel.size()) {
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                this.channel.read(payload, position + HEADER_LENGTH);
+                CRC32 checksum = new CRC32();
+                checksum.update(payload.array());
+                if ((int) checksum.getValue() != header.getInt(Integer.BYTES)) {
+                    break;
+                }
+
+                payload.flip();
+                long id = payload.getLong();
+                Date createdAt = new Date(payload.getLong());
+                String urlAddress = StandardCharsets.UTF_8.decode(payload).toString();
+                urlEntries.add(new URLEntry(id, urlAddress, createdAt));
+                position += HEADER_LENGTH + length;
+            }
+
+            if (position < this.channel.size()) {
+                LOGGER.warn("Ignoring {} bytes of incomplete records at the end of the journal.",
+                    this.channel.size() - position);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to read the journal.", exception);
+        }
+        return urlEntries;
+    }
+
+    /**
+     * Discards all records of the journal.
+     *
+     * @throws UncheckedIOException When the file cannot be truncated.
+     */
+    public void truncate() {
+        this.appendLock.lock();
+        try {
+            this.channel.truncate(0L);
+            this.channel.position(0L);
+            this.channel.force(true);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to truncate the journal.", exception);
+        } finally {
+            this.appendLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
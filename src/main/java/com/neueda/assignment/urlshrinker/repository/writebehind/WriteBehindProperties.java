@@ -0,0 +1,64 @@
+package com.neueda.assignment.urlshrinker.repository.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the {@link WriteBehindURLEntryWriter}, bound from the {@code application.write-behind} properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * Whether new entries are persisted asynchronously, in batches.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of entries waiting to be persisted.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of entries persisted by a single JDBC batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long to wait for more entries before persisting a batch smaller than the batch size.
+     */
+    private Duration linger = Duration.ofMillis(20);
+
+    /**
+     * How long a new entry waits for room in a full queue before being rejected.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    /**
+     * File where entries are journaled before being acknowledged, so they survive a crash.
+     */
+    private Path journalPath = Path.of(System.getProperty("java.io.tmpdir"), "url_shrinker", "write-behind.journal");
+
+    /**
+     * How many times a batch failing for any other reason than the database being unavailable, e.g. because one of
+     * its entries violates a constraint, is attempted before its entries are persisted one by one. Entries still
+     * failing on their own are moved to the dead letter file.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * How long to wait before attempting to persist a failed batch again.
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    /**
+     * File where entries which cannot be persisted are appended, in the format of the journal, so they can be
+     * inspected and replayed once fixed.
+     */
+    private Path deadLetterPath = Path.of(System.getProperty("java.io.tmpdir"), "url_shrinker", "write-behind.dead-letter");
+
+}
@@ -0,0 +1,343 @@
+package com.neueda.assignment.urlshrinker.repository.writebehind;
+
+import com.neueda.assignment.urlshrinker.cache.URLEntryIdFilter;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryWriter;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link URLEntryWriter} acknowledging new entries as soon as they are journaled, and persisting them afterwards in
+ * JDBC batches, from a dedicated thread. A batch is persisted when it reaches the configured batch size or when no
+ * new entry arrives during the configured linger time.
+ * <ul>
+ *     <li><b>Backpressure:</b> at most {@code queue-capacity} entries may be waiting to be persisted. Writes wait up
+ *     to {@code offer-timeout} for room and are then rejected with a {@link WriteBehindQueueFullException}.</li>
+ *     <li><b>Durability:</b> every entry is forced to the {@link URLEntryJournal} before being acknowledged. The
+ *     journal is replayed when the application starts and truncated whenever nothing is waiting to be persisted.
+ *     Entries are persisted with a {@code MERGE} by id, so replaying an entry already persisted is harmless.</li>
+ *     <li><b>Poison entries:</b> batches are retried for as long as the database is unavailable, but only up to
+ *     {@code max-attempts} times on any other failure. Their entries are then persisted one by one, and the ones still
+ *     failing are appended to the {@code dead-letter-path} file and counted by the
+ *     {@code url.entry.write.behind.dead.letters} counter, so a single bad entry cannot stall the pipeline.</li>
+ *     <li><b>Read-your-writes:</b> entries waiting to be persisted are indexed by id and URL address, and returned by
+ *     the {@code findPending...} methods.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "application.write-behind.enabled", havingValue = "true")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+public class WriteBehindURLEntryWriter implements URLEntryWriter, SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindURLEntryWriter.class);
+
+    static final String MERGE_URL_ENTRY =
+        "MERGE INTO URL_ENTRY USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(2000)), CAST(? AS BINARY(16)), "
+            + "CAST(? AS TIMESTAMP))) AS NEW_ENTRY (ID, URL_ADDRESS, URL_DIGEST, CREATED_AT) "
+            + "ON URL_ENTRY.ID = NEW_ENTRY.ID "
+            + "WHEN NOT MATCHED THEN INSERT (ID, URL_ADDRESS, URL_DIGEST, CREATED_AT) "
+            + "VALUES (NEW_ENTRY.ID, NEW_ENTRY.URL_ADDRESS, NEW_ENTRY.URL_DIGEST, NEW_ENTRY.CREATED_AT)";
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 30_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate batchTransactionTemplate;
+
+    private final URLEntryIdFilter urlEntryIdFilter;
+
+    private final WriteBehindProperties properties;
+
+    private final URLEntryJournal journal;
+
+    private final URLEntryJournal deadLetters;
+
+    private final Counter deadLetterCounter;
+
+    private final BlockingQueue<URLEntry> queue = new LinkedBlockingQueue<>();
+
+    private final Semaphore capacity;
+
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    private final Map<Long, URLEntry> pendingById = new ConcurrentHashMap<>();
+
+    private final Map<String, URLEntry> pendingByUrlAddress = new ConcurrentHashMap<>();
+
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    public WriteBehindURLEntryWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     URLEntryIdFilter urlEntryIdFilter, WriteBehindProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.urlEntryIdFilter = urlEntryIdFilter;
+        this.properties = properties;
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+        this.journal = new URLEntryJournal(properties.getJournalPath());
+        this.deadLetters = new URLEntryJournal(properties.getDeadLetterPath());
+        this.drainer = new Thread(this::drain, "url-entry-write-behind");
+        this.drainer.setDaemon(true);
+
+        Gauge.builder("url.entry.write.behind.pending", this.pendingById, Map::size)
+            .description("URL entries acknowledged and not persisted yet.")
+            .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("url.entry.write.behind.dead.letters")
+            .description("URL entries acknowledged and moved to the dead letter file, as they could not be persisted.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Persists the entries left in the journal by a previous run, then starts draining the queue.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<URLEntry> journaledEntries = this.journal.readAll();
+        if (!journaledEntries.isEmpty()) {
+            LOGGER.info("Replaying {} URL entries from the write-behind journal.", journaledEntries.size());
+            for (int start = 0; start < journaledEntries.size(); start += this.properties.getBatchSize()) {
+                persistOrDeadLetter(journaledEntries.subList(start,
+                    Math.min(start + this.properties.getBatchSize(), journaledEntries.size())));
+            }
+            journaledEntries.forEach(urlEntry -> this.urlEntryIdFilter.registerExisting(urlEntry.getId()));
+        }
+        this.journal.truncate();
+        this.drainer.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws WriteBehindQueueFullException When there is no room for the entry in the queue.
+     */
+    @Override
+    public URLEntry write(URLEntry urlEntry) {
+        if (!tryAcquireCapacity()) {
+            throw new WriteBehindQueueFullException("Too many URLs waiting to be persisted. Try again later.");
+        }
+
+        this.journalLock.readLock().lock();
+        try {
+            this.journal.append(urlEntry);
+            this.pendingById.put(urlEntry.getId(), urlEntry);
+            this.pendingByUrlAddress.putIfAbsent(urlEntry.getUrlAddress(), urlEntry);
+            this.queue.add(urlEntry);
+        } catch (RuntimeException exception) {
+            this.capacity.release();
+            throw exception;
+        } finally {
+            this.journalLock.readLock().unlock();
+        }
+        return urlEntry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws WriteBehindQueueFullException When there is no room for one of the entries in the queue. The entries
+     *                                       before it are still written.
+     */
+    @Override
+    public List<URLEntry> writeAll(List<URLEntry> urlEntries) {
+        urlEntries.forEach(this::write);
+        return urlEntries;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLEntry> findPendingById(long id) {
+        return Optional.ofNullable(this.pendingById.get(id));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<URLEntry> findPendingByUrlAddress(String urlAddress) {
+        return Optional.ofNullable(this.pendingByUrlAddress.get(urlAddress));
+    }
+
+    /**
+     * Stops the drainer thread once the entries waiting in the queue are persisted.
+     */
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        this.running = false;
+        this.drainer.interrupt();
+        this.drainer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        this.journal.close();
+        this.deadLetters.close();
+    }
+
+    private boolean tryAcquireCapacity() {
+        try {
+            return this.capacity.tryAcquire(this.properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+        List<URLEntry> batch = new ArrayList<>(this.properties.getBatchSize());
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException exception) {
+                // Interrupted on shutdown: persists whatever is left before leaving.
+                this.queue.drainTo(batch);
+            }
+
+            if (!batch.isEmpty()) {
+                persistOrDeadLetter(batch);
+            }
+
+            batch.forEach(this::removePending);
+            this.capacity.release(batch.size());
+            batch.clear();
+            truncateJournalWhenIdle();
+        }
+    }
+
+    private void collectBatch(List<URLEntry> batch) throws InterruptedException {
+        batch.add(this.queue.take());
+        long deadline = System.nanoTime() + this.properties.getLinger().toNanos();
+        while (batch.size() < this.properties.getBatchSize()) {
+            URLEntry urlEntry = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (urlEntry == null) {
+                return;
+            }
+            batch.add(urlEntry);
+        }
+    }
+
+    /**
+     * Persists a batch of entries, falling back to persisting them one by one when the batch keeps failing, and moving
+     * the entries which still fail on their own to the dead letter file.
+     */
+    private void persistOrDeadLetter(List<URLEntry> batch) {
+        if (tryPersist(batch, this.properties.getMaxAttempts()) == null) {
+            return;
+        }
+
+        LOGGER.warn("Persisting {} URL entries one by one to find the ones failing.", batch.size());
+        for (URLEntry urlEntry : batch) {
+            RuntimeException failure = tryPersist(List.of(urlEntry), 1);
+            if (failure != null) {
+                deadLetter(urlEntry, failure);
+            }
+        }
+    }
+
+    /**
+     * Persists entries, retrying for as long as the database is unavailable and up to the received number of attempts
+     * on any other failure.
+     *
+     * @return {@code null} when the entries are persisted, or the failure of the last attempt.
+     */
+    private RuntimeException tryPersist(List<URLEntry> urlEntries, int maxAttempts) {
+        int failedAttempts = 0;
+        while (true) {
+            try {
+                persist(urlEntries);
+                return null;
+            } catch (RuntimeException exception) {
+                if (!isDatabaseUnavailable(exception) && ++failedAttempts >= maxAttempts) {
+                    return exception;
+                }
+                LOGGER.error("Unable to persist {} URL entries. Retrying.", urlEntries.size(), exception);
+                pauseBeforeRetry();
+            }
+        }
+    }
+
+    private void deadLetter(URLEntry urlEntry, RuntimeException failure) {
+        LOGGER.error("Unable to persist the URL entry {} with URL address '{}'. Moving it to the dead letter file.",
+            urlEntry.getId(), urlEntry.getUrlAddress(), failure);
+        this.deadLetters.append(urlEntry);
+        this.deadLetterCounter.increment();
+    }
+
+    private static boolean isDatabaseUnavailable(RuntimeException exception) {
+        return exception instanceof DataAccessResourceFailureException
+            || exception instanceof TransientDataAccessException
+            || exception instanceof CannotCreateTransactionException;
+    }
+
+    private void persist(List<URLEntry> batch) {
+        this.batchTransactionTemplate.executeWithoutResult(status ->
+            this.jdbcTemplate.batchUpdate(MERGE_URL_ENTRY, batch, batch.size(), (statement, urlEntry) -> {
+                statement.setLong(1, urlEntry.getId());
+                statement.setString(2, urlEntry.getUrlAddress());
+                statement.setBytes(3, urlEntry.getUrlDigest());
+                statement.setTimestamp(4, new Timestamp(urlEntry.getCreatedAt().getTime()));
+            })
+        );
+    }
+
+    private void pauseBeforeRetry() {
+        try {
+            Thread.sleep(this.properties.getRetryDelay().toMillis());
+        } catch (InterruptedException exception) {
+            // Interrupted on shutdown: keeps retrying until the shutdown timeout is over.
+        }
+    }
+
+    private void removePending(URLEntry urlEntry) {
+        this.pendingById.remove(urlEntry.getId(), urlEntry);
+        this.pendingByUrlAddress.remove(urlEntry.getUrlAddress(), urlEntry);
+    }
+
+    /**
+     * Truncates the journal when no entry is between being journaled and being persisted. Writers hold the read lock
+     * from acquiring room in the queue until their entry is queued, so holding the write lock with the whole capacity
+     * available means every journaled entry is persisted.
+     */
+    private void truncateJournalWhenIdle() {
+        if (this.capacity.availablePermits() == this.properties.getQueueCapacity()
+                && this.journalLock.writeLock().tryLock()) {
+            try {
+                if (this.capacity.availablePermits() == this.properties.getQueueCapacity()) {
+                    this.journal.truncate();
+                }
+            } finally {
+                this.journalLock.writeLock().unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+--
+-- This migration script replaces the unique constraint over URL_ADDRESS, whose index pages hold URLs with up to 2000
+-- characters, by an index over a fixed width digest of the URL. The digest of existing rows is filled in by the V3
+-- migration.
+--
+ALTER TABLE URL_ENTRY
+ADD COLUMN URL_DIGEST BINARY(16);
+
+CREATE INDEX IDX_URL_ENTRY_URL_DIGEST
+ON URL_ENTRY(URL_DIGEST);
+
+ALTER TABLE URL_ENTRY
+DROP CONSTRAINT UNQ_URL_ENTRY_URL_ADDRESS;
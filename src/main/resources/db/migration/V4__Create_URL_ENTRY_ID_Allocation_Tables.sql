@@ -0,0 +1,17 @@
+--
+-- This migration script creates the tables used to lease blocks of URL_ENTRY ids to the application nodes. The
+-- URL_ENTRY_ID_ALLOCATION table holds a single row with the first id not leased yet, starting after the highest id
+-- issued so far. Every lease is recorded in URL_ENTRY_ID_LEASE, so the ids still being handed out by any node are known.
+--
+CREATE TABLE URL_ENTRY_ID_ALLOCATION (
+    NEXT_ID BIGINT NOT NULL
+);
+
+INSERT INTO URL_ENTRY_ID_ALLOCATION (NEXT_ID)
+SELECT COALESCE(MAX(ID), 0) + 1 FROM URL_ENTRY;
+
+CREATE TABLE URL_ENTRY_ID_LEASE (
+    START_ID BIGINT NOT NULL PRIMARY KEY,
+    END_ID BIGINT NOT NULL,
+    LEASED_AT TIMESTAMP NOT NULL
+);
@@ -0,0 +1,6 @@
+--
+-- This migration script adds the TOTAL_VIEWS column, incremented in batches with the number of redirections to each
+-- URL address.
+--
+ALTER TABLE URL_ENTRY
+ADD COLUMN TOTAL_VIEWS BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,12 @@
+--
+-- This migration script creates the URL_ENTRY_VIEWS_ROLLUP table, holding the number of redirections to each URL
+-- address per hour (GRANULARITY 'H') and per day (GRANULARITY 'D'). BUCKET_START is the start of the hour or day, in
+-- milliseconds since the epoch, UTC.
+--
+CREATE TABLE URL_ENTRY_VIEWS_ROLLUP (
+    URL_ENTRY_ID BIGINT NOT NULL,
+    GRANULARITY CHAR(1) NOT NULL,
+    BUCKET_START BIGINT NOT NULL,
+    VIEWS BIGINT NOT NULL,
+    PRIMARY KEY (URL_ENTRY_ID, GRANULARITY, BUCKET_START)
+);
@@ -0,0 +1,6 @@
+--
+-- This migration script adds the REDIRECT_POLICY column, holding the RedirectPolicy of entries whose redirections
+-- must not follow the default one. Existing entries keep following the default policy.
+--
+ALTER TABLE URL_ENTRY
+ADD COLUMN REDIRECT_POLICY VARCHAR(16);
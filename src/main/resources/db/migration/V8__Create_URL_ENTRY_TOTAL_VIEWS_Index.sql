@@ -0,0 +1,7 @@
+--
+-- This migration script creates an index in the order the look up cache is warmed up from the database, most viewed
+-- entries first, so the warm up reads only the entries it loads instead of sorting the whole table. Building it over
+-- an existing table reads every row once, which takes a few minutes for tens of millions of rows.
+--
+CREATE INDEX IDX_URL_ENTRY_TOTAL_VIEWS
+ON URL_ENTRY(TOTAL_VIEWS DESC, ID DESC);
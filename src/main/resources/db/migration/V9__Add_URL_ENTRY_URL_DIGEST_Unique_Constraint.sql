@@ -0,0 +1,11 @@
+--
+-- This migration script makes URL addresses unique again, as they were before the V2 migration dropped the unique
+-- constraint over URL_ADDRESS. The new constraint leads with the fixed width URL_DIGEST, so look ups by digest are
+-- served by its index and the plain index created by the V2 migration is dropped. Entries sharing an URL address,
+-- created by concurrent shortens since the V2 migration, must be merged before this migration is applied.
+--
+ALTER TABLE URL_ENTRY
+ADD CONSTRAINT UNQ_URL_ENTRY_URL_DIGEST
+UNIQUE(URL_DIGEST, URL_ADDRESS);
+
+DROP INDEX IDX_URL_ENTRY_URL_DIGEST;
@@ -0,0 +1,23 @@
+--
+-- This callback tunes the storage of the file database used by the prod profile, before any migration runs, so the
+-- tables they create are CACHED ones, held on disk, whatever the connection URL says. The settings are persisted by
+-- HSQLDB and applied again on every start, so changes to the placeholders take effect on the next one.
+--
+SET DATABASE DEFAULT TABLE TYPE CACHED;
+
+-- Rows of CACHED tables kept in memory, bounded by their count and by their total size, in KB.
+SET FILES CACHE ROWS ${cache_rows};
+SET FILES CACHE SIZE ${cache_size};
+
+-- Maximum size, in MB, of the data file accessed through memory mapped NIO, outside of the heap.
+SET FILES NIO SIZE ${nio_size};
+
+-- Size, in MB, the log grows to before a checkpoint folds it into the data file. Bounds the log replayed on recovery.
+SET FILES LOG SIZE ${log_size};
+
+-- Delay, in milliseconds, before committed changes are synced to the log. Bounds the changes lost on a crash.
+SET FILES WRITE DELAY ${write_delay} MILLIS;
+
+-- Rows of a result kept in memory before the rest is spilled to disk, e.g. when a page of ids read on startup or the
+-- most viewed entries read to warm the look up cache up are larger than that.
+SET DATABASE DEFAULT RESULT MEMORY ROWS ${result_memory_rows};
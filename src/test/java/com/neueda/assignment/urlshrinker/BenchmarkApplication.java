@@ -0,0 +1,42 @@
+package com.neueda.assignment.urlshrinker;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Starts the application for the JMH benchmarks which go through the Spring beans. The {@code test} profile is always
+ * active, so the in memory database is used, and logging is reduced to warnings, so the console output of the
+ * benchmarked code does not bias nor flood the results.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() { }
+
+    /**
+     * Starts the application with the {@code test} profile plus the received ones. The {@code mapped} store keeps its
+     * log in a new temporary folder, so every trial starts empty.
+     *
+     * @param profiles  Additional profiles to activate.
+     *
+     * @return Running application context, to be closed by the benchmark tear down.
+     *
+     * @throws IOException When the temporary folder of the {@code mapped} store cannot be created.
+     */
+    public static ConfigurableApplicationContext start(String... profiles) throws IOException {
+        return new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.SERVLET)
+            .profiles("test")
+            .profiles(profiles)
+            .properties(
+                "server.port=0",
+                "logging.level.root=WARN",
+                "application.mapped-store.directory=" + Files.createTempDirectory("mapped-store-benchmark")
+            )
+            .run();
+    }
+
+}
@@ -2,6 +2,8 @@ package com.neueda.assignment.urlshrinker;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryIdAllocator;
 import com.neueda.assignment.urlshrinker.repository.URLEntryRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +20,8 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.Date;
+
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
 @Slf4j
@@ -35,6 +39,9 @@ public class StandardIT {
     @Autowired
     protected URLEntryRepository urlEntryRepository;
 
+    @Autowired
+    protected URLEntryIdAllocator urlEntryIdAllocator;
+
     protected MockMvc mockMvc;
 
     @BeforeEach
@@ -60,6 +67,10 @@ public class StandardIT {
         return this.mockMvc.perform(requestBuilder).andDo(print());
     }
 
+    public URLEntry saveURLEntry(String urlAddress) {
+        return this.urlEntryRepository.save(new URLEntry(this.urlEntryIdAllocator.next(), urlAddress, new Date()));
+    }
+
     public String toJson(Object payload) throws JsonProcessingException {
         return this.objectMapper.writeValueAsString(payload);
     }
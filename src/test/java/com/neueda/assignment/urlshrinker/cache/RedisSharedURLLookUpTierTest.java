@@ -0,0 +1,100 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisSharedURLLookUpTierTest {
+
+    private static final String KEY = "urlshrinker:url-look-up:fkAlias";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final SharedURLLookUpTierProperties properties = new SharedURLLookUpTierProperties();
+
+    private RedisSharedURLLookUpTier sharedTier;
+
+    @BeforeEach
+    void setUp() {
+        this.properties.setLoadLockTimeout(Duration.ofMillis(50));
+        this.properties.setLoadPollInterval(Duration.ofMillis(1));
+        lenient().doReturn(this.valueOperations).when(this.redisTemplate).opsForValue();
+        this.sharedTier = new RedisSharedURLLookUpTier(this.redisTemplate, this.listenerContainer, this.properties);
+    }
+
+    @Test
+    @DisplayName("Given redirects with and without policy, then they are decoded back unchanged.")
+    void decode_withEncodedRedirects_returnsTheSameRedirects() {
+        URLRedirect permanent = new URLRedirect("https://www.google.com/a:b", RedirectPolicy.PERMANENT);
+        URLRedirect byDefault = new URLRedirect("https://www.google.com/a:b", null);
+
+        assertThat(RedisSharedURLLookUpTier.decode(RedisSharedURLLookUpTier.encode(permanent))).isEqualTo(permanent);
+        assertThat(RedisSharedURLLookUpTier.decode(RedisSharedURLLookUpTier.encode(byDefault))).isEqualTo(byDefault);
+        assertThat(RedisSharedURLLookUpTier.encode(byDefault)).isEqualTo(":https://www.google.com/a:b");
+    }
+
+    @Test
+    @DisplayName("Given the lock of a cold alias is acquired, then the alias is loaded and cached with the configured TTL.")
+    void load_withLockAcquired_loadsAndCachesTheAlias() {
+        doReturn(true).when(this.valueOperations).setIfAbsent(eq(KEY.replace("fkAlias", "lock:fkAlias")), anyString(),
+            eq(this.properties.getLoadLockTimeout()));
+
+        URLRedirect result = this.sharedTier.load("fkAlias", alias -> new URLRedirect("https://www.google.com", null));
+
+        assertThat(result).isEqualTo(new URLRedirect("https://www.google.com", null));
+        verify(this.valueOperations).set(KEY, ":https://www.google.com", this.properties.getTtl());
+    }
+
+    @Test
+    @DisplayName("Given another node loads the alias, then its redirect is awaited instead of loading it again.")
+    void load_withLockHeldByAnotherNode_waitsForTheRedirect() {
+        doReturn(null, ":https://www.google.com").when(this.valueOperations).get(KEY);
+        doReturn(false).when(this.valueOperations).setIfAbsent(anyString(), anyString(), any(Duration.class));
+
+        URLRedirect result = this.sharedTier.load("fkAlias", alias -> {
+            throw new AssertionError("The alias must not be loaded twice.");
+        });
+
+        assertThat(result).isEqualTo(new URLRedirect("https://www.google.com", null));
+    }
+
+    @Test
+    @DisplayName("Given Redis is unavailable, then the alias is loaded without the shared tier.")
+    void load_withRedisUnavailable_loadsTheAlias() {
+        doThrow(new RedisConnectionFailureException("Down.")).when(this.valueOperations).get(KEY);
+
+        URLRedirect result = this.sharedTier.load("fkAlias", alias -> new URLRedirect("https://www.google.com", null));
+
+        assertThat(result).isEqualTo(new URLRedirect("https://www.google.com", null));
+        assertThat(this.sharedTier.get("fkAlias")).isNull();
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", Duration.ofMillis(100),
+        key -> new IllegalStateException("Timed out loading " + key), this.meterRegistry);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        this.release.countDown();
+        this.executor.shutdownNow();
+    }
+
+    private Future<String> loadInBackground(String key) throws InterruptedException {
+        Future<String> load = this.executor.submit(() -> this.singleFlight.execute(key, k -> {
+            this.loading.countDown();
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return k.toUpperCase();
+        }));
+        assertThat(this.loading.await(5, TimeUnit.SECONDS)).isTrue();
+        return load;
+    }
+
+    @Test
+    @DisplayName("Given a load of the key is in progress, then the caller waits for its result instead of loading the key.")
+    void execute_withLoadInProgress_returnsItsResult() throws Exception {
+        Future<String> load = loadInBackground("key");
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> waiter = this.executor.submit(() ->
+            this.singleFlight.execute("key", k -> "loaded again " + loads.incrementAndGet()));
+        while (this.meterRegistry.get("test.coalesced.waiting").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+        this.release.countDown();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("KEY");
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("KEY");
+        assertThat(loads).hasValue(0);
+        assertThat(this.meterRegistry.get("test.coalesced").timer().count()).isOne();
+    }
+
+    @Test
+    @DisplayName("Given the load in progress takes longer than the timeout, then the caller gives up with the timeout exception.")
+    void execute_withSlowLoadInProgress_throwsTimeoutException() throws Exception {
+        loadInBackground("key");
+
+        assertThatThrownBy(() -> this.singleFlight.execute("key", String::toUpperCase))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Timed out loading key");
+        assertThat(this.meterRegistry.get("test.coalesced.timeouts").counter().count()).isOne();
+        assertThat(this.meterRegistry.get("test.coalesced.waiting").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a load of another key is in progress, then the caller loads its key without waiting.")
+    void execute_withLoadOfAnotherKeyInProgress_loadsTheKey() throws Exception {
+        loadInBackground("key");
+
+        assertThat(this.singleFlight.execute("other", String::toUpperCase)).isEqualTo("OTHER");
+        assertThat(this.meterRegistry.get("test.coalesced").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given a load failed, then the next caller loads the key again.")
+    void execute_afterFailedLoad_loadsTheKeyAgain() {
+        assertThatThrownBy(() -> this.singleFlight.execute("key", k -> {
+            throw new IllegalArgumentException("Failed.");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(this.singleFlight.execute("key", String::toUpperCase)).isEqualTo("KEY");
+    }
+
+}
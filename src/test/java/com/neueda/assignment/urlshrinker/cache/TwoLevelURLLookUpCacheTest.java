@@ -0,0 +1,154 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Plays two nodes of a cluster with two {@link TwoLevelURLLookUpCache}s sharing an {@link InProcessSharedURLLookUpTier}.
+ */
+class TwoLevelURLLookUpCacheTest {
+
+    private static final String ALIAS = "fkAlias";
+
+    private static final URLRedirect REDIRECT = new URLRedirect("https://www.google.com", null);
+
+    private final SharedURLLookUpTier sharedTier = new InProcessSharedURLLookUpTier(Duration.ofMinutes(1));
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private TwoLevelURLLookUpCache firstNode;
+
+    private TwoLevelURLLookUpCache secondNode;
+
+    @BeforeEach
+    void setUp() {
+        this.firstNode = newNode();
+        this.secondNode = newNode();
+    }
+
+    private TwoLevelURLLookUpCache newNode() {
+        CaffeineCache nearCache = new CaffeineCache(CacheConfiguration.URL_LOOK_UP, Caffeine.newBuilder().build(), false);
+        return new TwoLevelURLLookUpCache(nearCache, this.sharedTier, this.events::add);
+    }
+
+    private URLRedirect load() {
+        this.loads.incrementAndGet();
+        return REDIRECT;
+    }
+
+    @Test
+    @DisplayName("Given an alias was loaded by a node, then the other node reads it from the shared tier without loading it.")
+    void get_withAliasLoadedByAnotherNode_readsTheSharedTier() {
+        this.firstNode.get(ALIAS, this::load);
+
+        assertThat(this.secondNode.get(ALIAS, this::load)).isEqualTo(REDIRECT);
+        assertThat(this.secondNode.get(ALIAS)).extracting(Cache.ValueWrapper::get).isEqualTo(REDIRECT);
+        assertThat(this.loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given both nodes miss a cold alias at once, then it is loaded only once.")
+    void get_withConcurrentMissesOnBothNodes_loadsOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<URLRedirect>> results = new CopyOnWriteArrayList<>();
+            for (TwoLevelURLLookUpCache node : List.of(this.firstNode, this.secondNode, this.firstNode, this.secondNode)) {
+                results.add(executor.submit(() -> node.get(ALIAS, () -> {
+                    loading.countDown();
+                    release.await();
+                    return load();
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<URLRedirect> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(REDIRECT);
+            }
+            assertThat(this.loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given the load of an alias fails, then the failure is propagated as a value retrieval exception and nothing is cached.")
+    void get_withFailingLoad_propagatesTheFailure() {
+        URLNotFoundException notFound = new URLNotFoundException("Not found.");
+
+        assertThatThrownBy(() -> this.firstNode.get(ALIAS, () -> {
+            throw notFound;
+        })).isInstanceOf(Cache.ValueRetrievalException.class).hasCause(notFound);
+        assertThat(this.sharedTier.get(ALIAS)).isNull();
+        assertThat(this.firstNode.get(ALIAS)).isNull();
+    }
+
+    @Test
+    @DisplayName("Given an alias is evicted by a node, then every node drops it and an invalidation event is published on each.")
+    void evict_withAliasCachedByBothNodes_invalidatesEveryNode() {
+        this.firstNode.get(ALIAS, this::load);
+        this.secondNode.get(ALIAS, this::load);
+
+        this.firstNode.evict(ALIAS);
+
+        assertThat(this.sharedTier.get(ALIAS)).isNull();
+        assertThat(this.secondNode.get(ALIAS)).isNull();
+        assertThat(this.events).containsExactly(new URLLookUpInvalidatedEvent(ALIAS), new URLLookUpInvalidatedEvent(ALIAS));
+    }
+
+    @Test
+    @DisplayName("Given an alias is updated by a node, then the other node reads the new redirect.")
+    void put_withAliasCachedByAnotherNode_replacesItsRedirect() {
+        this.secondNode.get(ALIAS, this::load);
+        URLRedirect updatedRedirect = new URLRedirect("https://www.google.com/maps", null);
+
+        this.firstNode.put(ALIAS, updatedRedirect);
+
+        assertThat(this.secondNode.get(ALIAS)).extracting(Cache.ValueWrapper::get).isEqualTo(updatedRedirect);
+    }
+
+    @Test
+    @DisplayName("Given the cache is cleared by a node, then every node drops every alias.")
+    void clear_withAliasesCachedByBothNodes_invalidatesEveryAlias() {
+        this.secondNode.get(ALIAS, this::load);
+
+        this.firstNode.clear();
+
+        assertThat(this.secondNode.get(ALIAS)).isNull();
+        assertThat(this.events).contains(new URLLookUpInvalidatedEvent(null));
+    }
+
+    @Test
+    @DisplayName("Given a two level cache, then its near cache is resolved as its in-process part.")
+    void nearCacheOf_withTwoLevelCache_returnsTheNearCache() {
+        CaffeineCache caffeineCache = new CaffeineCache(CacheConfiguration.URL_LOOK_UP, Caffeine.newBuilder().build());
+
+        assertThat(TwoLevelURLLookUpCache.nearCacheOf(this.firstNode)).isInstanceOf(CaffeineCache.class);
+        assertThat(TwoLevelURLLookUpCache.nearCacheOf(caffeineCache)).isSameAs(caffeineCache);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.repository.URLEntryIdAllocator;
+import com.neueda.assignment.urlshrinker.repository.URLEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+
+@ExtendWith(MockitoExtension.class)
+class URLEntryIdFilterTest {
+
+    private static final int LOAD_PAGE_SIZE = 2;
+
+    @Mock
+    private URLEntryRepository urlEntryRepository;
+
+    @Mock
+    private URLEntryIdAllocator urlEntryIdAllocator;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private URLEntryIdFilter urlEntryIdFilter;
+
+    @BeforeEach
+    public void setUp() {
+        URLEntryIdFilterProperties properties = new URLEntryIdFilterProperties();
+        properties.setExpectedInsertions(1_000);
+        properties.setLookAhead(100);
+        properties.setLoadPageSize(LOAD_PAGE_SIZE);
+        this.urlEntryIdFilter = new URLEntryIdFilter(this.urlEntryRepository, this.urlEntryIdAllocator, properties,
+            this.meterRegistry);
+    }
+
+    /**
+     * Loads the filter with the received ids, ascending, answered by the repository in pages of
+     * {@link #LOAD_PAGE_SIZE} ids.
+     */
+    private void loadIds(Long... ids) {
+        doReturn((long) ids.length).when(this.urlEntryRepository).count();
+        long afterId = 0L;
+        for (int from = 0; from <= ids.length; from += LOAD_PAGE_SIZE) {
+            List<Long> page = List.of(ids).subList(from, Math.min(from + LOAD_PAGE_SIZE, ids.length));
+            doReturn(page).when(this.urlEntryRepository).findIdsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            afterId = page.isEmpty() ? afterId : page.get(page.size() - 1);
+        }
+        this.urlEntryIdFilter.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Given the filter is not loaded yet, then no id is known to be missing.")
+    void isKnownMissing_beforeLoaded_returnsFalse() {
+        assertThat(this.urlEntryIdFilter.isKnownMissing(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given the filter is loaded, then ids loaded are not missing and ids never issued up to the highest loaded id are.")
+    void isKnownMissing_withLoadedIds_returnsTrueOnlyForIdsNeverIssued() {
+        loadIds(1L, 2L, 5L);
+
+        assertThat(this.urlEntryIdFilter.isKnownMissing(1L)).isFalse();
+        assertThat(this.urlEntryIdFilter.isKnownMissing(5L)).isFalse();
+        assertThat(this.urlEntryIdFilter.isKnownMissing(3L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Given an id above the highest loaded id, then it is missing only when beyond the look ahead or registered as missing.")
+    void isKnownMissing_withIdAboveHighestLoadedId_returnsTrueWhenBeyondLookAheadOrRegisteredAsMissing() {
+        loadIds(1L, 2L, 5L);
+
+        assertThat(this.urlEntryIdFilter.isKnownMissing(50L)).isFalse();
+        assertThat(this.urlEntryIdFilter.isKnownMissing(106L)).isTrue();
+
+        this.urlEntryIdFilter.registerMissing(50L);
+        assertThat(this.urlEntryIdFilter.isKnownMissing(50L)).isTrue();
+
+        this.urlEntryIdFilter.registerExisting(50L);
+        assertThat(this.urlEntryIdFilter.isKnownMissing(50L)).isFalse();
+        assertThat(this.urlEntryIdFilter.isKnownMissing(150L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given the highest id is refreshed, then the ids issued by other nodes are no longer beyond the look ahead.")
+    void refreshHighestKnownId_withHigherIdLeased_raisesTheLookAheadBound() {
+        loadIds(1L);
+        doReturn(Optional.of(500L)).when(this.urlEntryIdAllocator).findHighestLeasedId();
+
+        this.urlEntryIdFilter.refreshHighestKnownId();
+
+        assertThat(this.urlEntryIdFilter.isKnownMissing(550L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given other nodes may still issue ids from an open lease, then ids from that lease on are looked up in the database.")
+    void isKnownMissing_withOpenLease_returnsFalseForIdsFromTheLeaseOn() {
+        doReturn(Optional.of(3L)).when(this.urlEntryIdAllocator).findLowestOpenLeasedId();
+        loadIds(1L, 2L, 5L);
+
+        assertThat(this.urlEntryIdFilter.isKnownMissing(4L)).isFalse();
+        assertThat(this.urlEntryIdFilter.isKnownMissing(2L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Given the filter is loaded, then its memory footprint is published as a metric.")
+    void byteSize_afterLoaded_isPublishedAsMetric() {
+        loadIds(1L);
+
+        assertThat(this.meterRegistry.get("url.id.filter.memory").gauge().value())
+            .isEqualTo((double) this.urlEntryIdFilter.byteSize())
+            .isPositive();
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class URLLookUpSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Given entries spanning several segments, then reading the file back yields every entry unchanged.")
+    void read_withEntriesSpanningSeveralSegments_returnsEveryEntry() throws IOException {
+        List<Map.Entry<String, URLRedirect>> entries = new ArrayList<>();
+        for (int index = 0; index < URLLookUpSnapshotFile.SEGMENT_ENTRIES * 2 + 1; index++) {
+            RedirectPolicy redirectPolicy = index % 3 == 0 ? null : RedirectPolicy.values()[index % 2];
+            entries.add(new AbstractMap.SimpleImmutableEntry<>("a" + index,
+                new URLRedirect("https://www.example.com/\u00e7/" + index, redirectPolicy)));
+        }
+        Path path = this.directory.resolve("nested/url-look-up.snapshot");
+
+        URLLookUpSnapshotFile.write(path, entries);
+        Map<String, URLRedirect> result = new ConcurrentHashMap<>();
+        int count = URLLookUpSnapshotFile.read(path, 4, result::put);
+
+        assertThat(count).isEqualTo(entries.size());
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.ofEntries(entries.toArray(Map.Entry[]::new)));
+        assertThat(path.resolveSibling("url-look-up.snapshot.tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Given a file that is not a snapshot, then reading it fails with an IOException.")
+    void read_withUnknownFile_throwsIOException() throws IOException {
+        Path path = Files.write(this.directory.resolve("url-look-up.snapshot"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> URLLookUpSnapshotFile.read(path, 1, (alias, redirect) -> { }))
+            .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Given a truncated snapshot, then reading it fails with an IOException.")
+    void read_withTruncatedFile_throwsIOException() throws IOException {
+        Path path = this.directory.resolve("url-look-up.snapshot");
+        URLLookUpSnapshotFile.write(path, List.of(
+            new AbstractMap.SimpleImmutableEntry<>("a", new URLRedirect("https://www.example.com", null))));
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 4));
+
+        assertThatThrownBy(() -> URLLookUpSnapshotFile.read(path, 1, (alias, redirect) -> { }))
+            .isInstanceOf(IOException.class);
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.fixture.URLEntryFixture;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryRepository;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class URLLookUpSnapshotTest {
+
+    @Mock
+    private URLEntryRepository urlEntryRepository;
+
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Cache<Object, Object> urlLookUpCache = Caffeine.newBuilder().maximumSize(100).build();
+
+    private URLLookUpSnapshotProperties properties;
+
+    private URLLookUpSnapshot urlLookUpSnapshot;
+
+    @BeforeEach
+    public void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(CacheConfiguration.URL_LOOK_UP, this.urlLookUpCache)));
+        cacheManager.initializeCaches();
+
+        this.properties = new URLLookUpSnapshotProperties();
+        this.properties.setPath(this.directory.resolve("url-look-up.snapshot"));
+        this.properties.setMaximumEntries(2);
+        this.properties.setLoadThreads(2);
+        this.urlLookUpSnapshot = new URLLookUpSnapshot(cacheManager, this.urlEntryRepository, this.properties,
+            this.meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Given a snapshot was taken, then the cache is warmed up from it without querying the database.")
+    void afterSingletonsInstantiated_withSnapshot_warmsUpFromSnapshot() {
+        URLRedirect redirect = new URLRedirect("https://www.google.com", RedirectPolicy.PERMANENT);
+        this.urlLookUpCache.put("a", redirect);
+        this.urlLookUpSnapshot.snapshot();
+        this.urlLookUpCache.invalidateAll();
+
+        this.urlLookUpSnapshot.afterSingletonsInstantiated();
+
+        assertThat(this.urlLookUpCache.getIfPresent("a")).isEqualTo(redirect);
+        assertThat(this.meterRegistry.get("url.lookup.warm.up").tag("source", "snapshot").timer().count())
+            .isEqualTo(1L);
+        verifyNoInteractions(this.urlEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Given there is no snapshot, then the cache is warmed up with the most viewed entries of the database.")
+    void afterSingletonsInstantiated_withoutSnapshot_warmsUpFromDatabase() {
+        URLEntry urlEntry = URLEntryFixture.getGoogleHomeEntry();
+        doReturn(List.of(urlEntry)).when(this.urlEntryRepository).findMostViewed(any(Pageable.class));
+
+        this.urlLookUpSnapshot.afterSingletonsInstantiated();
+
+        assertThat(this.urlLookUpCache.getIfPresent(Base62.encode(urlEntry.getId())))
+            .isEqualTo(new URLRedirect(urlEntry.getUrlAddress(), null));
+        assertThat(this.meterRegistry.get("url.lookup.warm.up").tag("source", "database").timer().count())
+            .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Given a corrupted snapshot, then the cache is warmed up from the database instead.")
+    void afterSingletonsInstantiated_withCorruptedSnapshot_warmsUpFromDatabase() throws IOException {
+        Files.write(this.properties.getPath(), new byte[]{0, 1, 2});
+        doReturn(List.of()).when(this.urlEntryRepository).findMostViewed(any(Pageable.class));
+
+        this.urlLookUpSnapshot.afterSingletonsInstantiated();
+
+        assertThat(this.meterRegistry.get("url.lookup.warm.up").tag("source", "database").timer().count())
+            .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Given the snapshot is disabled, then the cache is neither warmed up nor snapshotted.")
+    void afterSingletonsInstantiated_whenDisabled_doesNothing() {
+        this.properties.setEnabled(false);
+        this.urlLookUpCache.put("a", new URLRedirect("https://www.google.com", null));
+
+        this.urlLookUpSnapshot.afterSingletonsInstantiated();
+        this.urlLookUpSnapshot.destroy();
+
+        assertThat(this.properties.getPath()).doesNotExist();
+        verifyNoInteractions(this.urlEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Given more entries than the maximum, then only the maximum number of entries is snapshotted.")
+    void snapshot_withMoreEntriesThanMaximum_writesOnlyTheMaximum() throws IOException {
+        for (int index = 0; index < 5; index++) {
+            this.urlLookUpCache.put("a" + index, new URLRedirect("https://www.google.com/" + index, null));
+        }
+
+        this.urlLookUpSnapshot.destroy();
+
+        Map<String, URLRedirect> snapshot = new HashMap<>();
+        assertThat(URLLookUpSnapshotFile.read(this.properties.getPath(), 1, snapshot::put)).isEqualTo(2);
+        assertThat(snapshot).hasSize(2);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.neueda.assignment.urlshrinker.cache;
+
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class URLLookUpWeigherTest {
+
+    private final URLLookUpWeigher weigher = new URLLookUpWeigher();
+
+    @Test
+    @DisplayName("Given I weigh an alias and its URL address, then the weight accounts for the length of both plus the fixed overheads.")
+    void weigh_withAliasAndURLAddress_returnsLengthOfBothPlusOverheads() {
+        int result = this.weigher.weigh("fkAlias", "https://www.google.com");
+
+        assertThat(result).isEqualTo(URLLookUpWeigher.ENTRY_OVERHEAD + 2 * URLLookUpWeigher.STRING_OVERHEAD
+            + "fkAlias".length() + "https://www.google.com".length());
+    }
+
+    @Test
+    @DisplayName("Given I weigh two entries, then the one with the longer URL address is heavier.")
+    void weigh_withLongerURLAddress_returnsGreaterWeight() {
+        int shortEntry = this.weigher.weigh("fkAlias", "https://www.google.com");
+        int longEntry = this.weigher.weigh("fkAlias", "https://www.google.com?q=Java");
+
+        assertThat(longEntry).isGreaterThan(shortEntry);
+    }
+
+    @Test
+    @DisplayName("Given I weigh an alias and its redirect, then the weight accounts for the URL address of the redirect.")
+    void weigh_withAliasAndRedirect_returnsLengthOfAliasAndURLAddressPlusOverheads() {
+        int result = this.weigher.weigh("fkAlias", new URLRedirect("https://www.google.com", RedirectPolicy.PERMANENT));
+
+        assertThat(result).isEqualTo(URLLookUpWeigher.ENTRY_OVERHEAD + URLLookUpWeigher.REDIRECT_OVERHEAD
+            + 2 * URLLookUpWeigher.STRING_OVERHEAD + "fkAlias".length() + "https://www.google.com".length());
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpCacheProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigurationTest {
+
+    @Test
+    @DisplayName("Given the URL look up cache is full, then the weight of its entries never exceeds the configured maximum weight.")
+    void buildURLLookUpCache_withMoreEntriesThanTheMaximumWeight_evictsEntries() {
+        URLLookUpCacheProperties properties = new URLLookUpCacheProperties();
+        properties.setMaximumWeight(DataSize.ofKilobytes(16));
+        Cache<Object, Object> cache = CacheConfiguration.buildURLLookUpCache(properties).executor(Runnable::run).build();
+
+        for (int index = 0; index < 1000; index++) {
+            cache.put("alias" + index, "https://www.google.com?q=" + index);
+        }
+        cache.cleanUp();
+
+        long totalWeight = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(totalWeight).isLessThanOrEqualTo(DataSize.ofKilobytes(16).toBytes());
+        assertThat(cache.stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Given an expiration is configured, then the URL look up cache expires its entries after write.")
+    void buildURLLookUpCache_withExpireAfterWrite_expiresEntries() {
+        URLLookUpCacheProperties properties = new URLLookUpCacheProperties();
+        properties.setExpireAfterWrite(Duration.ofMinutes(5));
+        Cache<Object, Object> cache = CacheConfiguration.buildURLLookUpCache(properties).build();
+
+        assertThat(cache.policy().expireAfterWrite()).isPresent()
+            .hasValueSatisfying(expiration -> assertThat(expiration.getExpiresAfter()).isEqualTo(Duration.ofMinutes(5)));
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class DataSourceConfigurationTest {
+
+    private final DataSourceConfiguration configuration = new DataSourceConfiguration();
+
+    private DataSource writeDataSource;
+
+    private DataSource readDataSource;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        this.writeDataSource = mockDataSource();
+        this.readDataSource = mockDataSource();
+        this.dataSource = this.configuration.dataSource(this.writeDataSource, this.readDataSource);
+        // The connection defaults are read from the write pool on creation.
+        clearInvocations(this.writeDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Given a statement runs in a read-only transaction, then its connection is taken from the read pool.")
+    void dataSource_withinReadOnlyTransaction_routesToTheReadPool() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection()) {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(this.readDataSource).getConnection();
+        verifyNoInteractions(this.writeDataSource);
+    }
+
+    @Test
+    @DisplayName("Given a statement runs outside of read-only transactions, then its connection is taken from the write pool.")
+    void dataSource_outsideReadOnlyTransaction_routesToTheWritePool() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        verify(this.writeDataSource).getConnection();
+        verifyNoInteractions(this.readDataSource);
+    }
+
+    private static DataSource mockDataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        doReturn(mock(Connection.class)).when(dataSource).getConnection();
+        return dataSource;
+    }
+
+}
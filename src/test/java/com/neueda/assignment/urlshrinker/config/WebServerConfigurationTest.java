@@ -0,0 +1,56 @@
+package com.neueda.assignment.urlshrinker.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class WebServerConfigurationTest {
+
+    private final WebServerConfiguration configuration = new WebServerConfiguration();
+
+    @Test
+    @DisplayName("Given virtual threads are enabled, then Tomcat runs every request on a virtual thread.")
+    void virtualThreadsProtocolHandlerCustomizer_withVirtualThreadsEnabled_setsVirtualThreadExecutor() throws Exception {
+        VirtualThreadsProperties properties = new VirtualThreadsProperties();
+        properties.setEnabled(true);
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+        configuration.virtualThreadsProtocolHandlerCustomizer(properties).customize(protocolHandler);
+
+        ArgumentCaptor<Executor> executor = ArgumentCaptor.forClass(Executor.class);
+        verify(protocolHandler).setExecutor(executor.capture());
+        AtomicBoolean virtual = new AtomicBoolean();
+        CountDownLatch executed = new CountDownLatch(1);
+        executor.getValue().execute(() -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            executed.countDown();
+        });
+        assertThat(executed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(virtual).isTrue();
+        ((ExecutorService) executor.getValue()).shutdown();
+    }
+
+    @Test
+    @DisplayName("Given virtual threads are disabled, then Tomcat keeps its platform thread pool.")
+    void virtualThreadsProtocolHandlerCustomizer_withVirtualThreadsDisabled_keepsExecutor() {
+        ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+
+        configuration.virtualThreadsProtocolHandlerCustomizer(new VirtualThreadsProperties()).customize(protocolHandler);
+
+        verify(protocolHandler, never()).setExecutor(any());
+    }
+
+}
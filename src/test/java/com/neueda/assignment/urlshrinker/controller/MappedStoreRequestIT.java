@@ -0,0 +1,44 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("integration")
+@ActiveProfiles({"test", "mapped"})
+@TestPropertySource(properties = "application.mapped-store.directory=target/mapped-store-it")
+@DisplayName("Given the application runs with the memory-mapped store...")
+class MappedStoreRequestIT extends StandardIT {
+
+    @Test
+    @DisplayName("when I shorten an URL, then its alias redirects to it.")
+    void withShortenedURL_redirectsToIt() throws Exception {
+        String urlAlias = this.objectMapper.readTree(
+            performPost("/api/v1/url_entry", new ShortenURLRequest("https://www.neueda.com"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()
+        ).get("urlAlias").asText();
+
+        performGet(urlAlias.substring(urlAlias.lastIndexOf('/')))
+            .andExpect(status().isFound())
+            .andExpect(header().string("Location", is("https://www.neueda.com")));
+    }
+
+    @Test
+    @DisplayName("when I request an unknown alias, then I receive a not found response.")
+    void withUnknownAlias_respondsWithNotFound() throws Exception {
+        performGet("/{urlAlias}", "iiiiiiii")
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").value(is("No URL found for the short version 'iiiiiiii'.")));
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("integration")
+@AutoConfigureMetrics
+@DisplayName("Given I scrape the Prometheus endpoint...")
+class PrometheusRequestIT extends StandardIT {
+
+    @Test
+    @DisplayName("after redirections, then I receive the redirect histograms, the look up cache statistics and the connection pool metrics.")
+    void afterRedirections_respondsWithRedirectHistogramsAndCacheStatistics() throws Exception {
+        URLEntry urlEntry = saveURLEntry("https://www.google.com");
+        performGet("/{urlAlias}", Base62.encode(urlEntry.getId())).andExpect(status().isFound());
+        performGet("/{urlAlias}", Base62.encode(urlEntry.getId())).andExpect(status().isFound());
+        performGet("/{urlAlias}", "a1b2c3d4").andExpect(status().isNotFound());
+
+        performGet("/actuator/prometheus")
+            .andExpect(status().isOk())
+            .andExpect(content().string(allOf(
+                containsString("url_redirect_seconds_bucket{le="),
+                containsString("url_lookup_load_seconds_bucket{le="),
+                containsString("url_redirect_not_found_total"),
+                containsString("cache_gets_total{cache=\"urlLookUp\""),
+                containsString("cache_evictions_total{cache=\"urlLookUp\""),
+                containsString("hikaricp_connections_active{pool=\"id-allocation\""),
+                containsString("hikaricp_connections_active{pool=\"read\""),
+                containsString("hikaricp_connections_active{pool=\"write\"")
+            )));
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.neueda.assignment.urlshrinker.BenchmarkApplication;
+import com.neueda.assignment.urlshrinker.controller.fastpath.RedirectFastPathFilter;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Measures the whole MVC dispatch of {@link URLEntryController#redirectTo(String)} through {@link MockMvc}, from the
+ * servlet filters down to the service, for known and unknown aliases. The {@code Load} variants run the same requests
+ * from 16 threads at once, exposing the contention on the shared paths (cache, view counter, id filter). With
+ * {@code fastPath} set, the {@link RedirectFastPathFilter} answers known aliases ahead of the MVC dispatch; running
+ * with {@code -prof gc} shows the bytes allocated per redirection ({@code gc.alloc.rate.norm}) of both paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedirectToBenchmark {
+
+    private static final int SEEDED_URLS = 10_000;
+
+    private static final int LOAD_THREADS = 16;
+
+    @Param({ "false", "true" })
+    public boolean fastPath;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private MockMvc mockMvc;
+
+    private String[] urlAliases;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.applicationContext = BenchmarkApplication.start();
+        DefaultMockMvcBuilder mockMvcBuilder =
+            MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.applicationContext);
+        if (this.fastPath) {
+            mockMvcBuilder.addFilters(this.applicationContext.getBean(RedirectFastPathFilter.class));
+        }
+        this.mockMvc = mockMvcBuilder.build();
+
+        URLEntryService urlEntryService = this.applicationContext.getBean(URLEntryService.class);
+        this.urlAliases = new String[SEEDED_URLS];
+        for (int index = 0; index < SEEDED_URLS; index++) {
+            this.urlAliases[index] = urlEntryService.shortUrl("https://www.catalogue.example.com/products/" + index);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public MvcResult redirectTo() throws Exception {
+        return redirect(this.urlAliases[ThreadLocalRandom.current().nextInt(SEEDED_URLS)]);
+    }
+
+    @Benchmark
+    public MvcResult redirectToUnknownAlias() throws Exception {
+        return redirect("iiiiiiii");
+    }
+
+    @Benchmark
+    @Threads(LOAD_THREADS)
+    public MvcResult redirectToLoad() throws Exception {
+        return redirectTo();
+    }
+
+    @Benchmark
+    @Threads(LOAD_THREADS)
+    public MvcResult redirectToUnknownAliasLoad() throws Exception {
+        return redirectToUnknownAlias();
+    }
+
+    private MvcResult redirect(String urlAlias) throws Exception {
+        return this.mockMvc.perform(get("/{urlAlias}", urlAlias)).andReturn();
+    }
+
+}
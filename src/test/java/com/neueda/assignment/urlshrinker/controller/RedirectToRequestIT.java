@@ -1,17 +1,23 @@
 package com.neueda.assignment.urlshrinker.controller;
 
 import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.controller.fastpath.RedirectFastPathFilter;
 import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
 import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
-import java.util.Date;
-
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -20,6 +26,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DisplayName("Given I request to be redirected to the original URL...")
 class RedirectToRequestIT extends StandardIT {
 
+    @Autowired
+    private RedirectFastPathFilter redirectFastPathFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @DisplayName("when the used alias does not exists, then I receive NOT_FOUND as response.")
     void withNonExistingAlias_respondsWithNotFound() throws Exception {
@@ -31,8 +43,7 @@ class RedirectToRequestIT extends StandardIT {
     @Test
     @DisplayName("when the used alias exists, then I receive a FOUND response with Location header.")
     void withExistingAlias_respondsWithFound() throws Exception {
-        URLEntry urlEntry = new URLEntry("https://www.google.com", new Date());
-        urlEntry = urlEntryRepository.save(urlEntry);
+        URLEntry urlEntry = saveURLEntry("https://www.google.com");
         String urlAlias = Base62.encode(urlEntry.getId());
 
         ResultActions result = performGet("/{urlAlias}", urlAlias);
@@ -42,4 +53,44 @@ class RedirectToRequestIT extends StandardIT {
 
     }
 
+    @Test
+    @DisplayName("when the used alias redirects permanently, then I receive a cacheable MOVED_PERMANENTLY response, and NOT_MODIFIED when I revalidate it.")
+    void withPermanentAlias_respondsWithCacheableMovedPermanently() throws Exception {
+        URLEntry urlEntry = saveURLEntry("https://www.google.com/permanent");
+        urlEntry.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        this.urlEntryRepository.save(urlEntry);
+        String urlAlias = Base62.encode(urlEntry.getId());
+        String eTag = "\"" + urlAlias + "-301\"";
+
+        performGet("/{urlAlias}", urlAlias)
+            .andExpect(status().isMovedPermanently())
+            .andExpect(header().string("Location", urlEntry.getUrlAddress()))
+            .andExpect(header().string("Cache-Control", "public, max-age=31536000"))
+            .andExpect(header().string("ETag", eTag));
+        this.mockMvc.perform(get("/{urlAlias}", urlAlias).header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().doesNotExist("Location"));
+    }
+
+    @Test
+    @DisplayName("when the used alias was already redirected, then I receive the same FOUND response from the fast path.")
+    void withAliasRedirectedBefore_respondsWithFoundFromFastPath() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(this.webApplicationContext)
+            .addFilters(this.redirectFastPathFilter)
+            .build();
+        URLEntry urlEntry = saveURLEntry("https://www.google.com/search?q=fast+path");
+        String urlAlias = Base62.encode(urlEntry.getId());
+        double fastPathRedirects = this.meterRegistry.get("url.redirect.fast.path").counter().count();
+
+        mockMvc.perform(get("/{urlAlias}", urlAlias))
+            .andExpect(status().isFound())
+            .andExpect(header().string("Location", urlEntry.getUrlAddress()));
+        mockMvc.perform(get("/{urlAlias}", urlAlias))
+            .andExpect(status().isFound())
+            .andExpect(header().string("Location", urlEntry.getUrlAddress()));
+
+        assertThat(this.meterRegistry.get("url.redirect.fast.path").counter().count())
+            .isEqualTo(fastPathRedirects + 1D);
+    }
+
 }
@@ -0,0 +1,137 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ShortenURLBatchProcessorTest {
+
+    private static final String BASE_URL = "http://localhost:8080";
+
+    @Mock
+    private URLEntryService urlEntryService;
+
+    private ShortenURLBatchProcessor processor;
+
+    @BeforeEach
+    public void setUp() {
+        this.processor = new ShortenURLBatchProcessor(this.urlEntryService,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), 2);
+    }
+
+    private String process(String body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        this.processor.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output, BASE_URL);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Given I submit a JSON array, then each URL is answered in order, duplicates sharing their alias.")
+    void process_withJSONArray_respondsEachURLInOrder() throws IOException {
+        doReturn(Map.of("http://a.test.com", "a")).when(this.urlEntryService).shortUrls(Set.of("http://a.test.com"));
+        doReturn(Map.of("http://b.test.com", "b")).when(this.urlEntryService).shortUrls(Set.of("http://b.test.com"));
+
+        String result = process("[{\"urlAddress\":\"http://a.test.com\"},{\"urlAddress\":\"http://a.test.com\"},"
+            + "{\"urlAddress\":\"http://b.test.com\"}]");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"urlAddress\":\"http://a.test.com\",\"urlAlias\":\"http://localhost:8080/a\"}",
+            "{\"index\":1,\"urlAddress\":\"http://a.test.com\",\"urlAlias\":\"http://localhost:8080/a\"}",
+            "{\"index\":2,\"urlAddress\":\"http://b.test.com\",\"urlAlias\":\"http://localhost:8080/b\"}"
+        );
+    }
+
+    @Test
+    @DisplayName("Given I submit newline delimited JSON with invalid URLs, then only the invalid URLs are answered with errors.")
+    void process_withNDJSONAndInvalidURLs_respondsErrorsForInvalidURLsOnly() throws IOException {
+        doReturn(Map.of("http://a.test.com", "a")).when(this.urlEntryService).shortUrls(Set.of("http://a.test.com"));
+
+        String result = process("{\"urlAddress\":\"invalid url\"}\n{\"urlAddress\":\"http://a.test.com\"}\nnull\n");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"urlAddress\":\"invalid url\",\"errors\":{\"urlAddress\":\"must be a valid URL\"}}",
+            "{\"index\":1,\"urlAddress\":\"http://a.test.com\",\"urlAlias\":\"http://localhost:8080/a\"}",
+            "{\"index\":2,\"errors\":{\"message\":\"Invalid request body.\"}}"
+        );
+    }
+
+    @Test
+    @DisplayName("Given a chunk fails to be shortened, then its URLs are answered with errors and the next chunks are shortened.")
+    void process_withFailingChunk_respondsErrorsAndContinues() throws IOException {
+        doThrow(new IllegalStateException("Fake Message")).when(this.urlEntryService)
+            .shortUrls(Set.of("http://a.test.com", "http://b.test.com"));
+        doReturn(Map.of("http://c.test.com", "c")).when(this.urlEntryService).shortUrls(Set.of("http://c.test.com"));
+
+        String result = process("{\"urlAddress\":\"http://a.test.com\"}{\"urlAddress\":\"http://b.test.com\"}"
+            + "{\"urlAddress\":\"http://c.test.com\"}");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"urlAddress\":\"http://a.test.com\",\"errors\":{\"message\":\"Unable to shorten the URL, try again later.\"}}",
+            "{\"index\":1,\"urlAddress\":\"http://b.test.com\",\"errors\":{\"message\":\"Unable to shorten the URL, try again later.\"}}",
+            "{\"index\":2,\"urlAddress\":\"http://c.test.com\",\"urlAlias\":\"http://localhost:8080/c\"}"
+        );
+        verify(this.urlEntryService, times(2)).shortUrls(anySet());
+    }
+
+    @Test
+    @DisplayName("Given a chunk fails as the database is unavailable, then its URLs are answered without the details of the failure.")
+    void process_withDatabaseUnavailable_respondsFixedMessage() throws IOException {
+        doThrow(new CannotCreateTransactionException("Connection is not available, request timed out after 2000ms."))
+            .when(this.urlEntryService).shortUrls(Set.of("http://a.test.com"));
+
+        String result = process("{\"urlAddress\":\"http://a.test.com\"}");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"urlAddress\":\"http://a.test.com\",\"errors\":{\"message\":\"Database unavailable, try again later.\"}}"
+        );
+    }
+
+    @Test
+    @DisplayName("Given a chunk fails as too many URLs wait to be persisted, then its URLs are answered with the exception message.")
+    void process_withWriteBehindQueueFull_respondsExceptionMessage() throws IOException {
+        doThrow(new WriteBehindQueueFullException("Too many URLs waiting to be persisted. Try again later."))
+            .when(this.urlEntryService).shortUrls(Set.of("http://a.test.com"));
+
+        String result = process("{\"urlAddress\":\"http://a.test.com\"}");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"urlAddress\":\"http://a.test.com\",\"errors\":{\"message\":\"Too many URLs waiting to be persisted. Try again later.\"}}"
+        );
+    }
+
+    @Test
+    @DisplayName("Given I submit malformed JSON, then the malformed element is answered with an error and the batch ends.")
+    void process_withMalformedJSON_respondsErrorAndStops() throws IOException {
+        String result = process("{\"urlAddress\": invalid}\n{\"urlAddress\":\"http://a.test.com\"}");
+
+        assertThat(result.split("\n")).containsExactly(
+            "{\"index\":0,\"errors\":{\"message\":\"Invalid request body.\"}}"
+        );
+        verifyNoInteractions(this.urlEntryService);
+    }
+
+}
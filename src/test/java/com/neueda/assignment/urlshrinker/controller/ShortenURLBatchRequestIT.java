@@ -0,0 +1,67 @@
+package com.neueda.assignment.urlshrinker.controller;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("integration")
+@DisplayName("Given I submit a request to short a batch of URLs...")
+class ShortenURLBatchRequestIT extends StandardIT {
+
+    private String performBatchPost(String contentType, String body) throws Exception {
+        MvcResult asyncResult = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/url_entry/batch")
+                .contentType(contentType)
+                .content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        return this.mockMvc.perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    }
+
+    @Test
+    @DisplayName("as newline delimited JSON, then I receive one result per URL, existing and repeated URLs sharing their alias.")
+    void withNDJSON_respondsOneResultPerURL() throws Exception {
+        URLEntry existingEntry = saveURLEntry("https://www.google.com");
+        String existingAlias = "http://localhost:8080/" + Base62.encode(existingEntry.getId());
+
+        String result = performBatchPost(URLEntryController.APPLICATION_NDJSON_VALUE,
+            "{\"urlAddress\":\"https://www.google.com\"}\n"
+                + "{\"urlAddress\":\"https://www.neueda.com\"}\n"
+                + "{\"urlAddress\":\"invalid url\"}\n"
+                + "{\"urlAddress\":\"https://www.neueda.com\"}\n");
+
+        String[] lines = result.split("\n");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).contains("\"urlAlias\":\"" + existingAlias + "\"");
+        assertThat(lines[1]).matches(".*\"urlAlias\":\"http://localhost:8080/[0-9a-zA-Z]+\".*");
+        assertThat(lines[2]).contains("\"errors\":{\"urlAddress\":\"must be a valid URL\"}");
+        assertThat(lines[3].replace("\"index\":3", "\"index\":1")).isEqualTo(lines[1]);
+        assertThat(this.urlEntryRepository.count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("as a JSON array, then I receive one result per URL.")
+    void withJSONArray_respondsOneResultPerURL() throws Exception {
+        String result = performBatchPost(MediaType.APPLICATION_JSON_VALUE,
+            "[{\"urlAddress\":\"https://www.google.com\"},{\"urlAddress\":\"https://www.neueda.com\"}]");
+
+        assertThat(result.split("\n")).hasSize(2).allMatch(line -> line.contains("\"urlAlias\""));
+        assertThat(this.urlEntryRepository.count()).isEqualTo(2L);
+    }
+
+}
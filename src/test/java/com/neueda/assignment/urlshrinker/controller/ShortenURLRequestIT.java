@@ -9,8 +9,6 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.web.servlet.ResultActions;
 
-import java.util.Date;
-
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -46,14 +44,13 @@ class ShortenURLRequestIT extends StandardIT {
         );
 
         resultActions.andExpect(status().isCreated())
-            .andExpect(jsonPath("$.urlAlias").value(matchesPattern("^http://localhost:8080/[0-9a-z]*$")));
+            .andExpect(jsonPath("$.urlAlias").value(matchesPattern("^http://localhost:8080/[0-9a-zA-Z]*$")));
     }
 
     @Test
     @DisplayName("when submitting an already existing URL, receive the same urlAlias as response.")
     void whenSubmittingSameURLTwice_responseWithSameURLAlias() throws Exception {
-        URLEntry urlEntry = new URLEntry("https://www.google.com", new Date());
-        urlEntry = urlEntryRepository.save(urlEntry);
+        URLEntry urlEntry = saveURLEntry("https://www.google.com");
         String expectedAlias = Base62.encode(urlEntry.getId());
 
         ResultActions resultActions = performPost(
@@ -1,8 +1,20 @@
 package com.neueda.assignment.urlshrinker.controller;
 
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLog;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLogEndpoint;
+import com.neueda.assignment.urlshrinker.controller.redirect.RedirectProperties;
+import com.neueda.assignment.urlshrinker.controller.redirect.RedirectResponses;
 import com.neueda.assignment.urlshrinker.fixture.ShortenURLRequestFixture;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
 import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import com.neueda.assignment.urlshrinker.math.Base62;
 import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.model.response.URLViewStatisticsResponse;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewCounter;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,12 +24,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class URLEntryControllerTest {
@@ -27,11 +50,28 @@ class URLEntryControllerTest {
     @Mock
     private URLEntryService urlEntryService;
 
+    @Mock
+    private ShortenURLBatchProcessor shortenURLBatchProcessor;
+
+    @Mock
+    private URLViewCounter urlViewCounter;
+
+    @Mock
+    private URLViewStatistics urlViewStatistics;
+
+    @Mock
+    private AccessLog accessLog;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private URLEntryController urlEntryController;
 
     @BeforeEach
     public void setUp() {
-        this.urlEntryController = new URLEntryController(this.urlEntryService, "http://localhost:8080");
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.urlEntryController = new URLEntryController(this.urlEntryService, this.shortenURLBatchProcessor,
+            this.urlViewCounter, this.urlViewStatistics, this.accessLog, new RedirectResponses(new RedirectProperties()),
+            "http://localhost:8080", this.meterRegistry);
     }
 
     @Test
@@ -45,18 +85,93 @@ class URLEntryControllerTest {
         assertThat(result.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         Map<String, Object> responseBody = result.getBody();
         assertThat(responseBody).containsEntry("urlAlias", "http://localhost:8080/"+FAKE_ALIAS);
+        assertThat(this.meterRegistry.get("url.shorten").timer().count()).isOne();
+        verify(this.accessLog).record(eq(AccessLogEndpoint.SHORTEN), eq(201), eq(Base62.decode(FAKE_ALIAS)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given I submit a batch of URL addresses to be shorten, then the response body streams the batch through the processor.")
+    void shortenURLBatch_withNoOtherPreCondition_streamsRequestBodyThroughTheProcessor() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("[]".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> result = this.urlEntryController.shortenURLBatch(request);
+        result.getBody().writeTo(output);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getContentType()).hasToString(URLEntryController.APPLICATION_NDJSON_VALUE);
+        verify(this.shortenURLBatchProcessor).process(request.getInputStream(), output, "http://localhost:8080");
     }
 
     @Test
     @DisplayName("Given I request to be redirect to the original URL using a short alias, then I should receive a redirect response.")
     void redirectTo_withValidURLAlias_responseWithRedirectionToOriginalURL() {
         String originalURLAddress = "https://www.google.com";
-        doReturn(originalURLAddress).when(this.urlEntryService).findUrlAddressByUrlAlias(FAKE_ALIAS);
+        doReturn(new URLRedirect(originalURLAddress, null)).when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
 
-        ResponseEntity<Void> result = this.urlEntryController.redirectTo(FAKE_ALIAS);
+        ResponseEntity<Void> result = this.urlEntryController.redirectTo(FAKE_ALIAS, null);
 
         assertThat(result).hasFieldOrPropertyWithValue("status", HttpStatus.FOUND);
         assertThat(result.getHeaders().getLocation()).isEqualTo(URI.create(originalURLAddress));
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"" + FAKE_ALIAS + "-302\"");
+        verify(this.urlViewCounter).increment(Base62.decode(FAKE_ALIAS));
+        assertThat(this.meterRegistry.get("url.redirect").timer().count()).isOne();
+        assertThat(this.meterRegistry.get("url.redirect.not.found").counter().count()).isZero();
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(302), eq(Base62.decode(FAKE_ALIAS)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given I request to be redirect to a permanent URL, then I should receive a cacheable permanent redirect response.")
+    void redirectTo_withPermanentRedirectPolicy_respondsWithCacheablePermanentRedirection() {
+        doReturn(new URLRedirect("https://www.google.com", RedirectPolicy.PERMANENT))
+            .when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
+
+        ResponseEntity<Void> result = this.urlEntryController.redirectTo(FAKE_ALIAS, null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.MOVED_PERMANENTLY);
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("public, max-age=31536000");
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(301), eq(Base62.decode(FAKE_ALIAS)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given I request to be redirect holding the current ETag, then I should receive a not modified response.")
+    void redirectTo_withMatchingIfNoneMatch_respondsWithNotModified() {
+        doReturn(new URLRedirect("https://www.google.com", null)).when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
+
+        ResponseEntity<Void> result = this.urlEntryController.redirectTo(FAKE_ALIAS, "W/\"" + FAKE_ALIAS + "-302\"");
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(result.getHeaders().getLocation()).isNull();
+        verify(this.urlViewCounter).increment(Base62.decode(FAKE_ALIAS));
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(304), eq(Base62.decode(FAKE_ALIAS)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given I request to be redirect using a short alias with no URL, then the request is counted as not found.")
+    void redirectTo_withNonExistingURLAlias_countsNotFoundRedirection() {
+        doThrow(new URLNotFoundException("No URL")).when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
+
+        assertThatThrownBy(() -> this.urlEntryController.redirectTo(FAKE_ALIAS, null))
+            .isInstanceOf(URLNotFoundException.class);
+
+        assertThat(this.meterRegistry.get("url.redirect").timer().count()).isOne();
+        assertThat(this.meterRegistry.get("url.redirect.not.found").counter().count()).isOne();
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(404), eq(Base62.decode(FAKE_ALIAS)), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given I request the statistics of an existing URL alias, then I should receive its recent views.")
+    void findStatistics_withValidURLAlias_respondsWithItsRecentViews() {
+        URLViewStatisticsResponse statistics = new URLViewStatisticsResponse(List.of(), List.of(), List.of());
+        doReturn(statistics).when(this.urlViewStatistics).findByUrlEntryId(eq(Base62.decode(FAKE_ALIAS)), anyLong());
+
+        ResponseEntity<URLViewStatisticsResponse> result = this.urlEntryController.findStatistics(FAKE_ALIAS);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isSameAs(statistics);
+        verify(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogBufferTest {
+
+    @Test
+    @DisplayName("Given the buffer is full, then new records are rejected until the oldest ones are read.")
+    void offer_withFullBuffer_rejectsRecordsUntilTheOldestAreRead() {
+        AccessLogBuffer buffer = new AccessLogBuffer(2);
+        List<Long> read = new ArrayList<>();
+
+        assertThat(buffer.offer(1L, 10L, 100L, 1000L)).isTrue();
+        assertThat(buffer.offer(2L, 20L, 200L, 2000L)).isTrue();
+        assertThat(buffer.offer(3L, 30L, 300L, 3000L)).isFalse();
+
+        assertThat(buffer.poll((timestamp, urlEntryId, durationNanos, endpointAndStatus) -> {
+            assertThat(List.of(urlEntryId, durationNanos, endpointAndStatus))
+                .containsExactly(timestamp * 10L, timestamp * 100L, timestamp * 1000L);
+            read.add(timestamp);
+        })).isTrue();
+        assertThat(buffer.offer(4L, 40L, 400L, 4000L)).isTrue();
+        while (buffer.poll((timestamp, urlEntryId, durationNanos, endpointAndStatus) -> read.add(timestamp))) {
+            // Reads every record left.
+        }
+
+        assertThat(read).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    @DisplayName("Given several threads offer records while they are read, then every record is read once.")
+    void poll_withConcurrentWriters_readsEveryRecordOnce() throws InterruptedException {
+        AccessLogBuffer buffer = new AccessLogBuffer(64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            long firstRecord = thread * 10_000L;
+            executor.submit(() -> {
+                for (long record = firstRecord; record < firstRecord + 10_000L; record++) {
+                    while (!buffer.offer(record, record, record, record)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+
+        Set<Long> read = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (read.size() < 40_000 && System.nanoTime() < deadline) {
+            buffer.poll((timestamp, urlEntryId, durationNanos, endpointAndStatus) -> {
+                assertThat(urlEntryId).isEqualTo(timestamp);
+                assertThat(read.add(timestamp)).isTrue();
+            });
+        }
+
+        assertThat(executor.awaitTermination(1L, TimeUnit.SECONDS)).isTrue();
+        assertThat(read).hasSize(40_000);
+        assertThat(buffer.poll((timestamp, urlEntryId, durationNanos, endpointAndStatus) -> { })).isFalse();
+    }
+
+}
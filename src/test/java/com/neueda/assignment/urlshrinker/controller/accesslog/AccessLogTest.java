@@ -0,0 +1,87 @@
+package com.neueda.assignment.urlshrinker.controller.accesslog;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogTest {
+
+    @TempDir
+    Path directory;
+
+    private AccessLogProperties properties(AccessLogLevel redirectLevel, double redirectSampleRate) {
+        AccessLogProperties.Endpoint redirect = new AccessLogProperties.Endpoint();
+        redirect.setLevel(redirectLevel);
+        redirect.setSampleRate(redirectSampleRate);
+
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setEnabled(true);
+        properties.setPath(this.directory.resolve("logs").resolve("access.log"));
+        properties.getEndpoints().put(AccessLogEndpoint.REDIRECT, redirect);
+        return properties;
+    }
+
+    private List<String> recordAndReadLines(AccessLogProperties properties) throws Exception {
+        AccessLog accessLog = new AccessLog(properties, new SimpleMeterRegistry());
+        long startedAt = System.nanoTime();
+        accessLog.record(AccessLogEndpoint.SHORTEN, 201, 42L, startedAt);
+        accessLog.record(AccessLogEndpoint.REDIRECT, 302, 42L, startedAt);
+        accessLog.record(AccessLogEndpoint.REDIRECT, 404, Base62.INVALID, startedAt);
+        accessLog.destroy();
+        return Files.readAllLines(properties.getPath());
+    }
+
+    @Test
+    @DisplayName("Given every request is recorded, then each one is written as a JSON line.")
+    void record_withEveryRequestRecorded_writesEachOneAsAJSONLine() throws Exception {
+        List<String> lines = recordAndReadLines(properties(AccessLogLevel.ALL, 1D));
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0))
+            .startsWith("{\"timestamp\":\"")
+            .contains("\"endpoint\":\"SHORTEN\",\"status\":201,\"durationMicros\":")
+            .endsWith(",\"urlAlias\":\"" + Base62.encode(42L) + "\"}");
+        assertThat(lines.get(1)).contains("\"endpoint\":\"REDIRECT\",\"status\":302");
+        assertThat(lines.get(2)).contains("\"endpoint\":\"REDIRECT\",\"status\":404").doesNotContain("urlAlias");
+    }
+
+    @Test
+    @DisplayName("Given an endpoint never samples, then only its errors are written.")
+    void record_withSampleRateZero_writesOnlyErrors() throws Exception {
+        List<String> lines = recordAndReadLines(properties(AccessLogLevel.ALL, 0D));
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).contains("\"endpoint\":\"SHORTEN\"");
+        assertThat(lines.get(1)).contains("\"endpoint\":\"REDIRECT\",\"status\":404");
+    }
+
+    @Test
+    @DisplayName("Given an endpoint is off, then none of its requests are written.")
+    void record_withLevelOff_writesNothingForTheEndpoint() throws Exception {
+        List<String> lines = recordAndReadLines(properties(AccessLogLevel.OFF, 1D));
+
+        assertThat(lines).singleElement().asString().contains("\"endpoint\":\"SHORTEN\"");
+    }
+
+    @Test
+    @DisplayName("Given the access log is disabled, then no file is created.")
+    void record_withAccessLogDisabled_createsNoFile() throws Exception {
+        AccessLogProperties properties = properties(AccessLogLevel.ALL, 1D);
+        properties.setEnabled(false);
+
+        AccessLog accessLog = new AccessLog(properties, new SimpleMeterRegistry());
+        accessLog.record(AccessLogEndpoint.REDIRECT, 302, 42L, System.nanoTime());
+        accessLog.destroy();
+
+        assertThat(properties.getPath()).doesNotExist();
+    }
+
+}
@@ -1,14 +1,19 @@
 package com.neueda.assignment.urlshrinker.controller.advice;
 
 
+import com.neueda.assignment.urlshrinker.repository.exception.URLLookUpTimeoutException;
 import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import com.neueda.assignment.urlshrinker.repository.exception.URLShortenTimeoutException;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.List;
 import java.util.Map;
 
@@ -61,4 +66,57 @@ class GeneralControllerAdviceTest {
             .containsEntry("message", "Fake Message");
     }
 
+    @Test
+    @DisplayName("Given I intercept a WriteBehindQueueFullException, then I respond with SERVICE_UNAVAILABLE and the exception message.")
+    void handleWriteBehindQueueFullException_withNoOtherPreCondition_returnsServiceUnavailableAndExceptionMessage() {
+        WriteBehindQueueFullException exception = new WriteBehindQueueFullException("Fake Message");
+
+        ResponseEntity<Map<String, String>> result = this.controllerAdvice.handleWriteBehindQueueFullException(exception);
+
+        assertThat(result).hasFieldOrPropertyWithValue("status", HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getBody())
+            .hasSize(1)
+            .containsEntry("message", "Fake Message");
+    }
+
+    @Test
+    @DisplayName("Given I intercept a URLLookUpTimeoutException, then I respond with SERVICE_UNAVAILABLE and the exception message.")
+    void handleURLLookUpTimeoutException_withNoOtherPreCondition_returnsServiceUnavailableAndExceptionMessage() {
+        URLLookUpTimeoutException exception = new URLLookUpTimeoutException("Fake Message");
+
+        ResponseEntity<Map<String, String>> result = this.controllerAdvice.handleURLLookUpTimeoutException(exception);
+
+        assertThat(result).hasFieldOrPropertyWithValue("status", HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getBody())
+            .hasSize(1)
+            .containsEntry("message", "Fake Message");
+    }
+
+    @Test
+    @DisplayName("Given I intercept a URLShortenTimeoutException, then I respond with SERVICE_UNAVAILABLE and the exception message.")
+    void handleURLShortenTimeoutException_withNoOtherPreCondition_returnsServiceUnavailableAndExceptionMessage() {
+        URLShortenTimeoutException exception = new URLShortenTimeoutException("Fake Message");
+
+        ResponseEntity<Map<String, String>> result = this.controllerAdvice.handleURLShortenTimeoutException(exception);
+
+        assertThat(result).hasFieldOrPropertyWithValue("status", HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getBody())
+            .hasSize(1)
+            .containsEntry("message", "Fake Message");
+    }
+
+    @Test
+    @DisplayName("Given I intercept a CannotGetJdbcConnectionException, then I respond with SERVICE_UNAVAILABLE and a generic message.")
+    void handleDatabaseUnavailableException_withConnectionTimeout_returnsServiceUnavailableAndGenericMessage() {
+        CannotGetJdbcConnectionException exception = new CannotGetJdbcConnectionException("Fake Message",
+            new SQLTransientConnectionException("read - Connection is not available, request timed out after 1000ms."));
+
+        ResponseEntity<Map<String, String>> result = this.controllerAdvice.handleDatabaseUnavailableException(exception);
+
+        assertThat(result).hasFieldOrPropertyWithValue("status", HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(result.getBody())
+            .hasSize(1)
+            .containsEntry("message", "Database unavailable, try again later.");
+    }
+
 }
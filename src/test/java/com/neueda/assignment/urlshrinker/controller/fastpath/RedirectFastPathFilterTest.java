@@ -0,0 +1,181 @@
+package com.neueda.assignment.urlshrinker.controller.fastpath;
+
+import com.neueda.assignment.urlshrinker.cache.URLLookUpInvalidatedEvent;
+import com.neueda.assignment.urlshrinker.controller.URLEntryController;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLog;
+import com.neueda.assignment.urlshrinker.controller.accesslog.AccessLogEndpoint;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.repository.views.URLViewCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectFastPathFilterTest {
+
+    private static final long URL_ENTRY_ID = 123_456L;
+
+    private static final String LOCATION = "https://www.google.com/search?q=url%20shrinker";
+
+    private static final String E_TAG = "\"" + Base62.encode(URL_ENTRY_ID) + "-302\"";
+
+    @Mock
+    private URLViewCounter urlViewCounter;
+
+    @Mock
+    private AccessLog accessLog;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RedirectFastPathProperties properties = new RedirectFastPathProperties();
+
+    private int chainCalls;
+
+    private RedirectFastPathFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        this.filter = new RedirectFastPathFilter(this.properties, this.urlViewCounter, this.accessLog,
+            this.meterRegistry);
+    }
+
+    private FilterChain controller(String bestMatchingPattern, int status) {
+        return (request, response) -> {
+            this.chainCalls++;
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, bestMatchingPattern);
+            ((HttpServletResponse) response).setStatus(status);
+            ((HttpServletResponse) response).setHeader("Location", LOCATION);
+            ((HttpServletResponse) response).setHeader("Cache-Control", "no-cache");
+            ((HttpServletResponse) response).setHeader("ETag", E_TAG);
+        };
+    }
+
+    private MockHttpServletResponse perform(String method, String path, FilterChain chain) throws Exception {
+        return perform(new MockHttpServletRequest(method, path), chain);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        this.filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    @DisplayName("Given an alias was redirected by the controller, then its next redirections skip the filter chain.")
+    void doFilter_withAliasRedirectedBefore_servesPrecomputedRedirect() throws Exception {
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_FOUND);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        MockHttpServletResponse response = perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        assertThat(this.chainCalls).isEqualTo(1);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_FOUND);
+        assertThat(response.getHeader("Location")).isEqualTo(LOCATION);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(response.getHeader("ETag")).isEqualTo(E_TAG);
+        verify(this.urlViewCounter).increment(URL_ENTRY_ID);
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(302), eq(URL_ENTRY_ID), anyLong());
+        assertThat(this.meterRegistry.get("url.redirect.fast.path").counter().count()).isEqualTo(1D);
+        assertThat(this.meterRegistry.get("url.redirect").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Given the client holds the current ETag of a precomputed redirection, then it is answered as not modified.")
+    void doFilter_withMatchingIfNoneMatch_respondsWithNotModified() throws Exception {
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_FOUND);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/" + Base62.encode(URL_ENTRY_ID));
+        request.addHeader("If-None-Match", E_TAG);
+
+        MockHttpServletResponse response = perform(request, chain);
+
+        assertThat(this.chainCalls).isEqualTo(1);
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(response.getHeader("Location")).isNull();
+        assertThat(response.getHeader("ETag")).isEqualTo(E_TAG);
+        verify(this.accessLog).record(eq(AccessLogEndpoint.REDIRECT), eq(304), eq(URL_ENTRY_ID), anyLong());
+    }
+
+    @Test
+    @DisplayName("Given an alias is invalidated in the look up cache, then its next redirection goes through the controller again.")
+    void onURLLookUpInvalidated_withPrecomputedAlias_dropsThePrecomputedRedirect() throws Exception {
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_FOUND);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        this.filter.onURLLookUpInvalidated(new URLLookUpInvalidatedEvent(Base62.encode(URL_ENTRY_ID)));
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        assertThat(this.chainCalls).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a redirection was served by another handler, then it is never replayed.")
+    void doFilter_withRedirectFromAnotherHandler_goesThroughFilterChain() throws Exception {
+        FilterChain chain = controller("/swagger-ui", HttpServletResponse.SC_FOUND);
+        perform("GET", "/swaggerui", chain);
+        perform("GET", "/swaggerui", chain);
+
+        assertThat(this.chainCalls).isEqualTo(2);
+        verifyNoInteractions(this.urlViewCounter, this.accessLog);
+    }
+
+    @Test
+    @DisplayName("Given an alias was not found, then its next requests still go through the filter chain.")
+    void doFilter_withUnknownAlias_goesThroughFilterChain() throws Exception {
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_NOT_FOUND);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        assertThat(this.chainCalls).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given a request other than a redirection, then it goes through the filter chain.")
+    void doFilter_withOtherRequests_goesThroughFilterChain() throws Exception {
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_FOUND);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        perform("POST", "/" + Base62.encode(URL_ENTRY_ID), chain);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID) + "/stats", chain);
+        perform("GET", "/", chain);
+
+        assertThat(this.chainCalls).isEqualTo(4);
+        verify(this.urlViewCounter, never()).increment(anyLong());
+    }
+
+    @Test
+    @DisplayName("Given the fast path is disabled, then every redirection goes through the filter chain.")
+    void doFilter_withFastPathDisabled_goesThroughFilterChain() throws Exception {
+        this.properties.setEnabled(false);
+        setUp();
+        FilterChain chain = controller(URLEntryController.REDIRECT_PATH, HttpServletResponse.SC_FOUND);
+
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+        perform("GET", "/" + Base62.encode(URL_ENTRY_ID), chain);
+
+        assertThat(this.chainCalls).isEqualTo(2);
+        verify(this.accessLog, times(0)).record(any(), anyInt(), anyLong(), anyLong());
+    }
+
+}
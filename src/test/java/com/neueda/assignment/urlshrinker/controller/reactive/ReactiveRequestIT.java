@@ -0,0 +1,72 @@
+package com.neueda.assignment.urlshrinker.controller.reactive;
+
+import com.neueda.assignment.urlshrinker.model.request.ShortenURLRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("integration")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+@DisplayName("Given the application runs on the reactive stack...")
+class ReactiveRequestIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private String shorten(String urlAddress) {
+        Map<?, ?> response = this.webTestClient.post().uri("/api/v1/url_entry")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new ShortenURLRequest(urlAddress))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody(Map.class)
+            .returnResult().getResponseBody();
+        String urlAlias = (String) response.get("urlAlias");
+        return urlAlias.substring(urlAlias.lastIndexOf('/') + 1);
+    }
+
+    @Test
+    @DisplayName("when I shorten an URL, then its alias redirects to it, from the database and then from the cache.")
+    void withShortenedURL_redirectsToIt() {
+        String urlAlias = shorten("https://www.neueda.com");
+        assertThat(shorten("https://www.neueda.com")).isEqualTo(urlAlias);
+
+        for (int request = 0; request < 2; request++) {
+            this.webTestClient.get().uri("/{urlAlias}", urlAlias)
+                .exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals("Location", "https://www.neueda.com");
+        }
+    }
+
+    @Test
+    @DisplayName("when I request an unknown alias, then I receive a not found response.")
+    void withUnknownAlias_respondsWithNotFound() {
+        this.webTestClient.get().uri("/{urlAlias}", "iiiiiiii")
+            .exchange()
+            .expectStatus().isNotFound()
+            .expectBody().jsonPath("$.message").isEqualTo("No URL found for the short version 'iiiiiiii'.");
+    }
+
+    @Test
+    @DisplayName("when I submit an invalid URL, then I receive a bad request response with the validation message.")
+    void withInvalidURL_respondsWithBadRequest() {
+        this.webTestClient.post().uri("/api/v1/url_entry")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(new ShortenURLRequest("invalid"))
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody().jsonPath("$.urlAddress").isEqualTo("must be a valid URL");
+    }
+
+}
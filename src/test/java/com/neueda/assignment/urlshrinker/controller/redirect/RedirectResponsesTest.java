@@ -0,0 +1,74 @@
+package com.neueda.assignment.urlshrinker.controller.redirect;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RedirectResponsesTest {
+
+    private static final long URL_ENTRY_ID = 42L;
+
+    private static final String URL_ADDRESS = "https://www.google.com";
+
+    @Test
+    @DisplayName("Given entries with no policy of their own, then they follow the default policy.")
+    void redirect_withNoRedirectPolicy_followsDefaultPolicy() {
+        RedirectProperties properties = new RedirectProperties();
+        properties.setDefaultPolicy(RedirectPolicy.PERMANENT);
+        properties.setPermanent(new RedirectProperties.Policy(308, Duration.ofHours(1)));
+
+        ResponseEntity<Void> result = new RedirectResponses(properties)
+            .redirect(URL_ENTRY_ID, new URLRedirect(URL_ADDRESS, null), null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.PERMANENT_REDIRECT);
+        assertThat(result.getHeaders().getLocation()).isEqualTo(URI.create(URL_ADDRESS));
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("public, max-age=3600");
+        assertThat(result.getHeaders().getETag()).isEqualTo("\"" + Base62.encode(URL_ENTRY_ID) + "-308\"");
+    }
+
+    @Test
+    @DisplayName("Given an entry with a policy of its own, then its policy overrides the default one.")
+    void redirect_withRedirectPolicy_followsItsPolicy() {
+        RedirectProperties properties = new RedirectProperties();
+        properties.setDefaultPolicy(RedirectPolicy.PERMANENT);
+        properties.setTemporary(new RedirectProperties.Policy(307, null));
+
+        ResponseEntity<Void> result = new RedirectResponses(properties)
+            .redirect(URL_ENTRY_ID, new URLRedirect(URL_ADDRESS, RedirectPolicy.TEMPORARY), null);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.TEMPORARY_REDIRECT);
+        assertThat(result.getHeaders().getCacheControl()).isEqualTo("no-cache");
+    }
+
+    @Test
+    @DisplayName("Given a policy with a status which does not match it, then the responses cannot be built.")
+    void constructor_withStatusNotMatchingPolicy_throwsIllegalArgumentException() {
+        RedirectProperties properties = new RedirectProperties();
+        properties.setTemporary(new RedirectProperties.Policy(301, null));
+
+        assertThatThrownBy(() -> new RedirectResponses(properties))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("TEMPORARY");
+    }
+
+    @Test
+    @DisplayName("Given an If-None-Match header, then it matches the ETags it lists, weak or not, and the wildcard.")
+    void isNotModified_withIfNoneMatchHeaders_matchesListedETags() {
+        assertThat(RedirectResponses.isNotModified("\"fkAlias-302\"", "\"fkAlias-302\"")).isTrue();
+        assertThat(RedirectResponses.isNotModified("\"other\", W/\"fkAlias-302\"", "\"fkAlias-302\"")).isTrue();
+        assertThat(RedirectResponses.isNotModified("*", "\"fkAlias-302\"")).isTrue();
+        assertThat(RedirectResponses.isNotModified("\"fkAlias-301\"", "\"fkAlias-302\"")).isFalse();
+        assertThat(RedirectResponses.isNotModified(null, "\"fkAlias-302\"")).isFalse();
+    }
+
+}
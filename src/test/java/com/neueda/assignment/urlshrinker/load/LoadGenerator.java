@@ -0,0 +1,276 @@
+package com.neueda.assignment.urlshrinker.load;
+
+import com.neueda.assignment.urlshrinker.Application;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End to end load test. Boots the {@link Application} with the {@code test} profile, so the in memory database is
+ * used, seeds it with URLs through the shorten endpoint and then drives a mix of shortens and redirects over HTTP,
+ * picking the redirected aliases from a {@link ZipfDistribution}. Latencies are recorded in HdrHistograms, whose
+ * percentile distributions are printed and written to the report folder ({@code .hgrm} files, which can be plotted
+ * with the HdrHistogram tools).
+ * <p>
+ * Each worker sends its next request as soon as the previous one is answered (closed loop), so the latencies do not
+ * include the time requests would have waited on a server slower than the offered rate. Workers run on virtual
+ * threads, so thousands of them, each keeping its own connection open, can be driven from a single process. Settings
+ * of the application, e.g. {@code application.virtual-threads.enabled}, can be given as system properties as well,
+ * since it runs in the same process. Settings of the load test are read from system properties:
+ * <ul>
+ *     <li>{@code load.profiles}: Profiles activated besides {@code test}, e.g. {@code reactive} to compare the reactive
+ *     stack with the servlet one (none).</li>
+ *     <li>{@code load.urls}: URLs seeded before the measurement (10000).</li>
+ *     <li>{@code load.threads}: Concurrent workers (16).</li>
+ *     <li>{@code load.warm-up}: Load applied before recording (PT10S).</li>
+ *     <li>{@code load.duration}: Load recorded (PT30S).</li>
+ *     <li>{@code load.shorten-ratio}: Fraction of the requests shortening new URLs (0.05).</li>
+ *     <li>{@code load.zipf-exponent}: Skew of the redirected aliases (0.99).</li>
+ *     <li>{@code load.seed}: Seed of every random choice, so runs are reproducible (42).</li>
+ *     <li>{@code load.report-directory}: Folder receiving the histograms (target/load-test).</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+
+    private static final Pattern URL_ALIAS = Pattern.compile("\"urlAlias\"\\s*:\\s*\"[^\"]*/([^\"/]+)\"");
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000L;
+
+    private final String[] profiles = Arrays.stream(System.getProperty("load.profiles", "").split(","))
+        .map(String::trim)
+        .filter(profile -> !profile.isEmpty())
+        .toArray(String[]::new);
+
+    private final int urls = Integer.getInteger("load.urls", 10_000);
+
+    private final int threads = Integer.getInteger("load.threads", 16);
+
+    private final Duration warmUp = Duration.parse(System.getProperty("load.warm-up", "PT10S"));
+
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+    private final double shortenRatio = Double.parseDouble(System.getProperty("load.shorten-ratio", "0.05"));
+
+    private final double zipfExponent = Double.parseDouble(System.getProperty("load.zipf-exponent", "0.99"));
+
+    private final long seed = Long.getLong("load.seed", 42L);
+
+    private final Path reportDirectory = Paths.get(System.getProperty("load.report-directory", "target/load-test"));
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final Recorder redirectLatencies = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final Recorder shortenLatencies = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private final AtomicLong nextNewURL = new AtomicLong();
+
+    private String baseUrl;
+
+    private List<String> urlAliases;
+
+    private ZipfDistribution zipfDistribution;
+
+    private volatile boolean recording;
+
+    private volatile boolean running;
+
+    public static void main(String... args) throws Exception {
+        new LoadGenerator().run();
+    }
+
+    private void run() throws Exception {
+        try (ConfigurableApplicationContext applicationContext = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .profiles(this.profiles)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run()) {
+            this.baseUrl = "http://localhost:"
+                + ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+
+            long seedingStartedAt = System.nanoTime();
+            seed();
+            System.out.printf("Seeded %d URLs in %d ms.%n", this.urls,
+                Duration.ofNanos(System.nanoTime() - seedingStartedAt).toMillis());
+
+            drive();
+        }
+    }
+
+    /**
+     * Shortens {@code load.urls} URLs from all the workers, keeping the aliases in a shuffled order, so the most
+     * requested aliases are spread over the whole id range.
+     */
+    private void seed() throws Exception {
+        String[] seededAliases = new String[this.urls];
+        AtomicInteger nextIndex = new AtomicInteger();
+        runWorkers(worker -> {
+            for (int index = nextIndex.getAndIncrement(); index < this.urls; index = nextIndex.getAndIncrement()) {
+                String urlAddress = urlAddress("seeded", index);
+                seededAliases[index] = shorten(urlAddress);
+                if (seededAliases[index] == null) {
+                    throw new IllegalStateException(String.format("Unable to seed '%s'.", urlAddress));
+                }
+            }
+        });
+
+        this.urlAliases = new ArrayList<>(List.of(seededAliases));
+        Collections.shuffle(this.urlAliases, new Random(this.seed));
+        this.zipfDistribution = new ZipfDistribution(this.urls, this.zipfExponent);
+    }
+
+    private void drive() throws Exception {
+        this.running = true;
+        ExecutorService driver = Executors.newSingleThreadExecutor();
+        Future<?> workers = driver.submit(() -> {
+            runWorkers(worker -> {
+                Random random = new Random(this.seed + worker);
+                while (this.running) {
+                    step(random);
+                }
+            });
+            return null;
+        });
+
+        Thread.sleep(this.warmUp.toMillis());
+        this.redirectLatencies.reset();
+        this.shortenLatencies.reset();
+        this.failures.set(0L);
+        this.recording = true;
+        long startedAt = System.nanoTime();
+
+        Thread.sleep(this.duration.toMillis());
+        Histogram redirects = this.redirectLatencies.getIntervalHistogram();
+        Histogram shortens = this.shortenLatencies.getIntervalHistogram();
+        long failed = this.failures.get();
+        double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9D;
+
+        this.running = false;
+        workers.get();
+        driver.shutdown();
+
+        report("redirect", redirects, elapsedSeconds);
+        report("shorten", shortens, elapsedSeconds);
+        System.out.printf("%d failed requests.%n", failed);
+    }
+
+    private void step(Random random) throws IOException, InterruptedException {
+        long startedAt = System.nanoTime();
+        if (random.nextDouble() < this.shortenRatio) {
+            shorten(urlAddress("new", this.nextNewURL.getAndIncrement()));
+            record(this.shortenLatencies, startedAt);
+        } else {
+            String urlAlias = this.urlAliases.get(this.zipfDistribution.sample(random));
+            HttpResponse<Void> response = this.httpClient.send(
+                HttpRequest.newBuilder(URI.create(this.baseUrl + "/" + urlAlias)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+            record(this.redirectLatencies, startedAt);
+            if (response.statusCode() != 302) {
+                this.failures.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return Alias assigned to the received URL, or {@code null} when it could not be shortened.
+     */
+    private String shorten(String urlAddress) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.httpClient.send(
+            HttpRequest.newBuilder(URI.create(this.baseUrl + "/api/v1/url_entry"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"urlAddress\":\"" + urlAddress + "\"}"))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+
+        Matcher matcher = URL_ALIAS.matcher(response.body());
+        if (response.statusCode() != 201 || !matcher.find()) {
+            this.failures.incrementAndGet();
+            return null;
+        }
+        return matcher.group(1);
+    }
+
+    private void record(Recorder recorder, long startedAt) {
+        if (this.recording) {
+            recorder.recordValue(Math.min((System.nanoTime() - startedAt) / 1000L, HIGHEST_TRACKABLE_MICROS));
+        }
+    }
+
+    private void report(String operation, Histogram histogram, double elapsedSeconds) throws IOException {
+        System.out.printf("%s: %d requests, %.1f req/s, p50 %.3f ms, p99 %.3f ms, p999 %.3f ms, max %.3f ms%n",
+            operation, histogram.getTotalCount(), histogram.getTotalCount() / elapsedSeconds,
+            histogram.getValueAtPercentile(50D) / 1000D, histogram.getValueAtPercentile(99D) / 1000D,
+            histogram.getValueAtPercentile(99.9D) / 1000D, histogram.getMaxValue() / 1000D);
+
+        Files.createDirectories(this.reportDirectory);
+        Path report = this.reportDirectory.resolve(operation + ".hgrm");
+        try (PrintStream output = new PrintStream(Files.newOutputStream(report), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(output, 1000D);
+        }
+        System.out.printf("Percentile distribution written to %s.%n", report.toAbsolutePath());
+    }
+
+    private void runWorkers(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>(this.threads);
+            for (int index = 0; index < this.threads; index++) {
+                int workerIndex = index;
+                futures.add(executor.submit(() -> {
+                    worker.run(workerIndex);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String urlAddress(String kind, long value) {
+        return String.format("https://www.catalogue.example.com/%s/products/%d?utm_source=load-test", kind, value);
+    }
+
+    @FunctionalInterface
+    private interface Worker {
+
+        void run(int worker) throws Exception;
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.neueda.assignment.urlshrinker.load;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks from a Zipf distribution, where the probability of the rank {@code k} (1 based) is proportional to
+ * {@code 1 / k^exponent}. The cumulative probabilities of every rank are computed up front, so each draw is a binary
+ * search over them and the same {@link Random} seed always yields the same sequence of ranks.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * @param elements  Number of ranks. Must be positive.
+     * @param exponent  Skew of the distribution, where 0 is uniform and values around 1 match the popularity of web
+     *                  content. Must not be negative.
+     */
+    public ZipfDistribution(int elements, double exponent) {
+        if (elements < 1 || exponent < 0D) {
+            throw new IllegalArgumentException(String.format(
+                "Cannot draw from %d elements with exponent %f.", elements, exponent));
+        }
+
+        this.cumulativeProbabilities = new double[elements];
+        double sum = 0D;
+        for (int rank = 1; rank <= elements; rank++) {
+            sum += 1D / Math.pow(rank, exponent);
+            this.cumulativeProbabilities[rank - 1] = sum;
+        }
+        for (int index = 0; index < elements; index++) {
+            this.cumulativeProbabilities[index] /= sum;
+        }
+    }
+
+    /**
+     * @param random    Source of randomness.
+     *
+     * @return Drawn index, from 0 (the most frequent) to the number of elements minus 1 (the least frequent).
+     */
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(this.cumulativeProbabilities, random.nextDouble());
+        int element = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(element, this.cumulativeProbabilities.length - 1);
+    }
+
+}
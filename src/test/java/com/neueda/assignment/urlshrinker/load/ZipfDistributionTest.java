@@ -0,0 +1,49 @@
+package com.neueda.assignment.urlshrinker.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipfDistributionTest {
+
+    @Test
+    @DisplayName("Given an exponent of 1, then the frequency of each rank is inversely proportional to it.")
+    void sample_withExponentOfOne_drawsRanksInverselyProportionalToThem() {
+        ZipfDistribution distribution = new ZipfDistribution(1000, 1D);
+        Random random = new Random(42L);
+        int[] frequencies = new int[1000];
+        for (int draw = 0; draw < 1_000_000; draw++) {
+            frequencies[distribution.sample(random)]++;
+        }
+
+        assertThat(frequencies[0]).isBetween(132_000, 136_000);
+        assertThat(frequencies[1] * 2D / frequencies[0]).isBetween(0.97D, 1.03D);
+        assertThat(frequencies[9] * 10D / frequencies[0]).isBetween(0.9D, 1.1D);
+        assertThat(frequencies[999]).isPositive();
+    }
+
+    @Test
+    @DisplayName("Given the same seed, then the same ranks are drawn.")
+    void sample_withSameSeed_drawsSameRanks() {
+        ZipfDistribution distribution = new ZipfDistribution(100, 0.99D);
+        Random first = new Random(7L);
+        Random second = new Random(7L);
+
+        for (int draw = 0; draw < 1000; draw++) {
+            assertThat(distribution.sample(first)).isEqualTo(distribution.sample(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Given no elements, then an IllegalArgumentException is thrown.")
+    void constructor_withoutElements_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> new ZipfDistribution(0, 1D))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Cannot draw from 0 elements with exponent 1.000000.");
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.neueda.assignment.urlshrinker.math;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the table based {@link Base62} codec with the former {@link LegacyBase62} implementation. The ids are in
+ * the range of aliases with 4, 6 and 11 characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base62Benchmark {
+
+    @Param({ "916132", "56800235583", "9223372036854775807" })
+    private long id;
+
+    private String alias;
+
+    @Setup
+    public void setUp() {
+        this.alias = Base62.encode(this.id);
+    }
+
+    @Benchmark
+    public String encode() {
+        return Base62.encode(this.id);
+    }
+
+    @Benchmark
+    public String legacyEncode() {
+        return LegacyBase62.encode(this.id);
+    }
+
+    @Benchmark
+    public long decode() {
+        return Base62.decode(this.alias);
+    }
+
+    @Benchmark
+    public Long legacyDecode() {
+        return LegacyBase62.decode(this.alias);
+    }
+
+}
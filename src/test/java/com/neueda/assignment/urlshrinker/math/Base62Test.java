@@ -3,6 +3,7 @@ package com.neueda.assignment.urlshrinker.math;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class Base62Test {
 
@@ -44,5 +45,61 @@ class Base62Test {
         assertThat(result).isEqualTo(62L);
     }
 
+    @Test
+    void encode_withLongMaxValue_returnsValueWithMaxEncodedLength() {
+        String result = Base62.encode(Long.MAX_VALUE);
+
+        assertThat(result).hasSize(Base62.MAX_ENCODED_LENGTH);
+        assertThat(Base62.decode(result)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void encode_withNegativeValue_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> Base62.encode(-1L))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encode_withAnyValue_matchesTheReferenceImplementation() {
+        for (long value : new long[] { 62L, 3843L, 3844L, 916132831L, 999_999_999_999L, (1L << 53) - 1 }) {
+            assertThat(Base62.encode(value)).isEqualTo(LegacyBase62.encode(value));
+        }
+    }
+
+    @Test
+    void decode_withEncodedValue_returnsTheOriginalValue() {
+        for (long value = 0; value < 1_000_000L; value += 997L) {
+            assertThat(Base62.decode(Base62.encode(value))).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void decode_withCharactersOutsideOfTheCharacterList_returnsInvalid() {
+        assertThat(Base62.decode("ab-c")).isEqualTo(Base62.INVALID);
+        assertThat(Base62.decode("ab\u00e7")).isEqualTo(Base62.INVALID);
+    }
+
+    @Test
+    void decode_withEmptyValue_returnsInvalid() {
+        assertThat(Base62.decode("")).isEqualTo(Base62.INVALID);
+    }
+
+    @Test
+    void decode_withValueGreaterThanLongMaxValue_returnsInvalid() {
+        String longMaxValue = Base62.encode(Long.MAX_VALUE);
+        String greaterThanLongMaxValue = Base62.CHARACTERS.get(61) + longMaxValue.substring(1);
+
+        assertThat(Base62.decode(greaterThanLongMaxValue)).isEqualTo(Base62.INVALID);
+        assertThat(Base62.decode(longMaxValue + Base62.CHARACTERS.get(0))).isEqualTo(Base62.INVALID);
+    }
+
+    @Test
+    void decode_withRegionOfLongerValue_returnsTheValueOfTheRegion() {
+        String encodedValue = Base62.encode(Long.MAX_VALUE);
+
+        assertThat(Base62.decode("/" + encodedValue + "/stats", 1, encodedValue.length() + 1))
+            .isEqualTo(Long.MAX_VALUE);
+        assertThat(Base62.decode("/" + encodedValue, 1, 1)).isEqualTo(Base62.INVALID);
+    }
 
 }
\ No newline at end of file
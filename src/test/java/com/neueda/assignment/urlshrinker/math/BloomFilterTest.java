@@ -0,0 +1,49 @@
+package com.neueda.assignment.urlshrinker.math;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Given I add values to the filter, then all of them might be contained.")
+    void mightContain_withAddedValues_returnsTrue() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01D);
+        LongStream.range(0, 10_000).forEach(bloomFilter::put);
+
+        assertThat(LongStream.range(0, 10_000)).allMatch(bloomFilter::mightContain);
+    }
+
+    @Test
+    @DisplayName("Given the filter holds its expected insertions, then the false positive rate stays close to the configured probability.")
+    void mightContain_withValuesNeverAdded_returnsTrueAtTheConfiguredRate() {
+        BloomFilter bloomFilter = new BloomFilter(100_000, 0.01D);
+        LongStream.range(0, 100_000).forEach(bloomFilter::put);
+
+        long falsePositives = LongStream.range(100_000, 200_000).filter(bloomFilter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(1_500L);
+    }
+
+    @Test
+    @DisplayName("Given I size a filter, then its size follows the expected insertions and false positive probability.")
+    void byteSize_withExpectedInsertionsAndProbability_returnsOptimalSize() {
+        BloomFilter bloomFilter = new BloomFilter(1_000_000, 0.01D);
+
+        assertThat(bloomFilter.byteSize()).isBetween(1_190_000L, 1_200_000L);
+        assertThat(bloomFilter.hashFunctions()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Given I size a filter with invalid parameters, then an IllegalArgumentException is thrown.")
+    void constructor_withInvalidParameters_throwsIllegalArgumentException() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01D)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1D)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
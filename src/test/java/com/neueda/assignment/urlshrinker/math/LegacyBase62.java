@@ -0,0 +1,43 @@
+package com.neueda.assignment.urlshrinker.math;
+
+/**
+ * Former implementation of {@link Base62}, kept as reference to verify the wire format compatibility and to compare
+ * the performance of both implementations in {@link Base62Benchmark}.
+ */
+final class LegacyBase62 {
+
+    private LegacyBase62() { }
+
+    static String encode(Long value) {
+        if (value < Base62.CHARACTERS.size()) {
+            return Base62.CHARACTERS.get(value.intValue());
+        }
+
+        double lastRemainder;
+        long lastResult = value;
+        StringBuilder result = new StringBuilder();
+
+        do {
+            lastRemainder = ((double)lastResult % 62.0D);
+            lastResult = lastResult / 62;
+            result.insert(0, Base62.CHARACTERS.get((int)lastRemainder));
+        } while (lastResult > 0L);
+
+        return result.toString();
+    }
+
+    static Long decode(String value) {
+        if (value.length() == 1) {
+            return (long)Base62.CHARACTERS.indexOf(value);
+        }
+
+        long result = 0L;
+        for (int index = 0; index < value.length(); index++) {
+            double power = (double)value.length() - (index + 1);
+            int baseNumber = Base62.CHARACTERS.indexOf(value.substring(index, index+1));
+            result += baseNumber * (long)(Math.pow(62D, power));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.neueda.assignment.urlshrinker.math;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class URLDigestTest {
+
+    @Test
+    @DisplayName("Given I digest an URL address, then I receive a fixed width digest.")
+    void of_withAnyURLAddress_returnsDigestWithFixedLength() {
+        assertThat(URLDigest.of("https://www.google.com")).hasSize(URLDigest.LENGTH);
+        assertThat(URLDigest.of("https://www.google.com?q=" + "A".repeat(1900))).hasSize(URLDigest.LENGTH);
+    }
+
+    @Test
+    @DisplayName("Given I digest the same URL address twice, then I receive the same digest.")
+    void of_withSameURLAddress_returnsSameDigest() {
+        assertThat(URLDigest.of("https://www.google.com")).isEqualTo(URLDigest.of("https://www.google.com"));
+    }
+
+    @Test
+    @DisplayName("Given I digest distinct URL addresses, then I receive distinct digests.")
+    void of_withDistinctURLAddresses_returnsDistinctDigests() {
+        assertThat(URLDigest.of("https://www.google.com")).isNotEqualTo(URLDigest.of("https://www.google.com/"));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.neueda.assignment.urlshrinker.model.entity;
 
 
 import com.neueda.assignment.urlshrinker.fixture.URLEntryFixture;
+import com.neueda.assignment.urlshrinker.math.URLDigest;
 import com.neueda.assignment.urlshrinker.model.BeanValidationTest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Date;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class URLEntryTest extends BeanValidationTest<URLEntry> {
 
     @Nested
@@ -55,6 +58,27 @@ class URLEntryTest extends BeanValidationTest<URLEntry> {
 
     }
 
+    @Nested
+    @DisplayName("urlDigest should...")
+    class URLDigestTest {
+
+        @Test
+        @DisplayName("follow the URL address.")
+        void urlDigest_afterURLAddressIsSet_isTheDigestOfTheURLAddress() {
+            URLEntry entry = new URLEntry("https://www.google.com", new Date());
+            entry.setUrlAddress("https://www.google.com?query=Java");
+            assertThat(entry.getUrlDigest()).isEqualTo(URLDigest.of("https://www.google.com?query=Java"));
+        }
+
+        @Test
+        @DisplayName("be null when there is no URL address.")
+        void urlDigest_withoutURLAddress_isNull() {
+            URLEntry entry = new URLEntry(null, new Date());
+            assertThat(entry.getUrlDigest()).isNull();
+        }
+
+    }
+
     @Nested
     @DisplayName("createdAt should...")
     class CreatedAtTest {
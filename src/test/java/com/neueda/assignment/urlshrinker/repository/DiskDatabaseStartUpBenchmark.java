@@ -0,0 +1,182 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.BenchmarkApplication;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the application takes to start under the {@code prod} profile, until it redirects its first
+ * alias, with the URL_ENTRY table holding 1M and 10M rows on disk, in CACHED tables, and a heap of 1 GB only:
+ * <ul>
+ *     <li>{@code clean}: the database was shut down cleanly, with a checkpoint;</li>
+ *     <li>{@code crash}: the database went down without a checkpoint right after {@link #LOGGED_ROWS} more rows were
+ *     inserted, as with {@code SHUTDOWN IMMEDIATELY}, so they are recovered by replaying the log.</li>
+ * </ul>
+ * There is no look up cache snapshot, so the cache is warmed up from the database, the slowest start up.
+ * <p>
+ * Each database is seeded once, through the Flyway migrations of the profile, under
+ * {@code target/benchmark-databases}, and reused by later runs; every iteration starts from a fresh copy of it. Seeding
+ * 10M rows takes several minutes and a few gigabytes of disk, so the sizes are better selected explicitly, e.g.
+ * {@code -p rows=1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class DiskDatabaseStartUpBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private static final int LOGGED_ROWS = 100_000;
+
+    private static final Path DATABASES = Paths.get("target", "benchmark-databases");
+
+    @Param({ "1000000", "10000000" })
+    private long rows;
+
+    @Param({ "clean", "crash" })
+    private String shutdown;
+
+    private Path template;
+
+    private Path workingCopy;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        Path cleanTemplate = DATABASES.resolve("start-up-" + this.rows);
+        if (Files.notExists(cleanTemplate)) {
+            seed(cleanTemplate);
+        }
+
+        this.template = cleanTemplate;
+        if ("crash".equals(this.shutdown)) {
+            this.template = DATABASES.resolve("start-up-" + this.rows + "-crash");
+            if (Files.notExists(this.template)) {
+                crash(cleanTemplate, this.template);
+            }
+        }
+        this.workingCopy = DATABASES.resolve("start-up-working-copy");
+    }
+
+    @Setup(Level.Iteration)
+    public void copyDatabase() throws IOException {
+        FileSystemUtils.deleteRecursively(this.workingCopy);
+        FileSystemUtils.copyRecursively(this.template, this.workingCopy);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public URLRedirect startUp() throws IOException {
+        this.applicationContext = start(this.workingCopy);
+        long urlEntryId = ThreadLocalRandom.current().nextLong(this.rows) + 1;
+        return this.applicationContext.getBean(URLEntryService.class).findRedirectByUrlAlias(Base62.encode(urlEntryId));
+    }
+
+    /**
+     * Starts the application against the database in the received folder, warming up the look up cache from the
+     * database, as the snapshot set for the folder does not exist yet.
+     */
+    private static ConfigurableApplicationContext start(Path directory) throws IOException {
+        System.setProperty("DATABASE_PATH", directory.resolve("urlshrinker").toString());
+        System.setProperty("application.cache.url-look-up.snapshot.enabled", "true");
+        System.setProperty("application.cache.url-look-up.snapshot.path",
+            directory.resolve("url-look-up.snapshot").toString());
+        return BenchmarkApplication.start("prod");
+    }
+
+    /**
+     * Creates the schema through the application, then inserts entries with ids 1 to {@link #rows} without logging
+     * them, and shuts the database down with a checkpoint. The snapshot written on shutdown is dropped.
+     */
+    private void seed(Path directory) throws IOException, SQLException {
+        start(directory).close();
+        Files.delete(directory.resolve("url-look-up.snapshot"));
+        try (Connection connection = connect(directory); Statement statement = connection.createStatement()) {
+            statement.execute("SET FILES LOG FALSE");
+            insert(connection, 1, this.rows);
+            statement.execute("SET FILES LOG TRUE");
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    /**
+     * Copies the clean database and inserts {@link #LOGGED_ROWS} more entries, which are only in the log when the
+     * database goes down without a checkpoint.
+     */
+    private void crash(Path cleanDirectory, Path directory) throws IOException, SQLException {
+        FileSystemUtils.copyRecursively(cleanDirectory, directory);
+        try (Connection connection = connect(directory); Statement statement = connection.createStatement()) {
+            insert(connection, this.rows + 1, LOGGED_ROWS);
+            statement.execute("SHUTDOWN IMMEDIATELY");
+        }
+    }
+
+    private static Connection connect(Path directory) throws SQLException {
+        return DriverManager.getConnection("jdbc:hsqldb:file:" + directory.resolve("urlshrinker"), "sa", "");
+    }
+
+    private static void insert(Connection connection, long firstId, long count) throws SQLException {
+        Timestamp createdAt = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO URL_ENTRY "
+                + "(ID, URL_ADDRESS, URL_DIGEST, CREATED_AT, TOTAL_VIEWS) VALUES (?, ?, ?, ?, 0)")) {
+            for (long id = firstId; id < firstId + count; id++) {
+                String urlAddress = urlAddress(id);
+                insert.setLong(1, id);
+                insert.setString(2, urlAddress);
+                insert.setBytes(3, URLDigest.of(urlAddress));
+                insert.setTimestamp(4, createdAt);
+                insert.addBatch();
+                if ((id - firstId + 1) % SEED_BATCH_SIZE == 0 || id == firstId + count - 1) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        try (PreparedStatement allocation = connection.prepareStatement(
+                "UPDATE URL_ENTRY_ID_ALLOCATION SET NEXT_ID = GREATEST(NEXT_ID, ?)")) {
+            allocation.setLong(1, firstId + count);
+            allocation.executeUpdate();
+        }
+    }
+
+    private static String urlAddress(long value) {
+        return String.format("https://www.catalogue.example.com/products/%d?utm_source=newsletter&utm_campaign=%d",
+            value, value % 1000);
+    }
+
+}
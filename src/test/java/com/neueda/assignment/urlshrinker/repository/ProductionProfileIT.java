@@ -0,0 +1,69 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.Application;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("integration")
+@DisplayName("Given the application runs with the prod profile...")
+class ProductionProfileIT {
+
+    private static final String URL_ADDRESS = "https://www.neueda.com";
+
+    @TempDir
+    Path databaseDirectory;
+
+    /**
+     * Starts the application against a file database in the temporary folder. The connection URL leaves out the
+     * default table type, so the tables are only CACHED ones if the Flyway callback of the profile sets it.
+     */
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+            .profiles("test", "prod")
+            .properties(
+                "server.port=0",
+                "DATABASE_URL=jdbc:hsqldb:file:" + this.databaseDirectory.resolve("urlshrinker") + ";shutdown=true"
+            )
+            .run();
+    }
+
+    @Test
+    @DisplayName("when the application is restarted, then the URLs shortened before still redirect.")
+    void afterRestart_redirectsToURLsShortenedBefore() {
+        String urlAlias;
+        try (ConfigurableApplicationContext applicationContext = start()) {
+            urlAlias = applicationContext.getBean(URLEntryService.class).shortUrl(URL_ADDRESS);
+        }
+
+        try (ConfigurableApplicationContext applicationContext = start()) {
+            URLEntryService urlEntryService = applicationContext.getBean(URLEntryService.class);
+            assertThat(urlEntryService.findRedirectByUrlAlias(urlAlias).getUrlAddress()).isEqualTo(URL_ADDRESS);
+            assertThat(urlEntryService.shortUrl(URL_ADDRESS)).isEqualTo(urlAlias);
+        }
+    }
+
+    @Test
+    @DisplayName("when the application starts, then the migrations create CACHED tables with the tuned storage settings.")
+    void onStartUp_createsCachedTablesWithTunedStorageSettings() {
+        try (ConfigurableApplicationContext applicationContext = start()) {
+            JdbcTemplate jdbcTemplate = applicationContext.getBean(JdbcTemplate.class);
+
+            assertThat(jdbcTemplate.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.SYSTEM_TABLES "
+                    + "WHERE TABLE_SCHEM = 'PUBLIC' AND HSQLDB_TYPE = 'CACHED'", String.class))
+                .contains("URL_ENTRY", "URL_ENTRY_ID_ALLOCATION", "URL_ENTRY_ID_LEASE", "URL_ENTRY_VIEWS_ROLLUP");
+            assertThat(jdbcTemplate.queryForObject("SELECT PROPERTY_VALUE FROM INFORMATION_SCHEMA.SYSTEM_PROPERTIES "
+                    + "WHERE PROPERTY_NAME = 'hsqldb.cache_rows'", String.class))
+                .isEqualTo("500000");
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.BenchmarkApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures shortens from 64 threads, more than the write connections, of mostly distinct new URLs, so every call
+ * contends for connections, id blocks and the URL_ENTRY table as distinct clients do. {@link #sharedPercent} of the
+ * calls shorten the latest new URL again instead, most likely while it is still being inserted, as when a link is
+ * shared by many clients at once. The write pool keeps its settings, so shortens not handed a write connection in
+ * time fail as they would with a 503; they are counted as rejected rather than aborting the trial. The URLs
+ * shortened, the entries created, the conflicts retried and the rejected shortens are reported at tear down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Threads(64)
+@Fork(1)
+public class ShortenContentionBenchmark {
+
+    @Param({ "0", "10" })
+    private int sharedPercent;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private URLEntryService urlEntryService;
+
+    private URLEntryRepository urlEntryRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong urls = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.applicationContext = BenchmarkApplication.start();
+        this.urlEntryService = this.applicationContext.getBean(URLEntryService.class);
+        this.urlEntryRepository = this.applicationContext.getBean(URLEntryRepository.class);
+        this.meterRegistry = this.applicationContext.getBean(MeterRegistry.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nShortened %d URLs into %d entries, retrying %.0f conflicts and rejecting %d shortens.%n",
+            this.urls.get(), this.urlEntryRepository.count(),
+            this.meterRegistry.get("url.shorten.conflicts").counter().count(), this.rejected.get());
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public String shortNewUrl() {
+        boolean shared = ThreadLocalRandom.current().nextInt(100) < this.sharedPercent;
+        long url = shared ? Math.max(this.urls.get() - 1, 0L) : this.urls.getAndIncrement();
+        try {
+            return this.urlEntryService.shortUrl(String.format(
+                "https://www.catalogue.example.com/products/%d?utm_source=share", url));
+        } catch (DataAccessResourceFailureException | CannotCreateTransactionException exception) {
+            this.rejected.incrementAndGet();
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+
+@Tag("integration")
+@TestPropertySource(properties = "application.id-allocation.block-size=10")
+@DisplayName("Given I shorten URLs...")
+class StandardURLEntryServiceIT extends StandardIT {
+
+    private static final int THREADS = 32;
+
+    private static final int URLS_PER_THREAD = 50;
+
+    private static final String URL_ADDRESS = "https://www.google.com/search?q=conflict";
+
+    @Autowired
+    private URLEntryService urlEntryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private URLEntryIdAllocator urlEntryIdAllocator;
+
+    @Test
+    @DisplayName("from more threads than write connections while id blocks run out, then every URL is shortened with an alias of its own.")
+    void shortUrl_withIdBlocksRunningOutUnderLoad_shortensEveryURL() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<String>>> results = new ArrayList<>(THREADS);
+        for (int thread = 0; thread < THREADS; thread++) {
+            int firstURL = thread * URLS_PER_THREAD;
+            results.add(executor.submit(() -> {
+                List<String> urlAliases = new ArrayList<>(URLS_PER_THREAD);
+                for (int url = firstURL; url < firstURL + URLS_PER_THREAD; url++) {
+                    urlAliases.add(this.urlEntryService.shortUrl("https://www.google.com/search?q=" + url));
+                }
+                return urlAliases;
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        List<String> urlAliases = new ArrayList<>(THREADS * URLS_PER_THREAD);
+        for (Future<List<String>> result : results) {
+            urlAliases.addAll(result.get());
+        }
+        assertThat(urlAliases).doesNotHaveDuplicates().hasSize(THREADS * URLS_PER_THREAD);
+        assertThat(this.urlEntryRepository.count()).isEqualTo(THREADS * URLS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("when another node inserts the same new URL meanwhile, then the alias of the entry inserted by the other node is returned.")
+    void shortUrl_withSameNewURLInsertedByAnotherNodeMeanwhile_returnsTheOtherNodeAlias() {
+        TransactionTemplate otherNode = new TransactionTemplate(this.transactionManager);
+        otherNode.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        URLEntry otherNodeEntry = new URLEntry(1L << 40, URL_ADDRESS, new Date());
+        doAnswer(invocation -> {
+            otherNode.executeWithoutResult(status -> this.urlEntryRepository.save(otherNodeEntry));
+            return invocation.callRealMethod();
+        }).when(this.urlEntryIdAllocator).next();
+
+        String result = this.urlEntryService.shortUrl(URL_ADDRESS);
+
+        assertThat(result).isEqualTo(Base62.encode(otherNodeEntry.getId()));
+        assertThat(this.urlEntryRepository.count()).isOne();
+    }
+
+}
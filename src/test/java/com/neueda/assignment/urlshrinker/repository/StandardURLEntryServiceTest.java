@@ -1,9 +1,16 @@
 package com.neueda.assignment.urlshrinker.repository;
 
+import com.neueda.assignment.urlshrinker.cache.URLEntryIdFilter;
+import com.neueda.assignment.urlshrinker.cache.URLLookUpCacheProperties;
+import com.neueda.assignment.urlshrinker.config.ReadDataSourceProperties;
 import com.neueda.assignment.urlshrinker.fixture.URLEntryFixture;
 import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
 import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
 import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,24 +20,74 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class StandardURLEntryServiceTest {
 
     private static final String FAKE_URL = "http://url.test.com";
     private static final String FAKE_ALIAS = "fkAlias";
+    private static final int CONCURRENT_MISSES = 32;
 
     @Mock
     private URLEntryRepository urlEntryRepository;
 
+    @Mock
+    private URLEntryQueries urlEntryQueries;
+
+    @Mock
+    private URLEntryIdAllocator urlEntryIdAllocator;
+
+    @Mock
+    private URLEntryIdFilter urlEntryIdFilter;
+
+    @Mock
+    private URLEntryWriter urlEntryWriter;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ShortenProperties shortenProperties = new ShortenProperties();
+
+    @Spy
+    private URLLookUpCacheProperties urlLookUpCacheProperties = new URLLookUpCacheProperties();
+
+    @Spy
+    private ReadDataSourceProperties readDataSourceProperties = new ReadDataSourceProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     @Spy
     private StandardURLEntryService urlEntryService;
@@ -40,26 +97,41 @@ class StandardURLEntryServiceTest {
     class FindOrCreateTest {
 
         @Test
-        @DisplayName("with a non-existing URL, then the create() method is invoked to persist a new URL entry and returns it.")
-        void withNonExistingUrl_delegatesToCreateMethodAndReturnsThePersistedEntry() {
-            doReturn(Optional.empty()).when(urlEntryRepository).findByUrlAddress(FAKE_URL);
+        @DisplayName("with a non-existing URL, then the create() method is invoked to persist a new URL entry and returns its id.")
+        void withNonExistingUrl_delegatesToCreateMethodAndReturnsThePersistedEntryId() {
+            doReturn(OptionalLong.empty()).when(urlEntryQueries).findIdByUrlAddress(FAKE_URL);
             URLEntry persistedURLEntry = URLEntryFixture.getDefault();
             doReturn(persistedURLEntry).when(urlEntryService).create(FAKE_URL);
 
-            URLEntry result = urlEntryService.findOrCreate(FAKE_URL);
+            long result = urlEntryService.findOrCreate(FAKE_URL);
 
-            assertThat(result).isSameAs(persistedURLEntry);
+            assertThat(result).isEqualTo(persistedURLEntry.getId());
+            assertThat(meterRegistry.get("url.shorten.phase").tag("phase", "deduplication").timer().count()).isOne();
+            assertThat(meterRegistry.get("url.shorten.phase").tag("phase", "insertion").timer().count()).isOne();
         }
 
         @Test
-        @DisplayName("with an existing URL, then the URLEntry found is returned..")
-        void withExistingUrl_delegatesToHandleExistingEntryAndReturnsTheFoundEntry() {
-            URLEntry existingEntry = URLEntryFixture.getDefault();
-            doReturn(Optional.of(existingEntry)).when(urlEntryRepository).findByUrlAddress(FAKE_URL);
+        @DisplayName("with an existing URL, then the id of the entry found is returned.")
+        void withExistingUrl_returnsTheFoundEntryId() {
+            doReturn(OptionalLong.of(3L)).when(urlEntryQueries).findIdByUrlAddress(FAKE_URL);
 
-            URLEntry result = urlEntryService.findOrCreate(FAKE_URL);
+            long result = urlEntryService.findOrCreate(FAKE_URL);
 
-            assertThat(result).isSameAs(existingEntry);
+            assertThat(result).isEqualTo(3L);
+            assertThat(meterRegistry.get("url.shorten.phase").tag("phase", "deduplication").timer().count()).isOne();
+            assertThat(meterRegistry.get("url.shorten.phase").tag("phase", "insertion").timer().count()).isZero();
+        }
+
+        @Test
+        @DisplayName("with an URL waiting to be persisted, then the id of the pending URLEntry is returned without querying the repository.")
+        void withPendingUrl_returnsThePendingEntryIdWithoutQueryingTheRepository() {
+            URLEntry pendingEntry = URLEntryFixture.getDefault();
+            doReturn(Optional.of(pendingEntry)).when(urlEntryWriter).findPendingByUrlAddress(FAKE_URL);
+
+            long result = urlEntryService.findOrCreate(FAKE_URL);
+
+            assertThat(result).isEqualTo(pendingEntry.getId());
+            verifyNoInteractions(urlEntryRepository, urlEntryQueries);
         }
 
     }
@@ -69,20 +141,23 @@ class StandardURLEntryServiceTest {
     class CreateTest {
 
         @Test
-        @DisplayName("with valid URL, then a new URLEntry is created, persisted and returned.")
+        @DisplayName("with valid URL, then a new URLEntry is created with an allocated id, written and returned.")
         void withValidURLAndAlias_createsPersistsAndReturnsNewURLEntry() {
             URLEntry persistedEntry = URLEntryFixture.getDefault();
-            doReturn(persistedEntry).when(urlEntryRepository).save(any(URLEntry.class));
+            doReturn(persistedEntry.getId()).when(urlEntryIdAllocator).next();
+            doReturn(persistedEntry).when(urlEntryWriter).write(any(URLEntry.class));
 
             URLEntry result = urlEntryService.create(FAKE_URL);
 
             assertThat(result).isSameAs(persistedEntry);
 
             ArgumentCaptor<URLEntry> newEntryCaptor = ArgumentCaptor.forClass(URLEntry.class);
-            verify(urlEntryRepository).save(newEntryCaptor.capture());
+            verify(urlEntryWriter).write(newEntryCaptor.capture());
             assertThat(newEntryCaptor.getValue())
-                .hasNoNullFieldsOrPropertiesExcept("id")
+                .hasNoNullFieldsOrPropertiesExcept("redirectPolicy")
+                .hasFieldOrPropertyWithValue("id", persistedEntry.getId())
                 .hasFieldOrPropertyWithValue("urlAddress", FAKE_URL);
+            verify(urlEntryIdFilter).registerExisting(persistedEntry.getId());
         }
 
     }
@@ -96,39 +171,269 @@ class StandardURLEntryServiceTest {
         void withNoOtherPreCondition_delegatesToFindOrCreateMethodToGenerateShortenedVersionAndReturnsTheAliasOfItsResult() {
             URLEntry existingEntry = URLEntryFixture.getDefault();
             String expectedAlias = Base62.encode(existingEntry.getId());
-            doReturn(existingEntry).when(urlEntryService).findOrCreate(FAKE_URL);
+            doReturn(existingEntry.getId()).when(urlEntryService).findOrCreate(FAKE_URL);
 
             String result = urlEntryService.shortUrl(FAKE_URL);
 
             assertThat(result).isEqualTo(expectedAlias);
         }
 
+        @Test
+        @DisplayName("with the same new URL shortened by many requests at once, then a single entry is created and every request receives its alias.")
+        void withConcurrentShortensOfSameNewUrl_createsASingleEntry() throws Exception {
+            URLEntry newEntry = URLEntryFixture.getDefault();
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await();
+                return newEntry;
+            }).when(urlEntryWriter).write(any(URLEntry.class));
+
+            ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+            try {
+                List<Future<String>> results = new ArrayList<>();
+                for (int index = 0; index < CONCURRENT_MISSES; index++) {
+                    results.add(executor.submit(() -> urlEntryService.shortUrl(FAKE_URL)));
+                }
+                Gauge waiting = meterRegistry.get("url.shorten.coalesced.waiting").gauge();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (waiting.value() < CONCURRENT_MISSES - 1 && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                release.countDown();
+
+                for (Future<String> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(Base62.encode(newEntry.getId()));
+                }
+            } finally {
+                executor.shutdown();
+            }
+            verify(urlEntryWriter, times(1)).write(any(URLEntry.class));
+        }
+
+        @Test
+        @DisplayName("with a new URL inserted by another node meanwhile, then it is looked up again and the alias of the entry inserted by the other node is returned.")
+        void withNewUrlInsertedByAnotherNodeMeanwhile_returnsTheAliasOfTheOtherNodeEntry() {
+            doReturn(OptionalLong.empty(), OptionalLong.of(7L)).when(urlEntryQueries).findIdByUrlAddress(FAKE_URL);
+            doReturn(3L).when(urlEntryIdAllocator).next();
+            doThrow(new DuplicateKeyException("UNQ_URL_ENTRY_URL_DIGEST")).when(urlEntryWriter).write(any(URLEntry.class));
+
+            String result = urlEntryService.shortUrl(FAKE_URL);
+
+            assertThat(result).isEqualTo(Base62.encode(7L));
+            assertThat(meterRegistry.get("url.shorten.conflicts").counter().count()).isOne();
+        }
+
+    }
+
+    @Nested
+    @DisplayName("Given I receive several URL addresses to shorten at once...")
+    class ShortUrlsTest {
+
+        @Test
+        @DisplayName("with pending, existing and new URLs, then only the new ones are written and every alias is returned.")
+        void withPendingExistingAndNewURLs_writesOnlyNewEntriesAndReturnsEveryAlias() {
+            URLEntry pendingEntry = new URLEntry(1L, "http://pending.test.com", new Date());
+            URLEntry existingEntry = new URLEntry(2L, "http://existing.test.com", new Date());
+            Set<String> urlAddresses = Set.of(pendingEntry.getUrlAddress(), existingEntry.getUrlAddress(), FAKE_URL);
+            doReturn(Optional.empty()).when(urlEntryWriter).findPendingByUrlAddress(anyString());
+            doReturn(Optional.of(pendingEntry)).when(urlEntryWriter).findPendingByUrlAddress(pendingEntry.getUrlAddress());
+            doReturn(List.of(existingEntry)).when(urlEntryRepository).findAllByUrlAddressIn(urlAddresses);
+            doReturn(3L).when(urlEntryIdAllocator).next();
+            doAnswer(invocation -> invocation.getArgument(0)).when(urlEntryWriter).writeAll(anyList());
+
+            Map<String, String> result = urlEntryService.shortUrls(urlAddresses);
+
+            assertThat(result)
+                .hasSize(3)
+                .containsEntry(pendingEntry.getUrlAddress(), Base62.encode(1L))
+                .containsEntry(existingEntry.getUrlAddress(), Base62.encode(2L))
+                .containsEntry(FAKE_URL, Base62.encode(3L));
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<URLEntry>> newEntriesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(urlEntryWriter).writeAll(newEntriesCaptor.capture());
+            assertThat(newEntriesCaptor.getValue())
+                .singleElement()
+                .hasFieldOrPropertyWithValue("id", 3L)
+                .hasFieldOrPropertyWithValue("urlAddress", FAKE_URL);
+            verify(urlEntryIdFilter).registerExisting(3L);
+        }
+
+        @Test
+        @DisplayName("with a new URL inserted by another node meanwhile, then they are looked up again and the alias of the entry inserted by the other node is returned.")
+        void withNewUrlInsertedByAnotherNodeMeanwhile_returnsTheAliasOfTheOtherNodeEntry() {
+            Set<String> urlAddresses = Set.of(FAKE_URL);
+            doReturn(Optional.empty()).when(urlEntryWriter).findPendingByUrlAddress(FAKE_URL);
+            doReturn(List.of(), List.of(new URLEntry(7L, FAKE_URL, new Date())))
+                .when(urlEntryRepository).findAllByUrlAddressIn(urlAddresses);
+            doReturn(3L).when(urlEntryIdAllocator).next();
+            doThrow(new DataIntegrityViolationException("UNQ_URL_ENTRY_URL_DIGEST")).when(urlEntryWriter).writeAll(anyList());
+
+            Map<String, String> result = urlEntryService.shortUrls(urlAddresses);
+
+            assertThat(result).containsExactly(Map.entry(FAKE_URL, Base62.encode(7L)));
+            assertThat(meterRegistry.get("url.shorten.conflicts").counter().count()).isOne();
+        }
+
     }
 
     @Nested
     @DisplayName("Given I look up for an URL based on its URL alias...")
-    class FindUrlAddressByUrlAliasTest {
+    class FindRedirectByUrlAliasTest {
 
         @Test
         @DisplayName("for an existing URL entry, then returns its URL address.")
         void withExistingURLEntry_returnsUrlEntryUrlAddress() {
             URLEntry existingEntry = URLEntryFixture.getDefault();
             existingEntry.setId(Base62.decode(FAKE_ALIAS));
-            doReturn(Optional.of(existingEntry)).when(urlEntryRepository).findById(existingEntry.getId());
+            doReturn(Optional.of(new URLRedirect(existingEntry.getUrlAddress(), null)))
+                .when(urlEntryQueries).findRedirectById(existingEntry.getId());
+
+            URLRedirect result = urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS);
+
+            assertThat(result.getUrlAddress()).isEqualTo(existingEntry.getUrlAddress());
+            assertThat(result.getRedirectPolicy()).isNull();
+            assertThat(meterRegistry.get("url.lookup.load").timer().count()).isOne();
+        }
+
+        @Test
+        @DisplayName("for an URL entry waiting to be persisted, then returns its URL address without querying the repository.")
+        void withPendingURLEntry_returnsUrlEntryUrlAddressWithoutQueryingTheRepository() {
+            URLEntry pendingEntry = URLEntryFixture.getDefault();
+            pendingEntry.setId(Base62.decode(FAKE_ALIAS));
+            doReturn(Optional.of(pendingEntry)).when(urlEntryWriter).findPendingById(pendingEntry.getId());
+
+            URLRedirect result = urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS);
+
+            assertThat(result.getUrlAddress()).isEqualTo(pendingEntry.getUrlAddress());
+            verifyNoInteractions(urlEntryRepository, urlEntryQueries);
+        }
+
+        @Test
+        @DisplayName("for an URL entry with a redirect policy, then returns its URL address along with its policy.")
+        void withURLEntryWithRedirectPolicy_returnsUrlAddressAndRedirectPolicy() {
+            URLEntry existingEntry = URLEntryFixture.getDefault();
+            existingEntry.setId(Base62.decode(FAKE_ALIAS));
+            existingEntry.setRedirectPolicy(RedirectPolicy.PERMANENT);
+            doReturn(Optional.of(new URLRedirect(existingEntry.getUrlAddress(), RedirectPolicy.PERMANENT)))
+                .when(urlEntryQueries).findRedirectById(existingEntry.getId());
 
-            String result = urlEntryService.findUrlAddressByUrlAlias(FAKE_ALIAS);
+            URLRedirect result = urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS);
 
-            assertThat(result).isEqualTo(existingEntry.getUrlAddress());
+            assertThat(result).isEqualTo(new URLRedirect(existingEntry.getUrlAddress(), RedirectPolicy.PERMANENT));
         }
 
         @Test
         @DisplayName("for a non-existing URL entry, then throws a URLNotFoundException.")
         void withNonExistingURLEntry_throwsURLNotFoundException() {
-            Long decodedId = Base62.decode(FAKE_ALIAS);
-            doReturn(Optional.empty()).when(urlEntryRepository).findById(decodedId);
-            assertThatThrownBy(() -> urlEntryService.findUrlAddressByUrlAlias(FAKE_ALIAS))
+            long decodedId = Base62.decode(FAKE_ALIAS);
+            doReturn(Optional.empty()).when(urlEntryQueries).findRedirectById(decodedId);
+            assertThatThrownBy(() -> urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS))
                 .isInstanceOf(URLNotFoundException.class)
                 .hasMessage(String.format("No URL found for the short version '%s'.", FAKE_ALIAS));
+            verify(urlEntryIdFilter).registerMissing(decodedId);
+        }
+
+        @Test
+        @DisplayName("for an URL entry not yet replicated to the read replica, then returns its URL address from the primary database.")
+        void withURLEntryMissingOnReplica_returnsUrlAddressFromPrimaryDatabase() {
+            readDataSourceProperties.setUrl("jdbc:hsqldb:mem:replica_urlshrinker");
+            long decodedId = Base62.decode(FAKE_ALIAS);
+            doReturn(Optional.empty(), Optional.of(new URLRedirect(FAKE_URL, null)))
+                .when(urlEntryQueries).findRedirectById(decodedId);
+
+            URLRedirect result = urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS);
+
+            assertThat(result.getUrlAddress()).isEqualTo(FAKE_URL);
+            verify(urlEntryQueries, times(2)).findRedirectById(decodedId);
+            verify(urlEntryIdFilter).registerExisting(decodedId);
+        }
+
+        @Test
+        @DisplayName("for an id known to be missing, then throws a URLNotFoundException without querying the repository.")
+        void withKnownMissingId_throwsURLNotFoundExceptionWithoutQueryingTheRepository() {
+            doReturn(true).when(urlEntryIdFilter).isKnownMissing(Base62.decode(FAKE_ALIAS));
+            assertThatThrownBy(() -> urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS))
+                .isInstanceOf(URLNotFoundException.class)
+                .hasMessage(String.format("No URL found for the short version '%s'.", FAKE_ALIAS));
+            verifyNoInteractions(urlEntryRepository, urlEntryQueries);
+        }
+
+        @Test
+        @DisplayName("for an alias with invalid characters, then throws a URLNotFoundException without querying the repository.")
+        void withInvalidAlias_throwsURLNotFoundExceptionWithoutQueryingTheRepository() {
+            String invalidAlias = "fk-Alias";
+            assertThatThrownBy(() -> urlEntryService.findRedirectByUrlAlias(invalidAlias))
+                .isInstanceOf(URLNotFoundException.class)
+                .hasMessage(String.format("No URL found for the short version '%s'.", invalidAlias));
+            verifyNoInteractions(urlEntryRepository, urlEntryQueries);
+        }
+
+
+        @Test
+        @DisplayName("for an alias missed by many requests at once, then the repository is queried once and every request receives its URL.")
+        void withConcurrentMisses_queriesTheRepositoryOnce() throws Exception {
+            URLEntry existingEntry = URLEntryFixture.getDefault();
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await();
+                return Optional.of(new URLRedirect(existingEntry.getUrlAddress(), null));
+            }).when(urlEntryQueries).findRedirectById(Base62.decode(FAKE_ALIAS));
+
+            List<Future<Object>> results = missConcurrently(release);
+
+            for (Future<Object> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(new URLRedirect(existingEntry.getUrlAddress(), null));
+            }
+            verify(urlEntryQueries, times(1)).findRedirectById(Base62.decode(FAKE_ALIAS));
+            assertThat(meterRegistry.get("url.lookup.coalesced").timer().count()).isEqualTo(CONCURRENT_MISSES - 1L);
+            assertThat(meterRegistry.get("url.lookup.load").timer().count()).isOne();
+        }
+
+        @Test
+        @DisplayName("for a non-existing alias missed by many requests at once, then the repository is queried once and every request receives a URLNotFoundException.")
+        void withConcurrentMissesOfNonExistingURLEntry_queriesTheRepositoryOnceAndThrowsToEveryRequest() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            doAnswer(invocation -> {
+                release.await();
+                return Optional.empty();
+            }).when(urlEntryQueries).findRedirectById(Base62.decode(FAKE_ALIAS));
+
+            List<Future<Object>> results = missConcurrently(release);
+
+            for (Future<Object> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isInstanceOf(URLNotFoundException.class);
+            }
+            verify(urlEntryQueries, times(1)).findRedirectById(Base62.decode(FAKE_ALIAS));
+        }
+
+        /**
+         * Looks up for the alias from {@link #CONCURRENT_MISSES} threads, releasing the repository once every thread
+         * but the loading one waits for it, and collects the redirects or exceptions of each thread.
+         */
+        private List<Future<Object>> missConcurrently(CountDownLatch release) throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_MISSES);
+            try {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int index = 0; index < CONCURRENT_MISSES; index++) {
+                    results.add(executor.submit(() -> {
+                        try {
+                            return urlEntryService.findRedirectByUrlAlias(FAKE_ALIAS);
+                        } catch (URLNotFoundException e) {
+                            return e;
+                        }
+                    }));
+                }
+
+                Gauge waiting = meterRegistry.get("url.lookup.coalesced.waiting").gauge();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (waiting.value() < CONCURRENT_MISSES - 1 && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                release.countDown();
+                return results;
+            } finally {
+                executor.shutdown();
+            }
         }
 
     }
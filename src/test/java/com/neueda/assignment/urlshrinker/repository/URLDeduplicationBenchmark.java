@@ -0,0 +1,160 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the shorten path at the database level (deduplication lookup followed by an insert when the
+ * URL is new) with the URL_ENTRY table holding 1M, 10M and 50M rows, comparing the former unique constraint over
+ * URL_ADDRESS with the unique constraint over URL_DIGEST and URL_ADDRESS, looked up by digest.
+ * <p>
+ * Each table is seeded once into a file based HSQLDB database with cached tables under
+ * {@code target/benchmark-databases}, and reused by later runs. Seeding 50M rows takes a long time and requires a few
+ * gigabytes of disk, so the larger sizes are better selected explicitly, e.g. {@code -p rows=1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class URLDeduplicationBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({ "1000000", "10000000", "50000000" })
+    private long rows;
+
+    @Param({ "URL_ADDRESS", "URL_DIGEST" })
+    private String index;
+
+    private Connection connection;
+
+    private PreparedStatement select;
+
+    private PreparedStatement insert;
+
+    private long nextNewURL;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        this.connection = DriverManager.getConnection(String.format(
+            "jdbc:hsqldb:file:target/benchmark-databases/deduplication-%s-%d;hsqldb.default_table_type=cached;"
+                + "hsqldb.cache_rows=500000;hsqldb.log_data=false", this.index, this.rows), "sa", "");
+
+        if (!tableExists()) {
+            createTable();
+            seed();
+        }
+
+        boolean byDigest = "URL_DIGEST".equals(this.index);
+        this.select = this.connection.prepareStatement(byDigest
+            ? "SELECT ID, URL_ADDRESS FROM URL_ENTRY WHERE URL_DIGEST = ?"
+            : "SELECT ID, URL_ADDRESS FROM URL_ENTRY WHERE URL_ADDRESS = ?");
+        this.insert = this.connection.prepareStatement(
+            "INSERT INTO URL_ENTRY (URL_ADDRESS, URL_DIGEST, CREATED_AT) VALUES (?, ?, CURRENT_TIMESTAMP)");
+        this.nextNewURL = this.rows + System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public long shortenExistingURL() throws SQLException {
+        return shorten(urlAddress(ThreadLocalRandom.current().nextLong(this.rows)));
+    }
+
+    @Benchmark
+    public long shortenNewURL() throws SQLException {
+        return shorten(urlAddress(this.nextNewURL++));
+    }
+
+    private long shorten(String urlAddress) throws SQLException {
+        byte[] urlDigest = URLDigest.of(urlAddress);
+        if ("URL_DIGEST".equals(this.index)) {
+            this.select.setBytes(1, urlDigest);
+        } else {
+            this.select.setString(1, urlAddress);
+        }
+
+        try (ResultSet result = this.select.executeQuery()) {
+            while (result.next()) {
+                if (result.getString(2).equals(urlAddress)) {
+                    return result.getLong(1);
+                }
+            }
+        }
+
+        this.insert.setString(1, urlAddress);
+        this.insert.setBytes(2, urlDigest);
+        return this.insert.executeUpdate();
+    }
+
+    private boolean tableExists() throws SQLException {
+        try (ResultSet tables = this.connection.getMetaData().getTables(null, "PUBLIC", "URL_ENTRY", null)) {
+            return tables.next();
+        }
+    }
+
+    private void createTable() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("CREATE TABLE URL_ENTRY (ID BIGINT IDENTITY NOT NULL PRIMARY KEY, "
+                + "URL_ADDRESS VARCHAR(2000) NOT NULL, URL_DIGEST BINARY(16) NOT NULL, CREATED_AT DATETIME NOT NULL)");
+            if ("URL_DIGEST".equals(this.index)) {
+                statement.execute("ALTER TABLE URL_ENTRY ADD CONSTRAINT UNQ_URL_ENTRY_URL_DIGEST "
+                    + "UNIQUE(URL_DIGEST, URL_ADDRESS)");
+            } else {
+                statement.execute("ALTER TABLE URL_ENTRY ADD CONSTRAINT UNQ_URL_ENTRY_URL_ADDRESS UNIQUE(URL_ADDRESS)");
+            }
+        }
+    }
+
+    private void seed() throws SQLException {
+        try (PreparedStatement seed = this.connection.prepareStatement(
+                "INSERT INTO URL_ENTRY (URL_ADDRESS, URL_DIGEST, CREATED_AT) VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+            for (long row = 0; row < this.rows; row++) {
+                String urlAddress = urlAddress(row);
+                seed.setString(1, urlAddress);
+                seed.setBytes(2, URLDigest.of(urlAddress));
+                seed.addBatch();
+                if ((row + 1) % SEED_BATCH_SIZE == 0 || row + 1 == this.rows) {
+                    seed.executeBatch();
+                }
+            }
+        }
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        }
+    }
+
+    private static String urlAddress(long value) {
+        return String.format("https://www.catalogue.example.com/products/%d?utm_source=newsletter&utm_campaign=%d",
+            value, value % 1000);
+    }
+
+}
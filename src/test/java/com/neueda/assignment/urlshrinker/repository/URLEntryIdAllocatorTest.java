@@ -0,0 +1,104 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class URLEntryIdAllocatorTest {
+
+    private static final long BLOCK_SIZE = 100L;
+
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        this.dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:allocator_urlshrinker", "sa", "");
+        Flyway flyway = Flyway.configure()
+            .dataSource(this.dataSource)
+            .locations("classpath:db/migration", "classpath:com/neueda/assignment/urlshrinker/repository/migration")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    private URLEntryIdAllocator newAllocator(Duration leaseDuration) {
+        return new URLEntryIdAllocator(this.dataSource, BLOCK_SIZE, leaseDuration);
+    }
+
+    @Test
+    @DisplayName("Given I request ids beyond the block size, then new blocks are leased and ids are handed out in sequence.")
+    void next_beyondTheBlockSize_leasesNewBlocks() {
+        URLEntryIdAllocator allocator = newAllocator(Duration.ofMinutes(10));
+
+        for (long expectedId = 1; expectedId <= BLOCK_SIZE * 3; expectedId++) {
+            assertThat(allocator.next()).isEqualTo(expectedId);
+        }
+        assertThat(allocator.findHighestLeasedId()).contains(BLOCK_SIZE * 3);
+    }
+
+    @Test
+    @DisplayName("Given the allocator is restarted, then ids left in its block are skipped and never reused.")
+    void next_afterRestart_neverReusesIds() {
+        long lastIdBeforeRestart = newAllocator(Duration.ofMinutes(10)).next();
+
+        long firstIdAfterRestart = newAllocator(Duration.ofMinutes(10)).next();
+
+        assertThat(firstIdAfterRestart).isEqualTo(lastIdBeforeRestart + BLOCK_SIZE);
+    }
+
+    @Test
+    @DisplayName("Given the lease of a block is over, then a new block is leased even if the former is not exhausted.")
+    void next_afterLeaseIsOver_leasesNewBlock() {
+        URLEntryIdAllocator allocator = newAllocator(Duration.ZERO);
+
+        assertThat(allocator.next()).isEqualTo(1L);
+        assertThat(allocator.next()).isEqualTo(BLOCK_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("Given several nodes and threads request ids concurrently, then every id is handed out only once.")
+    void next_withConcurrentNodesAndThreads_handsOutUniqueIds() throws InterruptedException {
+        URLEntryIdAllocator firstNode = newAllocator(Duration.ofMinutes(10));
+        URLEntryIdAllocator secondNode = newAllocator(Duration.ofMinutes(10));
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int task = 0; task < 8; task++) {
+            URLEntryIdAllocator allocator = task % 2 == 0 ? firstNode : secondNode;
+            executor.execute(() -> {
+                for (int index = 0; index < 1_000; index++) {
+                    ids.add(allocator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(ids).hasSize(8_000);
+    }
+
+    @Test
+    @DisplayName("Given blocks are leased, then the lowest open leased id is the first id of the oldest open block.")
+    void findLowestOpenLeasedId_withOpenLeases_returnsTheFirstIdOfTheOldestBlock() {
+        URLEntryIdAllocator allocator = newAllocator(Duration.ofMinutes(10));
+        assertThat(allocator.findLowestOpenLeasedId()).isEmpty();
+
+        allocator.next();
+        newAllocator(Duration.ofMinutes(10)).next();
+
+        assertThat(allocator.findLowestOpenLeasedId()).contains(1L);
+    }
+
+}
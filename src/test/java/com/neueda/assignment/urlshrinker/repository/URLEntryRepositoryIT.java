@@ -0,0 +1,35 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Tag("integration")
+@DisplayName("Given I persist an URL entry...")
+class URLEntryRepositoryIT extends StandardIT {
+
+    /**
+     * Id far beyond the ones handed out by the allocator, so the aliases expected by other tests are not shifted.
+     */
+    private static final long URL_ENTRY_ID = 1L << 40;
+
+    @Test
+    @DisplayName("when another entry already has its URL address, then inserting it is rejected.")
+    void save_withExistingURLAddress_throwsDataIntegrityViolationException() {
+        this.urlEntryRepository.save(new URLEntry(URL_ENTRY_ID + 1, "https://www.google.com", new Date()));
+
+        assertThatThrownBy(() -> this.urlEntryRepository.saveAndFlush(
+            new URLEntry(URL_ENTRY_ID, "https://www.google.com", new Date())))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(this.urlEntryRepository.count()).isOne();
+    }
+
+}
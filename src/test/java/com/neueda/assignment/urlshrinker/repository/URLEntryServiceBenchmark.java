@@ -0,0 +1,109 @@
+package com.neueda.assignment.urlshrinker.repository;
+
+import com.neueda.assignment.urlshrinker.BenchmarkApplication;
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link URLEntryService} methods through the Spring proxies, so transactions and caching are included,
+ * for the default JPA store, for the same store queried through plain JDBC ({@code application.jdbc-queries.enabled})
+ * and for the {@code mapped} store. The look ups are measured with the alias already cached (warm) and evicted right
+ * before the call (cold); the {@code mapped} store is not cached, so both figures are close. Run with
+ * {@code -prof gc} to compare the allocations per operation of the JPA and JDBC queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class URLEntryServiceBenchmark {
+
+    private static final int SEEDED_URLS = 10_000;
+
+    @Param({ "jpa", "jdbc", "mapped" })
+    private String store;
+
+    private ConfigurableApplicationContext applicationContext;
+
+    private URLEntryService urlEntryService;
+
+    private Cache urlLookUpCache;
+
+    private String[] urlAliases;
+
+    private long nextNewURL;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty("application.jdbc-queries.enabled", String.valueOf("jdbc".equals(this.store)));
+        this.applicationContext = "mapped".equals(this.store)
+            ? BenchmarkApplication.start("mapped")
+            : BenchmarkApplication.start();
+        this.urlEntryService = this.applicationContext.getBean(URLEntryService.class);
+        this.urlLookUpCache = this.applicationContext.getBean(CacheManager.class).getCache(CacheConfiguration.URL_LOOK_UP);
+
+        this.urlAliases = new String[SEEDED_URLS];
+        for (int index = 0; index < SEEDED_URLS; index++) {
+            this.urlAliases[index] = this.urlEntryService.shortUrl(urlAddress(index));
+            this.urlEntryService.findRedirectByUrlAlias(this.urlAliases[index]);
+        }
+        this.nextNewURL = SEEDED_URLS;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.applicationContext.close();
+    }
+
+    @Benchmark
+    public String shortExistingUrl() {
+        return this.urlEntryService.shortUrl(urlAddress(ThreadLocalRandom.current().nextInt(SEEDED_URLS)));
+    }
+
+    @Benchmark
+    public String shortNewUrl() {
+        return this.urlEntryService.shortUrl(urlAddress(this.nextNewURL++));
+    }
+
+    @Benchmark
+    public URLRedirect findRedirectByUrlAliasWarm() {
+        return this.urlEntryService.findRedirectByUrlAlias(randomUrlAlias());
+    }
+
+    @Benchmark
+    public URLRedirect findRedirectByUrlAliasCold() {
+        String urlAlias = randomUrlAlias();
+        this.urlLookUpCache.evict(urlAlias);
+        return this.urlEntryService.findRedirectByUrlAlias(urlAlias);
+    }
+
+    private String randomUrlAlias() {
+        return this.urlAliases[ThreadLocalRandom.current().nextInt(SEEDED_URLS)];
+    }
+
+    private static String urlAddress(long value) {
+        return String.format("https://www.catalogue.example.com/products/%d?utm_source=newsletter&utm_campaign=%d",
+            value, value % 1000);
+    }
+
+}
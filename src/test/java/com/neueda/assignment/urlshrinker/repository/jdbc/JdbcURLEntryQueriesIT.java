@@ -0,0 +1,76 @@
+package com.neueda.assignment.urlshrinker.repository.jdbc;
+
+import com.neueda.assignment.urlshrinker.StandardIT;
+import com.neueda.assignment.urlshrinker.model.entity.RedirectPolicy;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("integration")
+@DisplayName("Given I query URL entries through plain JDBC...")
+class JdbcURLEntryQueriesIT extends StandardIT {
+
+    /**
+     * Far beyond the ids handed out by the allocator, so the aliases expected by other tests are not shifted.
+     */
+    private static final long INSERTED_ID = 1L << 40;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcURLEntryQueries urlEntryQueries;
+
+    @BeforeEach
+    void setUpQueries() {
+        this.urlEntryQueries = new JdbcURLEntryQueries(this.jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("when I insert an entry, then it is found by JPA with every column set.")
+    void insert_withNewEntry_insertsEveryColumn() {
+        URLEntry urlEntry = new URLEntry(INSERTED_ID, "https://www.google.com", new Date());
+
+        this.urlEntryQueries.insert(urlEntry);
+
+        assertThat(this.urlEntryRepository.findByUrlAddress("https://www.google.com")).get()
+            .hasFieldOrPropertyWithValue("id", INSERTED_ID)
+            .hasFieldOrPropertyWithValue("totalViews", 0L);
+    }
+
+    @Test
+    @DisplayName("when I look up for the redirect of an existing entry, then its URL address and policy are returned.")
+    void findRedirectById_withExistingEntry_returnsTheRedirect() {
+        URLEntry urlEntry = new URLEntry(INSERTED_ID, "https://www.google.com", new Date());
+        urlEntry.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        this.urlEntryRepository.save(urlEntry);
+
+        assertThat(this.urlEntryQueries.findRedirectById(INSERTED_ID))
+            .contains(new URLRedirect("https://www.google.com", RedirectPolicy.PERMANENT));
+    }
+
+    @Test
+    @DisplayName("when I look up for the redirect of a non-existing entry, then nothing is returned.")
+    void findRedirectById_withNonExistingEntry_returnsEmpty() {
+        assertThat(this.urlEntryQueries.findRedirectById(INSERTED_ID)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("when I look up for the id of an URL address, then only the entry with that exact address is found.")
+    void findIdByUrlAddress_withExistingEntries_returnsTheIdOfTheMatchingEntry() {
+        this.urlEntryQueries.insert(new URLEntry(INSERTED_ID, "https://www.google.com", new Date()));
+        this.urlEntryQueries.insert(new URLEntry(INSERTED_ID + 1, "https://www.google.com/", new Date()));
+
+        assertThat(this.urlEntryQueries.findIdByUrlAddress("https://www.google.com")).hasValue(INSERTED_ID);
+        assertThat(this.urlEntryQueries.findIdByUrlAddress("https://www.bing.com")).isEmpty();
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import com.neueda.assignment.urlshrinker.math.Base62;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedURLEntryServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private MappedStoreProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        this.properties = new MappedStoreProperties();
+        this.properties.setDirectory(this.directory);
+        this.properties.setSegmentSize(DataSize.ofKilobytes(4));
+        this.properties.setInitialCapacity(2);
+    }
+
+    @Test
+    @DisplayName("Given I shorten URLs, then each URL gets a sequential alias, which resolves back to it, even after a restart.")
+    void shortUrl_withDistinctAndRepeatedURLs_assignsStableAliases() throws IOException {
+        MappedURLEntryService service = new MappedURLEntryService(this.properties);
+        String firstAlias = service.shortUrl("http://first.test.com");
+        String secondAlias = service.shortUrl("http://second.test.com");
+
+        assertThat(firstAlias).isEqualTo(Base62.encode(1L));
+        assertThat(secondAlias).isEqualTo(Base62.encode(2L));
+        assertThat(service.shortUrl("http://first.test.com")).isEqualTo(firstAlias);
+        assertThat(service.findRedirectByUrlAlias(secondAlias).getUrlAddress()).isEqualTo("http://second.test.com");
+        service.destroy();
+
+        MappedURLEntryService restartedService = new MappedURLEntryService(this.properties);
+        assertThat(restartedService.findRedirectByUrlAlias(firstAlias).getUrlAddress()).isEqualTo("http://first.test.com");
+        assertThat(restartedService.shortUrls(Set.of("http://second.test.com", "http://third.test.com")))
+            .containsEntry("http://second.test.com", secondAlias)
+            .containsEntry("http://third.test.com", Base62.encode(3L));
+        restartedService.destroy();
+    }
+
+    @Test
+    @DisplayName("Given I look up an alias never assigned, then a URLNotFoundException is thrown.")
+    void findRedirectByUrlAlias_withUnassignedAlias_throwsURLNotFoundException() throws IOException {
+        MappedURLEntryService service = new MappedURLEntryService(this.properties);
+        service.shortUrl("http://first.test.com");
+
+        assertThatThrownBy(() -> service.findRedirectByUrlAlias(Base62.encode(2L)))
+            .isInstanceOf(URLNotFoundException.class);
+        assertThatThrownBy(() -> service.findRedirectByUrlAlias("fk-Alias"))
+            .isInstanceOf(URLNotFoundException.class);
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("Given several threads shorten the same URLs concurrently, then each URL gets a single alias.")
+    void shortUrl_withConcurrentThreads_assignsASingleAliasPerURL() throws InterruptedException, IOException {
+        MappedURLEntryService service = new MappedURLEntryService(this.properties);
+        Map<String, Set<String>> aliases = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                for (int url = 0; url < 1_000; url++) {
+                    String urlAddress = "http://" + url + ".test.com";
+                    aliases.computeIfAbsent(urlAddress, key -> ConcurrentHashMap.newKeySet())
+                        .add(service.shortUrl(urlAddress));
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(aliases).hasSize(1_000).allSatisfy((urlAddress, urlAliases) -> assertThat(urlAliases).hasSize(1));
+        assertThat(service.findRedirectByUrlAlias(Base62.encode(1_000L)).getUrlAddress()).startsWith("http://");
+        assertThatThrownBy(() -> service.findRedirectByUrlAlias(Base62.encode(1_001L)))
+            .isInstanceOf(URLNotFoundException.class);
+        service.destroy();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedURLLogTest {
+
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> replay(MappedURLLog log) {
+        List<String> urlAddresses = new ArrayList<>();
+        log.replay((offset, urlAddress) -> urlAddresses.add(new String(urlAddress, StandardCharsets.UTF_8)));
+        return urlAddresses;
+    }
+
+    @Test
+    @DisplayName("Given I append records across several segments, then they are read and replayed in order after reopening.")
+    void replay_withRecordsAcrossSegments_returnsThemInOrder() throws IOException {
+        Path path = this.directory.resolve("log");
+        List<Long> offsets = new ArrayList<>();
+        try (MappedURLLog log = new MappedURLLog(path, SEGMENT_SIZE)) {
+            replay(log);
+            for (int index = 0; index < 10; index++) {
+                offsets.add(log.append(bytes("http://" + index + ".test.com/long/path")));
+            }
+            assertThat(log.read(offsets.get(9))).isEqualTo("http://9.test.com/long/path");
+            assertThat(log.matches(offsets.get(3), bytes("http://3.test.com/long/path"))).isTrue();
+            assertThat(log.matches(offsets.get(3), bytes("http://4.test.com/long/path"))).isFalse();
+        }
+
+        try (MappedURLLog log = new MappedURLLog(path, SEGMENT_SIZE)) {
+            assertThat(replay(log)).hasSize(10).startsWith("http://0.test.com/long/path")
+                .endsWith("http://9.test.com/long/path");
+            long offset = log.append(bytes("http://10.test.com"));
+            assertThat(offset).isGreaterThan(offsets.get(9));
+        }
+    }
+
+    @Test
+    @DisplayName("Given the last record is torn, then replay stops at the last complete record.")
+    void replay_withTornLastRecord_stopsAtLastCompleteRecord() throws IOException {
+        Path path = this.directory.resolve("log");
+        long tornOffset;
+        try (MappedURLLog log = new MappedURLLog(path, SEGMENT_SIZE)) {
+            replay(log);
+            log.append(bytes("http://first.test.com"));
+            tornOffset = log.append(bytes("http://second.test.com"));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X' }), tornOffset + MappedURLLog.HEADER_LENGTH + 3);
+        }
+
+        try (MappedURLLog log = new MappedURLLog(path, SEGMENT_SIZE)) {
+            assertThat(replay(log)).containsExactly("http://first.test.com");
+            assertThat(log.append(bytes("http://third.test.com"))).isEqualTo(tornOffset);
+        }
+    }
+
+}
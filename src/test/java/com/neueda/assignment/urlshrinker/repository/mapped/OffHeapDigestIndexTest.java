@@ -0,0 +1,36 @@
+package com.neueda.assignment.urlshrinker.repository.mapped;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapDigestIndexTest {
+
+    @Test
+    @DisplayName("Given I put more entries than the initial capacity, then every entry is still found.")
+    void find_beyondInitialCapacity_findsEveryEntry() {
+        OffHeapDigestIndex index = new OffHeapDigestIndex(1);
+        for (long id = 1; id <= 10_000; id++) {
+            index.put(id * 0x9E3779B97F4A7C15L, id);
+        }
+
+        for (long id = 1; id <= 10_000; id++) {
+            long expectedId = id;
+            assertThat(index.find(id * 0x9E3779B97F4A7C15L, candidate -> candidate == expectedId)).isEqualTo(id);
+        }
+        assertThat(index.find(-1L, candidate -> true)).isZero();
+    }
+
+    @Test
+    @DisplayName("Given several entries share a key, then the entry accepted by the predicate is found.")
+    void find_withSharedKey_returnsEntryAcceptedByThePredicate() {
+        OffHeapDigestIndex index = new OffHeapDigestIndex(16);
+        index.put(0L, 1L);
+        index.put(0L, 2L);
+
+        assertThat(index.find(0L, candidate -> candidate == 2L)).isEqualTo(2L);
+        assertThat(index.find(0L, candidate -> candidate == 3L)).isZero();
+    }
+
+}
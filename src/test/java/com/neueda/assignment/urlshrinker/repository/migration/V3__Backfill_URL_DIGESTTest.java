@@ -0,0 +1,57 @@
+package com.neueda.assignment.urlshrinker.repository.migration;
+
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class V3__Backfill_URL_DIGESTTest {
+
+    private static final String DATABASE_URL = "jdbc:hsqldb:mem:backfill_urlshrinker";
+
+    private Flyway flywayUpTo(String version) {
+        return Flyway.configure()
+            .dataSource(DATABASE_URL, "sa", "")
+            .locations("classpath:db/migration", "classpath:com/neueda/assignment/urlshrinker/repository/migration")
+            .target(version)
+            .load();
+    }
+
+    @Test
+    @DisplayName("Given there are entries created before the digest column, then their digest is filled in by the migration.")
+    void migrate_withEntriesWithoutDigest_fillsInTheDigestOfAllEntries() throws SQLException {
+        flywayUpTo("1").migrate();
+        int totalEntries = V3__Backfill_URL_DIGEST.BATCH_SIZE + 10;
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO URL_ENTRY (URL_ADDRESS, CREATED_AT) VALUES (?, CURRENT_TIMESTAMP)")) {
+            for (int index = 0; index < totalEntries; index++) {
+                insert.setString(1, "https://www.google.com?q=" + index);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        flywayUpTo("latest").migrate();
+
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "");
+             PreparedStatement select = connection.prepareStatement("SELECT URL_ADDRESS, URL_DIGEST FROM URL_ENTRY");
+             ResultSet rows = select.executeQuery()) {
+            int checkedEntries = 0;
+            while (rows.next()) {
+                assertThat(rows.getBytes(2)).isEqualTo(URLDigest.of(rows.getString(1)));
+                checkedEntries++;
+            }
+            assertThat(checkedEntries).isEqualTo(totalEntries);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.neueda.assignment.urlshrinker.repository.reactive;
+
+import com.neueda.assignment.urlshrinker.config.CacheConfiguration;
+import com.neueda.assignment.urlshrinker.repository.URLEntryService;
+import com.neueda.assignment.urlshrinker.repository.URLRedirect;
+import com.neueda.assignment.urlshrinker.repository.exception.URLNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class OffloadingReactiveURLEntryServiceTest {
+
+    private static final URLRedirect FAKE_REDIRECT = new URLRedirect("http://url.test.com", null);
+    private static final String FAKE_ALIAS = "fkAlias";
+
+    @Mock
+    private URLEntryService urlEntryService;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private OffloadingReactiveURLEntryService reactiveURLEntryService;
+
+    @BeforeEach
+    public void setUp() {
+        this.cacheManager = new ConcurrentMapCacheManager(CacheConfiguration.URL_LOOK_UP);
+        this.reactiveURLEntryService = new OffloadingReactiveURLEntryService(this.urlEntryService, this.cacheManager);
+    }
+
+    @Test
+    @DisplayName("Given the alias is cached, then its redirect is returned without calling the blocking service.")
+    void findRedirectByUrlAlias_withCachedAlias_returnsCachedRedirect() {
+        this.cacheManager.getCache(CacheConfiguration.URL_LOOK_UP).put(FAKE_ALIAS, FAKE_REDIRECT);
+
+        URLRedirect result = this.reactiveURLEntryService.findRedirectByUrlAlias(FAKE_ALIAS).block();
+
+        assertThat(result).isEqualTo(FAKE_REDIRECT);
+        verifyNoInteractions(this.urlEntryService);
+    }
+
+    @Test
+    @DisplayName("Given the alias is not cached, then the blocking service is called off the subscribing thread.")
+    void findRedirectByUrlAlias_withAliasNotCached_callsTheBlockingServiceOffTheSubscribingThread() {
+        AtomicReference<Thread> callingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            callingThread.set(Thread.currentThread());
+            return FAKE_REDIRECT;
+        }).when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
+
+        URLRedirect result = this.reactiveURLEntryService.findRedirectByUrlAlias(FAKE_ALIAS).block();
+
+        assertThat(result).isEqualTo(FAKE_REDIRECT);
+        assertThat(callingThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(callingThread.get().getName()).startsWith("boundedElastic");
+    }
+
+    @Test
+    @DisplayName("Given the blocking service fails, then the returned Mono fails with the same exception, unwrapped.")
+    void findRedirectByUrlAlias_withBlockingServiceFailing_failsWithTheSameException() {
+        URLNotFoundException exception = new URLNotFoundException("No URL found.");
+        doThrow(exception).when(this.urlEntryService).findRedirectByUrlAlias(FAKE_ALIAS);
+
+        assertThatThrownBy(() -> this.reactiveURLEntryService.findRedirectByUrlAlias(FAKE_ALIAS).block())
+            .isSameAs(exception);
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.URLEntryWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+class URLViewCounterTest {
+
+    private static final String SELECT_TOTAL_VIEWS = "SELECT TOTAL_VIEWS FROM URL_ENTRY WHERE ID = ?";
+
+    private DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private URLEntryWriter urlEntryWriter;
+
+    private URLViewCounterProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        this.dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:views_urlshrinker", "sa", "");
+        Flyway flyway = Flyway.configure()
+            .dataSource(this.dataSource)
+            .locations("classpath:db/migration", "classpath:com/neueda/assignment/urlshrinker/repository/migration")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        for (long id = 1; id <= 3; id++) {
+            this.jdbcTemplate.update("INSERT INTO URL_ENTRY (ID, URL_ADDRESS, URL_DIGEST, CREATED_AT) "
+                + "VALUES (?, ?, X'00', LOCALTIMESTAMP)", id, "http://" + id + ".test.com");
+        }
+        this.urlEntryWriter = mock(URLEntryWriter.class);
+        this.properties = new URLViewCounterProperties();
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private URLViewCounter newCounter() {
+        return new URLViewCounter(this.jdbcTemplate, new DataSourceTransactionManager(this.dataSource),
+            this.urlEntryWriter, List.of(), this.properties, this.meterRegistry);
+    }
+
+    private long totalViews(long id) {
+        return this.jdbcTemplate.queryForObject(SELECT_TOTAL_VIEWS, Long.class, id);
+    }
+
+    @Test
+    @DisplayName("Given several nodes count views from several threads while flushing, then no view is lost.")
+    void flush_withConcurrentNodesThreadsAndFlushes_addsEveryView() throws InterruptedException {
+        URLViewCounter firstNode = newCounter();
+        URLViewCounter secondNode = newCounter();
+        AtomicBoolean counting = new AtomicBoolean(true);
+        ExecutorService flushers = Executors.newFixedThreadPool(2);
+        for (URLViewCounter node : new URLViewCounter[] { firstNode, secondNode }) {
+            flushers.submit(() -> {
+                while (counting.get()) {
+                    node.flush();
+                }
+            });
+        }
+        ExecutorService counters = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            URLViewCounter node = thread % 2 == 0 ? firstNode : secondNode;
+            long id = thread % 3 + 1;
+            counters.submit(() -> {
+                for (int view = 0; view < 10_000; view++) {
+                    node.increment(id);
+                }
+            });
+        }
+
+        counters.shutdown();
+        assertThat(counters.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        counting.set(false);
+        flushers.shutdown();
+        assertThat(flushers.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        firstNode.flush();
+        secondNode.flush();
+
+        assertThat(totalViews(1L)).isEqualTo(30_000L);
+        assertThat(totalViews(2L)).isEqualTo(30_000L);
+        assertThat(totalViews(3L)).isEqualTo(20_000L);
+    }
+
+    @Test
+    @DisplayName("Given views are counted from a virtual thread each while flushing, then no view is lost.")
+    void flush_withViewsCountedFromVirtualThreads_addsEveryView() throws InterruptedException {
+        URLViewCounter counter = newCounter();
+        AtomicBoolean counting = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (counting.get()) {
+                counter.flush();
+            }
+        });
+        try (ExecutorService counters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int view = 0; view < 20_000; view++) {
+                long id = view % 2 + 1;
+                counters.submit(() -> counter.increment(id));
+            }
+        }
+
+        counting.set(false);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        counter.flush();
+
+        assertThat(totalViews(1L)).isEqualTo(10_000L);
+        assertThat(totalViews(2L)).isEqualTo(10_000L);
+    }
+
+    @Test
+    @DisplayName("Given views of more entries than the table holds, then the views left out are dropped and counted.")
+    void increment_beyondMaximumPendingEntries_dropsAndCountsViews() {
+        this.properties.setMaximumPendingEntries(2);
+        URLViewCounter counter = newCounter();
+
+        counter.increment(1L);
+        counter.increment(2L);
+        counter.increment(3L);
+        counter.flush();
+
+        assertThat(totalViews(1L) + totalViews(2L) + totalViews(3L)).isEqualTo(2L);
+        assertThat(this.meterRegistry.get("url.views.dropped").functionCounter().count()).isEqualTo(1.0D);
+    }
+
+    @Test
+    @DisplayName("Given views of an entry still waiting to be persisted, then they are kept until the entry is persisted.")
+    void flush_withEntryNotPersistedYet_keepsItsViewsForTheNextFlush() {
+        doReturn(Optional.of(new URLEntry(4L, "http://4.test.com", new Date())))
+            .when(this.urlEntryWriter).findPendingById(4L);
+        URLViewCounter counter = newCounter();
+        counter.increment(4L);
+        counter.increment(5L);
+
+        counter.flush();
+        this.jdbcTemplate.update("INSERT INTO URL_ENTRY (ID, URL_ADDRESS, URL_DIGEST, CREATED_AT) "
+            + "VALUES (4, 'http://4.test.com', X'00', LOCALTIMESTAMP)");
+        counter.flush();
+
+        assertThat(totalViews(4L)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Given counting is disabled, then no view is flushed.")
+    void increment_withCountingDisabled_flushesNothing() {
+        this.properties.setEnabled(false);
+        URLViewCounter counter = newCounter();
+
+        counter.increment(1L);
+        counter.flush();
+
+        assertThat(totalViews(1L)).isZero();
+    }
+
+}
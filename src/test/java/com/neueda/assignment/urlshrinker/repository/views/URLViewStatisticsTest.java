@@ -0,0 +1,135 @@
+package com.neueda.assignment.urlshrinker.repository.views;
+
+import com.neueda.assignment.urlshrinker.model.response.URLViewStatisticsResponse;
+import com.neueda.assignment.urlshrinker.model.response.ViewsBucket;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class URLViewStatisticsTest {
+
+    private static final long NOW = Instant.parse("2021-08-20T11:30:00Z").toEpochMilli();
+
+    private static final long ONE_HOUR_AGO = NOW - Duration.ofHours(1).toMillis();
+
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        this.dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:statistics_urlshrinker", "sa", "");
+        Flyway flyway = Flyway.configure()
+            .dataSource(this.dataSource)
+            .locations("classpath:db/migration", "classpath:com/neueda/assignment/urlshrinker/repository/migration")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    private URLViewStatistics newStatistics() {
+        return new URLViewStatistics(new JdbcTemplate(this.dataSource),
+            new DataSourceTransactionManager(this.dataSource), new URLViewStatisticsProperties());
+    }
+
+    private static List<Long> views(List<ViewsBucket> buckets) {
+        return buckets.stream().map(ViewsBucket::getViews).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Given views were counted, then they are reported per minute, hour and day, ending at the current one.")
+    void findByUrlEntryId_withCountedViews_reportsThemPerMinuteHourAndDay() {
+        URLViewStatistics statistics = newStatistics();
+        statistics.viewsCounted(Map.of(1L, 3L, 2L, 7L), ONE_HOUR_AGO);
+        statistics.viewsCounted(Map.of(1L, 2L), NOW);
+
+        URLViewStatisticsResponse result = statistics.findByUrlEntryId(1L, NOW);
+
+        assertThat(result.getMinutes()).hasSize(60);
+        assertThat(result.getMinutes().get(59)).isEqualTo(new ViewsBucket(Instant.ofEpochMilli(NOW), 2L));
+        assertThat(views(result.getMinutes()).stream().mapToLong(Long::longValue).sum()).isEqualTo(2L);
+        assertThat(result.getHours()).hasSize(24);
+        assertThat(views(result.getHours()).subList(22, 24)).containsExactly(3L, 2L);
+        assertThat(result.getDays()).hasSize(30);
+        assertThat(result.getDays().get(29)).isEqualTo(new ViewsBucket(Instant.parse("2021-08-20T00:00:00Z"), 5L));
+    }
+
+    @Test
+    @DisplayName("Given rollups were written by several nodes, then a restarted node reports their hours and days once.")
+    void findByUrlEntryId_afterRestart_reportsWrittenAndPendingRollupsOnce() {
+        URLViewStatistics firstNode = newStatistics();
+        URLViewStatistics secondNode = newStatistics();
+        firstNode.viewsCounted(Map.of(1L, 3L), ONE_HOUR_AGO);
+        secondNode.viewsCounted(Map.of(1L, 4L), ONE_HOUR_AGO);
+        firstNode.persist();
+        secondNode.persist();
+
+        URLViewStatistics restartedNode = newStatistics();
+        restartedNode.viewsCounted(Map.of(1L, 2L), NOW);
+        URLViewStatisticsResponse beforeWriting = restartedNode.findByUrlEntryId(1L, NOW);
+        restartedNode.persist();
+        restartedNode.viewsCounted(Map.of(1L, 1L), NOW);
+        URLViewStatisticsResponse afterWriting = restartedNode.findByUrlEntryId(1L, NOW);
+
+        assertThat(views(beforeWriting.getHours()).subList(22, 24)).containsExactly(7L, 2L);
+        assertThat(views(afterWriting.getHours()).subList(22, 24)).containsExactly(7L, 3L);
+        assertThat(afterWriting.getDays().get(29).getViews()).isEqualTo(10L);
+        assertThat(views(afterWriting.getMinutes()).stream().mapToLong(Long::longValue).sum()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Given the rollups of an entry are being loaded, then views are counted meanwhile and reported once.")
+    void viewsCounted_whileLoadingRollups_isNotBlocked() throws Exception {
+        URLViewStatistics firstNode = newStatistics();
+        firstNode.viewsCounted(Map.of(1L, 3L), ONE_HOUR_AGO);
+        firstNode.persist();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch counted = new CountDownLatch(1);
+        JdbcTemplate slowJdbcTemplate = new JdbcTemplate(this.dataSource) {
+            @Override
+            public void query(String sql, RowCallbackHandler rowCallbackHandler, Object... args) {
+                loading.countDown();
+                try {
+                    counted.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                super.query(sql, rowCallbackHandler, args);
+            }
+        };
+        URLViewStatistics statistics = new URLViewStatistics(slowJdbcTemplate,
+            new DataSourceTransactionManager(this.dataSource), new URLViewStatisticsProperties());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<URLViewStatisticsResponse> result = executor.submit(() -> statistics.findByUrlEntryId(1L, NOW));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> statistics.viewsCounted(Map.of(1L, 2L), NOW));
+            counted.countDown();
+
+            assertThat(views(result.get(5, TimeUnit.SECONDS).getHours()).subList(22, 24)).containsExactly(3L, 2L);
+        } finally {
+            counted.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.neueda.assignment.urlshrinker.repository.writebehind;
+
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class URLEntryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Given I append entries, then they are read back in the same order after reopening the journal.")
+    void readAll_afterReopening_returnsAppendedEntriesInOrder() throws IOException {
+        Path path = this.directory.resolve("write-behind.journal");
+        URLEntry first = new URLEntry(1L, "http://first.test.com", new Date(1_000L));
+        URLEntry second = new URLEntry(2L, "http://second.test.com/\u00e7\u00e3o", new Date(2_000L));
+        try (URLEntryJournal journal = new URLEntryJournal(path)) {
+            journal.append(first);
+            journal.append(second);
+        }
+
+        try (URLEntryJournal journal = new URLEntryJournal(path)) {
+            assertThat(journal.readAll()).containsExactly(first, second);
+        }
+    }
+
+    @Test
+    @DisplayName("Given the last record is torn, then only the complete records are read.")
+    void readAll_withTornLastRecord_returnsOnlyCompleteRecords() throws IOException {
+        Path path = this.directory.resolve("write-behind.journal");
+        URLEntry first = new URLEntry(1L, "http://first.test.com", new Date(1_000L));
+        try (URLEntryJournal journal = new URLEntryJournal(path)) {
+            journal.append(first);
+            journal.append(new URLEntry(2L, "http://second.test.com", new Date(2_000L)));
+        }
+        long size = Files.size(path);
+        try (var channel = Files.newByteChannel(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (URLEntryJournal journal = new URLEntryJournal(path)) {
+            assertThat(journal.readAll()).containsExactly(first);
+        }
+    }
+
+    @Test
+    @DisplayName("Given I truncate the journal, then no entry is read and new entries are appended from the start.")
+    void truncate_withAppendedEntries_discardsThem() throws IOException {
+        URLEntry entry = new URLEntry(3L, "http://third.test.com", new Date(3_000L));
+        try (URLEntryJournal journal = new URLEntryJournal(this.directory.resolve("write-behind.journal"))) {
+            journal.append(new URLEntry(1L, "http://first.test.com", new Date(1_000L)));
+            journal.truncate();
+            assertThat(journal.readAll()).isEmpty();
+
+            journal.append(entry);
+            assertThat(journal.readAll()).containsExactly(entry);
+        }
+    }
+
+}
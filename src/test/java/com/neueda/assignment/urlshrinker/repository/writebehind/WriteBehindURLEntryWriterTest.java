@@ -0,0 +1,148 @@
+package com.neueda.assignment.urlshrinker.repository.writebehind;
+
+import com.neueda.assignment.urlshrinker.cache.URLEntryIdFilter;
+import com.neueda.assignment.urlshrinker.math.URLDigest;
+import com.neueda.assignment.urlshrinker.model.entity.URLEntry;
+import com.neueda.assignment.urlshrinker.repository.exception.WriteBehindQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class WriteBehindURLEntryWriterTest {
+
+    private static final String COUNT_ENTRIES = "SELECT COUNT(*) FROM URL_ENTRY";
+
+    @TempDir
+    Path directory;
+
+    private DriverManagerDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private URLEntryIdFilter urlEntryIdFilter;
+
+    private WriteBehindProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        this.dataSource = new DriverManagerDataSource("jdbc:hsqldb:mem:write_behind_urlshrinker", "sa", "");
+        Flyway flyway = Flyway.configure()
+            .dataSource(this.dataSource)
+            .locations("classpath:db/migration", "classpath:com/neueda/assignment/urlshrinker/repository/migration")
+            .cleanDisabled(false)
+            .load();
+        flyway.clean();
+        flyway.migrate();
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.urlEntryIdFilter = mock(URLEntryIdFilter.class);
+        this.properties = new WriteBehindProperties();
+        this.properties.setJournalPath(this.directory.resolve("write-behind.journal"));
+        this.properties.setDeadLetterPath(this.directory.resolve("write-behind.dead-letter"));
+        this.meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private WriteBehindURLEntryWriter newWriter() {
+        return new WriteBehindURLEntryWriter(this.jdbcTemplate, new DataSourceTransactionManager(this.dataSource),
+            this.urlEntryIdFilter, this.properties, this.meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Given I write entries, then they are readable while pending and persisted once the writer is stopped.")
+    void write_withNewEntries_readableWhilePendingAndPersistedOnShutdown() throws Exception {
+        this.properties.setLinger(Duration.ofSeconds(10));
+        WriteBehindURLEntryWriter writer = newWriter();
+        writer.afterSingletonsInstantiated();
+        URLEntry entry = new URLEntry(1L, "http://first.test.com", new Date());
+
+        writer.write(entry);
+        writer.write(new URLEntry(2L, "http://second.test.com", new Date()));
+
+        assertThat(writer.findPendingById(1L)).contains(entry);
+        assertThat(writer.findPendingByUrlAddress("http://first.test.com")).contains(entry);
+
+        writer.destroy();
+
+        assertThat(this.jdbcTemplate.queryForObject(COUNT_ENTRIES, Long.class)).isEqualTo(2L);
+        assertThat(writer.findPendingById(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given the queue is full, then new entries are rejected with a WriteBehindQueueFullException.")
+    void write_withFullQueue_throwsWriteBehindQueueFullException() throws Exception {
+        this.properties.setQueueCapacity(1);
+        this.properties.setLinger(Duration.ofSeconds(10));
+        this.properties.setOfferTimeout(Duration.ofMillis(10));
+        WriteBehindURLEntryWriter writer = newWriter();
+        writer.afterSingletonsInstantiated();
+        writer.write(new URLEntry(1L, "http://first.test.com", new Date()));
+
+        assertThatThrownBy(() -> writer.write(new URLEntry(2L, "http://second.test.com", new Date())))
+            .isInstanceOf(WriteBehindQueueFullException.class);
+
+        writer.destroy();
+    }
+
+    @Test
+    @DisplayName("Given journaled entries are left by a previous run, then they are persisted on startup, only once.")
+    void afterSingletonsInstantiated_withJournaledEntries_persistsThemOnce() throws Exception {
+        try (URLEntryJournal journal = new URLEntryJournal(this.properties.getJournalPath())) {
+            URLEntry entry = new URLEntry(7L, "http://journaled.test.com", new Date());
+            journal.append(entry);
+            journal.append(entry);
+        }
+
+        WriteBehindURLEntryWriter writer = newWriter();
+        writer.afterSingletonsInstantiated();
+        writer.destroy();
+
+        assertThat(this.jdbcTemplate.queryForObject(COUNT_ENTRIES, Long.class)).isEqualTo(1L);
+        verify(this.urlEntryIdFilter, atLeastOnce()).registerExisting(7L);
+        try (URLEntryJournal journal = new URLEntryJournal(this.properties.getJournalPath())) {
+            assertThat(journal.readAll()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Given an entry keeps failing to be persisted, then it is moved to the dead letter file and the entries around it are persisted.")
+    void write_withEntryFailingToBePersisted_movesItToTheDeadLetterFile() throws Exception {
+        this.jdbcTemplate.update(WriteBehindURLEntryWriter.MERGE_URL_ENTRY, 100L, "http://taken.test.com",
+            URLDigest.of("http://taken.test.com"), new Timestamp(System.currentTimeMillis()));
+        this.properties.setLinger(Duration.ofSeconds(10));
+        this.properties.setMaxAttempts(2);
+        this.properties.setRetryDelay(Duration.ofMillis(10));
+        WriteBehindURLEntryWriter writer = newWriter();
+        writer.afterSingletonsInstantiated();
+
+        writer.write(new URLEntry(1L, "http://first.test.com", new Date()));
+        writer.write(new URLEntry(2L, "http://taken.test.com", new Date()));
+        writer.write(new URLEntry(3L, "http://third.test.com", new Date()));
+        writer.destroy();
+
+        assertThat(this.jdbcTemplate.queryForList("SELECT ID FROM URL_ENTRY ORDER BY ID", Long.class))
+            .containsExactly(1L, 3L, 100L);
+        assertThat(this.meterRegistry.get("url.entry.write.behind.dead.letters").counter().count()).isEqualTo(1.0);
+        try (URLEntryJournal deadLetters = new URLEntryJournal(this.properties.getDeadLetterPath())) {
+            assertThat(deadLetters.readAll()).extracting(URLEntry::getId).containsExactly(2L);
+        }
+    }
+
+}